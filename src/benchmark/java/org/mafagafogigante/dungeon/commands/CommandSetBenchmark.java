@@ -0,0 +1,44 @@
+package org.mafagafogigante.dungeon.commands;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures suggesting commands for a token that is not a command of the default CommandSet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandSetBenchmark {
+
+  @Param({"lok", "inventroy", "supercalifragilistic"})
+  public String token;
+
+  private CommandSet commandSet;
+
+  @Setup
+  public void setUp() {
+    commandSet = CommandSets.getCommandSet("default");
+  }
+
+  @Benchmark
+  public List<String> getClosestCommands() {
+    return commandSet.getClosestCommands(token);
+  }
+
+}
@@ -0,0 +1,56 @@
+package org.mafagafogigante.dungeon.date;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the Date arithmetic done whenever time passes in the game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateBenchmark {
+
+  private Date date = new Date(2055, 6, 2, 6, 10, 0);
+  private final Date creationDate = new Date(1, 1, 1);
+
+  /**
+   * Advances the date by a few minutes, as a turn does.
+   */
+  @Benchmark
+  public Date plus() {
+    date = date.plus(7, DungeonTimeUnit.MINUTE);
+    return date;
+  }
+
+  @Benchmark
+  public Date minus() {
+    return date.minus(3, DungeonTimeUnit.DAY);
+  }
+
+  @Benchmark
+  public int compareTo() {
+    return date.compareTo(creationDate);
+  }
+
+  /**
+   * Gets the calendar fields of a date, as describing it does.
+   */
+  @Benchmark
+  public long getCalendarFields() {
+    return date.getYear() + date.getMonth() + date.getDay() + date.getHour();
+  }
+
+}
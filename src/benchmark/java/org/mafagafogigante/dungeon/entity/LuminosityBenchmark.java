@@ -0,0 +1,52 @@
+package org.mafagafogigante.dungeon.entity;
+
+import org.mafagafogigante.dungeon.entity.creatures.Creature;
+import org.mafagafogigante.dungeon.entity.creatures.CreaturePreset;
+import org.mafagafogigante.dungeon.game.World;
+import org.mafagafogigante.dungeon.stats.WorldStatistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding up the luminosity of the Entities of a Location, with one Creature of each preset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LuminosityBenchmark {
+
+  private final List<Entity> entities = new ArrayList<>();
+
+  /**
+   * Makes one Creature of each preset.
+   */
+  @Setup
+  public void setUp() {
+    // The factory would record the spawns in the statistics of a game, so the Creatures are made from the presets.
+    for (CreaturePreset preset : new World(new WorldStatistics()).getCreatureFactory().getPresets()) {
+      entities.add(new Creature(preset));
+    }
+  }
+
+  @Benchmark
+  public Luminosity resultantLuminosity() {
+    return Luminosity.resultantLuminosity(entities);
+  }
+
+}
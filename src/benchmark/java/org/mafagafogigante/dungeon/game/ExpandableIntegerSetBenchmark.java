@@ -0,0 +1,122 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ExpandableIntegerSet to the TreeSet of Integers that used to back it, at about a million integers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpandableIntegerSetBenchmark {
+
+  private static final int MINIMUM_DIFFERENCE = 1;
+  private static final int MAXIMUM_DIFFERENCE = 3;
+  /**
+   * The average difference is 1.5, so expanding to both bounds makes about a million integers.
+   */
+  private static final int BOUND = 750000;
+  private static final int QUERY_COUNT = 1 << 16;
+  private static final long SEED = 42;
+
+  private ExpandableIntegerSet set;
+  private NavigableSet<Integer> treeSet;
+  private final int[] queries = new int[QUERY_COUNT];
+  private int query;
+
+  /**
+   * Builds both sets with the same integers and the integers that are looked up in them.
+   */
+  @Setup
+  public void setUp() {
+    set = makeSet();
+    treeSet = new TreeSet<>();
+    for (int i = -BOUND - MAXIMUM_DIFFERENCE; i <= BOUND + MAXIMUM_DIFFERENCE; i++) {
+      if (set.contains(i)) {
+        treeSet.add(i);
+      }
+    }
+    Random random = new Random(SEED);
+    for (int i = 0; i < QUERY_COUNT; i++) {
+      queries[i] = random.nextInt(2 * BOUND) - BOUND;
+    }
+  }
+
+  private static ExpandableIntegerSet makeSet() {
+    ExpandableIntegerSet set = new ExpandableIntegerSet(MINIMUM_DIFFERENCE, MAXIMUM_DIFFERENCE, SEED);
+    set.expand(BOUND);
+    set.expand(-BOUND);
+    return set;
+  }
+
+  /**
+   * Expands a TreeSet the way ExpandableIntegerSet used to.
+   */
+  private static NavigableSet<Integer> makeTreeSet() {
+    NavigableSet<Integer> treeSet = new TreeSet<>();
+    List<Integer> integerList = new ArrayList<>();
+    treeSet.add(0);
+    SplitMix64 upwards = new SplitMix64(SplitMix64.derive(SEED, 1));
+    int integer = treeSet.last();
+    while (BOUND >= integer) {
+      integer += MINIMUM_DIFFERENCE + upwards.nextInt(MAXIMUM_DIFFERENCE - MINIMUM_DIFFERENCE);
+      integerList.add(integer);
+      treeSet.add(integer);
+    }
+    SplitMix64 downwards = new SplitMix64(SplitMix64.derive(SEED, -1));
+    integer = treeSet.first();
+    while (-BOUND <= integer) {
+      integer -= MINIMUM_DIFFERENCE + downwards.nextInt(MAXIMUM_DIFFERENCE - MINIMUM_DIFFERENCE);
+      integerList.add(integer);
+      treeSet.add(integer);
+    }
+    return treeSet;
+  }
+
+  private int nextQuery() {
+    query = (query + 1) & (QUERY_COUNT - 1);
+    return queries[query];
+  }
+
+  @Benchmark
+  public boolean containsSortedArray() {
+    return set.contains(nextQuery());
+  }
+
+  @Benchmark
+  public boolean containsTreeSet() {
+    return treeSet.contains(nextQuery());
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public ExpandableIntegerSet expandSortedArray() {
+    return makeSet();
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public NavigableSet<Integer> expandTreeSet() {
+    return makeTreeSet();
+  }
+
+}
@@ -0,0 +1,167 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.game.GenerationProfile.Placement;
+import org.mafagafogigante.dungeon.stats.WorldStatistics;
+import org.mafagafogigante.dungeon.util.StopWatch;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures world generation without a window nor a Hero.
+ *
+ * <p>Generates a square of the surface of a World centered at the origin, chunk by chunk, on the current thread, and
+ * reports how many Locations were generated per second, how much heap each Location takes, and how the time was split
+ * between placing rivers, dungeons, and land blobs. Build it with mvn -P benchmarks package and run it with
+ *
+ * <pre>
+ * java -cp target/dungeon-VERSION.jar:target/test-classes \
+ *     org.mafagafogigante.dungeon.game.GenerationBenchmark [side] [seed]
+ * </pre>
+ *
+ * <p>where side is the side of the square in Locations, which defaults to 1000, and seed is the seed of the World,
+ * which defaults to 0. The heap of the JVM should be large enough for the whole square, as nothing is evicted.
+ */
+public final class GenerationBenchmark {
+
+  private static final int DEFAULT_SIDE = 1000;
+  private static final long DEFAULT_SEED = 0;
+  private static final String USAGE = "Usage: GenerationBenchmark [side] [seed]";
+
+  private GenerationBenchmark() { // Ensure that this class cannot be instantiated.
+    throw new AssertionError();
+  }
+
+  /**
+   * Generates a square of the specified side with the specified seed and prints the results.
+   */
+  public static void main(String[] args) {
+    int side = DEFAULT_SIDE;
+    long seed = DEFAULT_SEED;
+    try {
+      if (args.length > 0) {
+        side = Integer.parseInt(args[0]);
+      }
+      if (args.length > 1) {
+        seed = Long.parseLong(args[1]);
+      }
+    } catch (NumberFormatException ignore) {
+      System.err.println(USAGE);
+      return;
+    }
+    if (side <= 0 || args.length > 2) {
+      System.err.println(USAGE);
+      return;
+    }
+    run(side, seed).print(System.out);
+  }
+
+  /**
+   * Generates the chunks that intersect a square of the specified side centered at the origin.
+   */
+  static Result run(int side, long seed) {
+    WorldStatistics statistics = new WorldStatistics();
+    World world = new World(statistics, seed);
+    WorldGenerator generator = new WorldGenerator(world, seed);
+    GenerationProfile profile = new GenerationProfile();
+    generator.setProfile(profile);
+    int chunkSide = generator.getChunkSide();
+    int min = -side / 2;
+    int max = min + side - 1;
+    long heapBefore = getUsedHeap();
+    int chunks = 0;
+    StopWatch stopWatch = new StopWatch();
+    for (int x = min; x <= max; x = (ChunkedLocationStore.toChunkCoordinate(x, chunkSide) + 1) * chunkSide) {
+      for (int y = min; y <= max; y = (ChunkedLocationStore.toChunkCoordinate(y, chunkSide) + 1) * chunkSide) {
+        generator.expand(new Point(x, y, 0));
+        chunks++;
+      }
+    }
+    long nanoseconds = stopWatch.getElapsedTime(TimeUnit.NANOSECONDS);
+    long heap = getUsedHeap() - heapBefore;
+    return new Result(seed, chunks, statistics.getLocationCount(), nanoseconds, heap, profile);
+  }
+
+  /**
+   * Returns how many bytes of the heap are used after collecting the garbage.
+   */
+  private static long getUsedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    long used = Long.MAX_VALUE;
+    // A single collection may not collect everything, so collect until the used heap stops decreasing.
+    for (int i = 0; i < 8; i++) {
+      System.gc();
+      long current = runtime.totalMemory() - runtime.freeMemory();
+      if (current >= used) {
+        break;
+      }
+      used = current;
+    }
+    return used;
+  }
+
+  static final class Result {
+
+    private final long seed;
+    private final int chunks;
+    private final int locations;
+    private final long nanoseconds;
+    private final long heap;
+    private final GenerationProfile profile;
+
+    private Result(long seed, int chunks, int locations, long nanoseconds, long heap, GenerationProfile profile) {
+      this.seed = seed;
+      this.chunks = chunks;
+      this.locations = locations;
+      this.nanoseconds = nanoseconds;
+      this.heap = heap;
+      this.profile = profile;
+    }
+
+    int getChunks() {
+      return chunks;
+    }
+
+    int getLocations() {
+      return locations;
+    }
+
+    GenerationProfile getProfile() {
+      return profile;
+    }
+
+    double getLocationsPerSecond() {
+      return locations / (nanoseconds / 1e9);
+    }
+
+    double getHeapPerLocation() {
+      return (double) heap / locations;
+    }
+
+    void print(@NotNull PrintStream stream) {
+      double milliseconds = nanoseconds / 1e6;
+      stream.println(String.format(Locale.ENGLISH, "Seed: %d", seed));
+      stream.println(String.format(Locale.ENGLISH, "Generated %,d Locations in %,d chunks in %,.0f ms.", locations,
+          chunks, milliseconds));
+      stream.println(String.format(Locale.ENGLISH, "Locations per second: %,.0f", getLocationsPerSecond()));
+      stream.println(String.format(Locale.ENGLISH, "Heap per Location: %,.0f bytes", getHeapPerLocation()));
+      long profiled = 0;
+      for (Placement placement : Placement.values()) {
+        double placementMilliseconds = profile.getNanoseconds(placement) / 1e6;
+        int placed = profile.getLocations(placement);
+        String format = "%-8s %,10.0f ms %5.1f%% %,12d Locations";
+        double share = 100 * placementMilliseconds / milliseconds;
+        stream.println(String.format(Locale.ENGLISH, format, placement, placementMilliseconds, share, placed));
+        profiled += profile.getNanoseconds(placement);
+      }
+      double otherMilliseconds = (nanoseconds - profiled) / 1e6;
+      double otherShare = 100 * otherMilliseconds / milliseconds;
+      stream.println(String.format(Locale.ENGLISH, "%-8s %,10.0f ms %5.1f%%", "Other", otherMilliseconds, otherShare));
+    }
+
+  }
+
+}
@@ -0,0 +1,28 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.game.GenerationProfile.Placement;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GenerationBenchmarkTest {
+
+  @Test
+  public void runShouldGenerateEveryChunkThatIntersectsTheSquare() throws Exception {
+    // With chunks of side 5, a square of side 12 from -6 to 5 intersects 4 chunks in each direction.
+    GenerationBenchmark.Result result = GenerationBenchmark.run(12, 0);
+    Assert.assertEquals(16, result.getChunks());
+    Assert.assertTrue(result.getLocations() >= 16 * 25);
+  }
+
+  @Test
+  public void runShouldAttributeEveryLocationToAPlacement() throws Exception {
+    GenerationBenchmark.Result result = GenerationBenchmark.run(100, 0);
+    int placed = 0;
+    for (Placement placement : Placement.values()) {
+      placed += result.getProfile().getLocations(placement);
+    }
+    Assert.assertEquals(result.getLocations(), placed);
+  }
+
+}
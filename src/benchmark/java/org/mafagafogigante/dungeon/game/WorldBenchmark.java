@@ -0,0 +1,92 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.stats.WorldStatistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures getting Locations that were already generated and generating new chunks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldBenchmark {
+
+  /**
+   * The side of the square of generated Locations that are looked up.
+   */
+  private static final int SIDE = 100;
+  /**
+   * How many chunks are generated in a row before starting the next row.
+   */
+  private static final int CHUNKS_PER_ROW = 1024;
+  private static final int QUERY_COUNT = 1 << 16;
+  private static final long SEED = 42;
+
+  private World world;
+  private final Point[] queries = new Point[QUERY_COUNT];
+  private int query;
+
+  private WorldGenerator generator;
+  private int chunk;
+
+  /**
+   * Generates the Locations that are looked up and the Points at which they are looked up.
+   */
+  @Setup
+  public void setUp() {
+    world = new World(new WorldStatistics(), SEED);
+    for (int x = 0; x < SIDE; x++) {
+      for (int y = 0; y < SIDE; y++) {
+        world.getLocation(new Point(x, y, 0));
+      }
+    }
+    Random random = new Random(SEED);
+    for (int i = 0; i < QUERY_COUNT; i++) {
+      queries[i] = new Point(random.nextInt(SIDE), random.nextInt(SIDE), 0);
+    }
+  }
+
+  /**
+   * Makes a new World for each iteration, so that the generated chunks do not pile up in the heap.
+   */
+  @Setup(Level.Iteration)
+  public void setUpGenerator() {
+    generator = new WorldGenerator(new World(new WorldStatistics(), SEED), SEED);
+    chunk = 0;
+  }
+
+  @Benchmark
+  public Location getLocation() {
+    query = (query + 1) & (QUERY_COUNT - 1);
+    return world.getLocation(queries[query]);
+  }
+
+  /**
+   * Generates the next chunk that was not generated yet.
+   */
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void expand() {
+    int chunkSide = generator.getChunkSide();
+    generator.expand(new Point(chunkSide * (chunk % CHUNKS_PER_ROW), chunkSide * (chunk / CHUNKS_PER_ROW), 0));
+    chunk++;
+  }
+
+}
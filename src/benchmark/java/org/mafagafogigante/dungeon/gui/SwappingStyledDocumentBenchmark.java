@@ -0,0 +1,83 @@
+package org.mafagafogigante.dungeon.gui;
+
+import org.mafagafogigante.dungeon.game.DungeonString;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JTextPane;
+
+/**
+ * Measures writing a paragraph of text and a screen of colored map symbols to the text pane. The document is cleared
+ * before every write, so that it does not grow between invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SwappingStyledDocumentBenchmark {
+
+  private static final int MAP_ROWS = 29;
+  private static final int MAP_COLUMNS = 100;
+  private static final Color[] MAP_COLORS = {Color.GREEN, Color.BLUE, Color.YELLOW, Color.GRAY};
+  private static final long SEED = 42;
+
+  private final WritingSpecifications specifications = new WritingSpecifications(false, 0);
+  private SwappingStyledDocument document;
+  private DungeonString paragraph;
+  private DungeonString map;
+
+  /**
+   * Makes the document and what is written to it. The map has runs of one to eight symbols of the same color.
+   */
+  @Setup
+  public void setUp() {
+    document = new SwappingStyledDocument(new JTextPane());
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 20; i++) {
+      builder.append("You are in a forest. The trees are tall and the ground is covered with leaves. ");
+    }
+    paragraph = new DungeonString(builder.toString());
+    map = new DungeonString();
+    Random random = new Random(SEED);
+    for (int row = 0; row < MAP_ROWS; row++) {
+      int column = 0;
+      while (column < MAP_COLUMNS) {
+        int length = Math.min(1 + random.nextInt(8), MAP_COLUMNS - column);
+        map.setColor(MAP_COLORS[random.nextInt(MAP_COLORS.length)]);
+        for (int i = 0; i < length; i++) {
+          map.append("~");
+        }
+        column += length;
+      }
+      map.append("\n");
+    }
+  }
+
+  @Benchmark
+  public void writeParagraph() {
+    document.clear();
+    document.write(paragraph, specifications);
+  }
+
+  @Benchmark
+  public void writeMap() {
+    document.clear();
+    document.write(map, specifications);
+  }
+
+}
@@ -0,0 +1,84 @@
+package org.mafagafogigante.dungeon.io;
+
+import org.mafagafogigante.dungeon.game.GameState;
+import org.mafagafogigante.dungeon.game.SaveJournal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving a new game the way the Loader does and loading it back.
+ *
+ * <p>The game is saved to two files alternately, so that every save writes the whole game instead of appending what
+ * changed since the previous one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoaderBenchmark {
+
+  @Param({"NONE", "DEFLATE", "GZIP"})
+  public String codecName;
+
+  private SaveCodec codec;
+  private GameState gameState;
+  private File directory;
+  private final File[] files = new File[2];
+  private int file;
+
+  /**
+   * Makes a new game and the directory the save files are written to.
+   */
+  @Setup
+  public void setUp() throws IOException {
+    codec = SaveCodec.fromName(codecName);
+    gameState = new GameState();
+    directory = Files.createTempDirectory("dungeon-benchmark").toFile();
+    files[0] = new File(directory, "first.dungeon");
+    files[1] = new File(directory, "second.dungeon");
+  }
+
+  /**
+   * Deletes the save files and their directory.
+   */
+  @TearDown
+  public void tearDown() {
+    File[] savedFiles = directory.listFiles();
+    if (savedFiles != null) {
+      for (File savedFile : savedFiles) {
+        savedFile.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  /**
+   * Saves the game and loads it back.
+   */
+  @Benchmark
+  public GameState saveAndLoad() throws IOException, ClassNotFoundException {
+    file = 1 - file;
+    SaveJournal.Snapshot snapshot = SaveJournal.prepare(gameState, files[file], codec);
+    Loader.writeSnapshot(snapshot, gameState.getGameVersion());
+    return SaveJournal.load(files[file]);
+  }
+
+}
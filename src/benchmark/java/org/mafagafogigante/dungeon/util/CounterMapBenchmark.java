@@ -0,0 +1,120 @@
+package org.mafagafogigante.dungeon.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the CounterMap with the HashMapCounterMap it replaced.
+ *
+ * <p>The increments are those of the WorldStatistics, which count every spawn and every created Location by name, and
+ * the counting is that of Matches and Utils, which count the names of a few Entities in a fresh map.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CounterMapBenchmark {
+
+  @Param({"8", "64"})
+  public int keyCount;
+
+  private String[] keys;
+  private final CounterMap<String> counterMap = new CounterMap<>();
+  private final HashMapCounterMap<String> hashMapCounterMap = new HashMapCounterMap<>();
+  private int next;
+
+  /**
+   * Makes the keys and adds all of them to the maps.
+   */
+  @Setup
+  public void setUp() {
+    keys = new String[keyCount];
+    for (int i = 0; i < keyCount; i++) {
+      keys[i] = "Creature " + i;
+      counterMap.incrementCounter(keys[i], i);
+      hashMapCounterMap.incrementCounter(keys[i], i);
+    }
+  }
+
+  private String nextKey() {
+    next = next + 1 == keyCount ? 0 : next + 1;
+    return keys[next];
+  }
+
+  @Benchmark
+  public int incrementCounter() {
+    String key = nextKey();
+    counterMap.incrementCounter(key);
+    return counterMap.getCounter(key);
+  }
+
+  @Benchmark
+  public int incrementHashMapCounter() {
+    String key = nextKey();
+    hashMapCounterMap.incrementCounter(key);
+    return hashMapCounterMap.getCounter(key);
+  }
+
+  /**
+   * Counts every key in a new map, as Matches and Utils do with names.
+   */
+  @Benchmark
+  public CounterMap<String> countInNewCounterMap() {
+    CounterMap<String> map = new CounterMap<>();
+    for (String key : keys) {
+      map.incrementCounter(key);
+    }
+    return map;
+  }
+
+  /**
+   * Counts every key in a new map, as Matches and Utils did with names.
+   */
+  @Benchmark
+  public HashMapCounterMap<String> countInNewHashMapCounterMap() {
+    HashMapCounterMap<String> map = new HashMapCounterMap<>();
+    for (String key : keys) {
+      map.incrementCounter(key);
+    }
+    return map;
+  }
+
+  /**
+   * Iterates over the keys by descending counter twice, as writing the results of a search does.
+   */
+  @Benchmark
+  public void iterateSortedCounterMap(Blackhole blackhole) {
+    for (int i = 0; i < 2; i++) {
+      for (String key : counterMap) {
+        blackhole.consume(key);
+      }
+    }
+  }
+
+  /**
+   * Iterates over the keys by descending counter twice, as writing the results of a search did.
+   */
+  @Benchmark
+  public void iterateSortedHashMapCounterMap(Blackhole blackhole) {
+    for (int i = 0; i < 2; i++) {
+      for (String key : hashMapCounterMap) {
+        blackhole.consume(key);
+      }
+    }
+  }
+
+}
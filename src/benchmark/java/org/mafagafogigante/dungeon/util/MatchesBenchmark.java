@@ -0,0 +1,59 @@
+package org.mafagafogigante.dungeon.util;
+
+import org.mafagafogigante.dungeon.entity.creatures.Creature;
+import org.mafagafogigante.dungeon.entity.creatures.CreaturePreset;
+import org.mafagafogigante.dungeon.game.World;
+import org.mafagafogigante.dungeon.stats.WorldStatistics;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the Creatures a command refers to among one Creature of each preset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchesBenchmark {
+
+  @Param({"bat", "fruit bat", "unicorn"})
+  public String query;
+
+  private final List<Creature> creatures = new ArrayList<>();
+  private String[] tokens;
+
+  /**
+   * Makes the Creatures and splits the query into tokens, as the command parser does.
+   */
+  @Setup
+  public void setUp() {
+    // The factory would record the spawns in the statistics of a game, so the Creatures are made from the presets.
+    for (CreaturePreset preset : new World(new WorldStatistics()).getCreatureFactory().getPresets()) {
+      creatures.add(new Creature(preset));
+    }
+    tokens = StringUtils.split(query);
+  }
+
+  @Benchmark
+  public Matches<Creature> findBestMatches() {
+    return Matches.findBestMatches(creatures, tokens);
+  }
+
+}
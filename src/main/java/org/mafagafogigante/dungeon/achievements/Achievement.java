@@ -5,9 +5,11 @@ import org.mafagafogigante.dungeon.game.PartOfDay;
 import org.mafagafogigante.dungeon.stats.BattleStatistics;
 import org.mafagafogigante.dungeon.stats.ExplorationStatistics;
 import org.mafagafogigante.dungeon.stats.Statistics;
+import org.mafagafogigante.dungeon.stats.StatisticsChange;
 import org.mafagafogigante.dungeon.util.CounterMap;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Set;
 
 /**
@@ -22,6 +24,7 @@ public class Achievement {
 
   private final BattleComponent battle;
   private final ExplorationComponent exploration;
+  private final Set<StatisticsChange> dependencies;
 
   /**
    * Constructs an Achievement with the specified ID, name and info.
@@ -40,6 +43,9 @@ public class Achievement {
     battle = new BattleComponent(battleRequirements);
     exploration = new ExplorationComponent(killsByLocationId, visitedLocations, maximumNumberOfVisits,
             partsOfDayOfDiscovery, discoveryCount);
+    Set<StatisticsChange> changes = battle.getDependencies();
+    changes.addAll(exploration.getDependencies());
+    dependencies = Collections.unmodifiableSet(changes);
   }
 
   public Id getId() {
@@ -58,6 +64,14 @@ public class Achievement {
     return text;
   }
 
+  /**
+   * Returns the StatisticsChanges after which this Achievement may become fulfilled. An Achievement without
+   * dependencies is fulfilled by any Statistics.
+   */
+  Set<StatisticsChange> getDependencies() {
+    return dependencies;
+  }
+
   /**
    * Evaluates if the statistics fulfill this Achievement's conditions.
    *
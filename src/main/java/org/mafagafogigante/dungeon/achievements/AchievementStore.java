@@ -1,11 +1,16 @@
 package org.mafagafogigante.dungeon.achievements;
 
 import org.mafagafogigante.dungeon.game.Id;
+import org.mafagafogigante.dungeon.stats.StatisticsChange;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -15,6 +20,10 @@ public final class AchievementStore {
 
   private final Set<Id> registeredIds = new HashSet<>();
   private final List<Achievement> achievements = new ArrayList<>();
+  /**
+   * The indices of the achievements that depend on each StatisticsChange.
+   */
+  private final Map<StatisticsChange, BitSet> dependents = new EnumMap<>(StatisticsChange.class);
 
   private boolean locked = false;
 
@@ -28,6 +37,25 @@ public final class AchievementStore {
     return Collections.unmodifiableList(achievements);
   }
 
+  /**
+   * Returns the achievements that depend on any of the specified StatisticsChanges, in the order in which they were
+   * added to this AchievementStore.
+   */
+  List<Achievement> getAchievementsDependingOn(Collection<StatisticsChange> changes) {
+    BitSet indices = new BitSet(achievements.size());
+    for (StatisticsChange change : changes) {
+      BitSet changeDependents = dependents.get(change);
+      if (changeDependents != null) {
+        indices.or(changeDependents);
+      }
+    }
+    List<Achievement> list = new ArrayList<>(indices.cardinality());
+    for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+      list.add(achievements.get(i));
+    }
+    return list;
+  }
+
   /**
    * Adds a new Achievement to this AchievementStore.
    *
@@ -42,6 +70,12 @@ public final class AchievementStore {
       throw new IllegalArgumentException("there is already an Achievement with the id " + achievement.getId());
     }
     registeredIds.add(achievement.getId());
+    for (StatisticsChange change : achievement.getDependencies()) {
+      if (!dependents.containsKey(change)) {
+        dependents.put(change, new BitSet());
+      }
+      dependents.get(change).set(achievements.size());
+    }
     achievements.add(achievement);
   }
 
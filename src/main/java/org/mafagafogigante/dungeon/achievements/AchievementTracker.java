@@ -7,6 +7,8 @@ import org.mafagafogigante.dungeon.io.Version;
 import org.mafagafogigante.dungeon.io.Writer;
 import org.mafagafogigante.dungeon.logging.DungeonLogger;
 import org.mafagafogigante.dungeon.stats.Statistics;
+import org.mafagafogigante.dungeon.stats.StatisticsChange;
+import org.mafagafogigante.dungeon.stats.StatisticsListener;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -14,9 +16,11 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * AchievementTracker that tracks the unlocked achievements.
@@ -26,6 +30,10 @@ public class AchievementTracker implements Serializable {
   private static final long serialVersionUID = Version.MAJOR;
   private final Statistics statistics;
   private final Map<Id, UnlockedAchievement> unlockedAchievements = new HashMap<>();
+  /**
+   * The StatisticsChanges since the last update, null if this tracker does not listen to the Statistics yet.
+   */
+  private transient Set<StatisticsChange> changes;
 
   public AchievementTracker(@NotNull Statistics statistics) {
     this.statistics = statistics;
@@ -92,15 +100,35 @@ public class AchievementTracker implements Serializable {
   }
 
   /**
-   * Updates this AchievementTracker by iterating over the achievements and unlocking the ones that are fulfilled but
-   * not yet added to the unlocked list of this tracker.
+   * Updates this AchievementTracker by unlocking the achievements that are fulfilled but not yet added to the unlocked
+   * list of this tracker.
+   *
+   * <p>The first update after this tracker is made or loaded evaluates every achievement. Later updates only evaluate
+   * the achievements that depend on the StatisticsChanges since the previous update, so a turn that did not change the
+   * Statistics does not evaluate any.
    *
    * <p>Before writing the first achievement unlock message, if there is one, a new line is written.
    */
   public void update(AchievementStore achievementStore, Date date) {
+    List<Achievement> candidates;
+    if (changes == null) {
+      changes = EnumSet.noneOf(StatisticsChange.class);
+      statistics.addListener(new StatisticsListener() {
+        @Override
+        public void statisticsChanged(StatisticsChange change) {
+          changes.add(change);
+        }
+      });
+      candidates = achievementStore.getAchievements();
+    } else if (changes.isEmpty()) {
+      return;
+    } else {
+      candidates = achievementStore.getAchievementsDependingOn(changes);
+      changes.clear();
+    }
     DungeonString dungeonString = new DungeonString();
     boolean wroteNewLine = false; // If we are going to write anything at all, we must start with a blank line.
-    for (Achievement achievement : achievementStore.getAchievements()) {
+    for (Achievement achievement : candidates) {
       if (hasNotBeenUnlocked(achievement) && achievement.isFulfilled(statistics)) {
         if (!wroteNewLine) {
           dungeonString.append("\n");
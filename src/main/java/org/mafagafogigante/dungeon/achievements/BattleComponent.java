@@ -1,10 +1,13 @@
 package org.mafagafogigante.dungeon.achievements;
 
 import org.mafagafogigante.dungeon.stats.BattleStatistics;
+import org.mafagafogigante.dungeon.stats.StatisticsChange;
 
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * The battle component of the achievements.
@@ -17,6 +20,13 @@ final class BattleComponent {
     this.requirements = requirements;
   }
 
+  /**
+   * Returns the StatisticsChanges that may fulfill this component.
+   */
+  Set<StatisticsChange> getDependencies() {
+    return requirements.isEmpty() ? EnumSet.noneOf(StatisticsChange.class) : EnumSet.of(StatisticsChange.BATTLE);
+  }
+
   /**
    * Checks if this component of the Achievement is fulfilled or not.
    */
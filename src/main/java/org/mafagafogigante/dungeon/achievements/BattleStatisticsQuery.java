@@ -7,6 +7,11 @@ import org.mafagafogigante.dungeon.stats.CauseOfDeath;
 
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * A query of the BattleRecords of a BattleStatistics. Fields that are not set match any value.
+ *
+ * <p>BattleStatistics keep the counts of the queries they evaluated, so a query should not be changed after it is used.
+ */
 public class BattleStatisticsQuery {
 
   private Id id;
@@ -17,18 +22,34 @@ public class BattleStatisticsQuery {
   public BattleStatisticsQuery() {
   }
 
+  public Id getId() {
+    return id;
+  }
+
   public void setId(Id id) {
     this.id = id;
   }
 
+  public String getType() {
+    return type;
+  }
+
   public void setType(String type) {
     this.type = type;
   }
 
+  public CauseOfDeath getCauseOfDeath() {
+    return causeOfDeath;
+  }
+
   public void setCauseOfDeath(CauseOfDeath causeOfDeath) {
     this.causeOfDeath = causeOfDeath;
   }
 
+  public PartOfDay getPartOfDay() {
+    return partOfDay;
+  }
+
   public void setPartOfDay(PartOfDay partOfDay) {
     this.partOfDay = partOfDay;
   }
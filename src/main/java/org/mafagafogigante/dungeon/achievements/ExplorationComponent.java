@@ -3,8 +3,10 @@ package org.mafagafogigante.dungeon.achievements;
 import org.mafagafogigante.dungeon.game.Id;
 import org.mafagafogigante.dungeon.game.PartOfDay;
 import org.mafagafogigante.dungeon.stats.ExplorationStatistics;
+import org.mafagafogigante.dungeon.stats.StatisticsChange;
 import org.mafagafogigante.dungeon.util.CounterMap;
 
+import java.util.EnumSet;
 import java.util.Set;
 
 /**
@@ -39,6 +41,23 @@ final class ExplorationComponent {
     this.discoveryCount = discoveryCount;
   }
 
+  /**
+   * Returns the StatisticsChanges that may fulfill this component.
+   */
+  Set<StatisticsChange> getDependencies() {
+    Set<StatisticsChange> dependencies = EnumSet.noneOf(StatisticsChange.class);
+    if (killsByLocationId != null) {
+      dependencies.add(StatisticsChange.KILL);
+    }
+    if (visitedLocations != null || maximumNumberOfVisits != null) {
+      dependencies.add(StatisticsChange.VISIT);
+    }
+    if (discoveryCount > 0) {
+      dependencies.add(StatisticsChange.DISCOVERY);
+    }
+    return dependencies;
+  }
+
   /**
    * Checks if this component of the Achievement is fulfilled or not.
    */
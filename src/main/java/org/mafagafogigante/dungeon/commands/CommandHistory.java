@@ -7,22 +7,39 @@ import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * CommandHistory class that is used to keep track of all the commands issued by the player.
+ *
+ * <p>Commands are added on the GameThread, which publishes an immutable snapshot of the history after every command.
+ * The other methods only read the last published snapshot, so they may be invoked on any thread. The Cursor should only
+ * be used by a single thread, usually the Event Dispatch Thread.
  */
 public class CommandHistory implements Serializable {
 
   private static final long serialVersionUID = Version.MAJOR;
   private static final int HISTORY_MAXIMUM_SIZE = 200; // Enough. Small so it doesn't slow down 'TAB' search.
   private final CircularList<String> commands = new CircularList<>(HISTORY_MAXIMUM_SIZE);
+  private transient volatile List<String> snapshot = Collections.emptyList();
   private transient Cursor cursor = new Cursor(this);
 
   private Object readResolve() {
+    publishSnapshot();
     cursor = new Cursor(this);
     return this;
   }
 
+  private void publishSnapshot() {
+    List<String> list = new ArrayList<>(commands.size());
+    for (int i = 0; i < commands.size(); i++) {
+      list.add(commands.get(i));
+    }
+    snapshot = Collections.unmodifiableList(list);
+  }
+
   /**
    * Returns a CommandHistory.Cursor to provide access to the stored commands.
    */
@@ -31,34 +48,29 @@ public class CommandHistory implements Serializable {
   }
 
   /**
-   * Returns the number of commands in this CommandHistory.
-   */
-  private int size() {
-    return commands.size();
-  }
-
-  /**
-   * Returns true if this CommandHistory contains no commands.
+   * Returns an immutable list of the commands in this CommandHistory, from the oldest to the most recent.
    */
-  private boolean isEmpty() {
-    return commands.isEmpty();
+  public List<String> getSnapshot() {
+    return snapshot;
   }
 
   /**
-   * Adds an IssuedCommand to this CommandHistory and moves the cursor to the end.
+   * Adds an IssuedCommand to this CommandHistory. The cursor is not moved, as it is owned by another thread, which
+   * should move it to the end when it issues a command.
    */
   public void addCommand(IssuedCommand issuedCommand) {
     commands.add(issuedCommand.getStringRepresentation());
-    getCursor().moveToEnd();
+    publishSnapshot();
   }
 
   /**
    * Returns a String representation of the last similar command or null if no similar command was found.
    */
   public String getLastSimilarCommand(String command) {
-    for (int i = commands.size() - 1; i >= 0; i--) {
-      if (StringUtils.startsWithIgnoreCase(commands.get(i), command)) {
-        return commands.get(i);
+    List<String> list = getSnapshot();
+    for (int i = list.size() - 1; i >= 0; i--) {
+      if (StringUtils.startsWithIgnoreCase(list.get(i), command)) {
+        return list.get(i);
       }
     }
     return null;
@@ -71,7 +83,11 @@ public class CommandHistory implements Serializable {
 
     private static final long serialVersionUID = Version.MAJOR;
     private final CommandHistory history;
-    private int index;
+    /**
+     * How many commands the cursor is before the end of the history. Counting from the end keeps a cursor that is at
+     * the end there when commands are added.
+     */
+    private int distanceFromEnd;
 
     Cursor(CommandHistory history) {
       this.history = history;
@@ -86,11 +102,11 @@ public class CommandHistory implements Serializable {
      */
     @Nullable
     public String getSelectedCommand() {
-      if (!history.isEmpty() && index < history.size()) {
-        return history.commands.get(index);
-      } else {
+      List<String> list = history.getSnapshot();
+      if (distanceFromEnd == 0 || distanceFromEnd > list.size()) {
         return null;
       }
+      return list.get(list.size() - distanceFromEnd);
     }
 
     /**
@@ -99,9 +115,7 @@ public class CommandHistory implements Serializable {
      * @return the cursor
      */
     public Cursor moveUp() {
-      if (index != 0) {
-        index--;
-      }
+      distanceFromEnd = Math.min(distanceFromEnd + 1, history.getSnapshot().size());
       return this;
     }
 
@@ -111,8 +125,8 @@ public class CommandHistory implements Serializable {
      * @return the cursor
      */
     public Cursor moveDown() {
-      if (index < history.size()) {
-        index++;
+      if (distanceFromEnd != 0) {
+        distanceFromEnd--;
       }
       return this;
     }
@@ -122,7 +136,7 @@ public class CommandHistory implements Serializable {
      * method is granted to be null.
      */
     public void moveToEnd() {
-      index = history.size();
+      distanceFromEnd = 0;
     }
 
   }
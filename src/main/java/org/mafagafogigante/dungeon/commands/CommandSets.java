@@ -177,10 +177,10 @@ final class CommandSets {
         Game.getGameState().getHero().look();
       }
     });
-    commandSet.addCommand(new Command("map", "Shows a map of your surroundings.") {
+    commandSet.addCommand(new Command("map", "Shows a map of your surroundings. Use 'map zoom N' to zoom out.") {
       @Override
       public void execute(@NotNull String[] arguments) {
-        WorldMapWriter.writeMap();
+        WorldMapWriter.parseMapCommand(arguments);
       }
     });
     commandSet.addCommand(new Command("milk", "Attempts to milk a creature.") {
@@ -303,6 +303,12 @@ final class CommandSets {
         Game.getGameState().getStatistics().writeStatistics();
       }
     });
+    commandSet.addCommand(new Command("export", "Exports the statistics of each day to a CSV file among the saves.") {
+      @Override
+      public void execute(@NotNull String[] arguments) {
+        Game.getGameState().getStatistics().exportTimeSeries(arguments);
+      }
+    });
     commandSet.addCommand(new Command("system", "Displays information about the underlying system.") {
       @Override
       public void execute(@NotNull String[] arguments) {
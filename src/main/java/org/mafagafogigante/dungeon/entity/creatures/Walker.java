@@ -62,6 +62,7 @@ class Walker implements Serializable {
       hero.getLocation().removeCreature(hero);
       world.getLocation(destinationPoint).addCreature(hero);
       gameState.setHeroPosition(destinationPoint);
+      world.pregenerateAround(destinationPoint); // Before anything else requests the Locations around the Hero.
       Engine.refresh(); // Hero arrived in a new location, refresh the game.
       hero.look();
       updateExplorationStatistics(destinationPoint);
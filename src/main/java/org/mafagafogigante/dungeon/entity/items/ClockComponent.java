@@ -24,6 +24,10 @@ public class ClockComponent implements Serializable {
     this.master = master;
   }
 
+  Date getLastTime() {
+    return lastTime;
+  }
+
   public void setLastTime(Date lastTime) {
     // Create a new Date object so that this field is not affected by changes in the rest of the program.
     this.lastTime = lastTime;
@@ -35,6 +35,14 @@ public class DrinkableComponent implements Serializable {
     }
   }
 
+  public int getDoses() {
+    return doses;
+  }
+
+  void setDoses(int doses) {
+    this.doses = doses;
+  }
+
   public boolean isDepleted() {
     return doses == 0;
   }
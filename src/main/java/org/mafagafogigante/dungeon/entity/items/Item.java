@@ -40,6 +40,16 @@ public final class Item extends Entity {
    * Constructs a new Item from the provided preset and with the specified creation date.
    */
   public Item(ItemPreset preset, Date date, EnchantmentFactory enchantmentFactory) {
+    this(preset, date);
+    for (Id enchantmentId : preset.getEnchantmentRules().randomRoll()) {
+      weaponComponent.getEnchantments().add(enchantmentFactory.makeEnchantment(enchantmentId));
+    }
+  }
+
+  /**
+   * Constructs a new Item from the provided preset and with the specified creation date, without any enchantments.
+   */
+  Item(ItemPreset preset, Date date) {
     super(preset);
     rarity = preset.getRarity();
     tagSet = TagSet.copyTagSet(preset.getTagSet());
@@ -67,9 +77,10 @@ public final class Item extends Entity {
     if (hasTag(Tag.BOOK)) {
       bookComponent = new BookComponent(preset.getSpellId(), preset.getText());
     }
-    for (Id enchantmentId : preset.getEnchantmentRules().randomRoll()) {
-      weaponComponent.getEnchantments().add(enchantmentFactory.makeEnchantment(enchantmentId));
-    }
+  }
+
+  public Date getDateOfCreation() {
+    return dateOfCreation;
   }
 
   public Rarity getRarity() {
@@ -152,6 +163,16 @@ public final class Item extends Entity {
     this.inventory = inventory;
   }
 
+  /**
+   * Evaluates whether all the state of this Item that did not come from its preset is its creation date, its integrity,
+   * and its doses, in which case ItemFactory can restore it from these.
+   */
+  public boolean isRestorable() {
+    boolean enchanted = weaponComponent != null && !weaponComponent.getEnchantments().isEmpty();
+    boolean stoppedClock = clockComponent != null && clockComponent.getLastTime() != null;
+    return !enchanted && !stoppedClock;
+  }
+
   /**
    * Returns whether or not this item is broken.
    *
@@ -23,6 +23,9 @@ import java.util.Set;
 
 /**
  * Provides methods to create different items for the game.
+ *
+ * <p>Items may be made on the threads that generate chunks in advance, so the methods that read the presets or the
+ * restrictions are synchronized.
  */
 public final class ItemFactory implements Serializable {
 
@@ -87,7 +90,7 @@ public final class ItemFactory implements Serializable {
   /**
    * Returns whether or not this ItemFactory can make an Item with the specified Id based on its restrictions.
    */
-  public boolean canMakeItem(@NotNull Id id) {
+  public synchronized boolean canMakeItem(@NotNull Id id) {
     return restrictions.canMakeItem(id);
   }
 
@@ -101,13 +104,72 @@ public final class ItemFactory implements Serializable {
    * @param date the creation date of the item, not null
    * @return an Item with the specified creation date
    */
-  public Item makeItem(@NotNull Id id, @NotNull Date date) {
+  public synchronized Item makeItem(@NotNull Id id, @NotNull Date date) {
+    Item item = makeUnregisteredItem(id, date);
+    restrictions.registerItem(item.getId());
+    return item;
+  }
+
+  /**
+   * Makes an Item like makeItem does, but without registering it in the restrictions of this factory, so that it may be
+   * discarded without keeping another Item with the same Id from being made. A unique Item made this way should be
+   * registered with registerItem before it is added to the World.
+   *
+   * @param id the ID of the preset, not null
+   * @param date the creation date of the item, not null
+   * @return an Item with the specified creation date
+   */
+  public synchronized Item makeUnregisteredItem(@NotNull Id id, @NotNull Date date) {
     ItemPreset itemPreset = getItemPresets().get(id);
     if (itemPreset == null) {
       throw new IllegalArgumentException("id (" + id + ") does not correspond to an ItemPreset.");
     }
-    Item item = new Item(itemPreset, date, enchantmentFactory);
+    return new Item(itemPreset, date, enchantmentFactory);
+  }
+
+  /**
+   * Registers an Item made by makeUnregisteredItem in the restrictions of this factory.
+   *
+   * @return false if the restrictions no longer allow the Item, which should then be discarded
+   */
+  public synchronized boolean registerItem(@NotNull Item item) {
+    if (!restrictions.canMakeItem(item.getId())) {
+      return false;
+    }
     restrictions.registerItem(item.getId());
+    return true;
+  }
+
+  /**
+   * Returns whether or not the Item with the specified Id is unique, so that at most one such Item is ever made.
+   */
+  public synchronized boolean isUnique(@NotNull Id id) {
+    ItemPreset itemPreset = getItemPresets().get(id);
+    return itemPreset != null && itemPreset.isUnique();
+  }
+
+  /**
+   * Makes an Item that was saved from its preset Id, its creation date, its integrity, and its doses.
+   *
+   * <p>Unlike makeItem, this neither rolls enchantments nor registers the Item in the restrictions of this factory, as
+   * the saved Item already was registered. Only Items for which isRestorable evaluated to true should be restored.
+   *
+   * @param id the ID of the preset, not null
+   * @param date the creation date of the item, not null
+   * @param integrity the current integrity of the item
+   * @param doses the remaining doses of the item, ignored if it is not drinkable
+   * @return an Item
+   */
+  public synchronized Item restoreItem(@NotNull Id id, @NotNull Date date, int integrity, int doses) {
+    ItemPreset itemPreset = getItemPresets().get(id);
+    if (itemPreset == null) {
+      throw new IllegalArgumentException("id (" + id + ") does not correspond to an ItemPreset.");
+    }
+    Item item = new Item(itemPreset, date);
+    item.getIntegrity().restoreCurrent(integrity);
+    if (item.getDrinkableComponent() != null) {
+      item.getDrinkableComponent().setDoses(doses);
+    }
     return item;
   }
 
@@ -54,6 +54,13 @@ public class ItemIntegrity implements Serializable {
     return integrity.toPercentage();
   }
 
+  /**
+   * Sets the current integrity without checking for breakage, which should only be used to restore a saved Item.
+   */
+  void restoreCurrent(int current) {
+    integrity.decrementBy(integrity.getCurrent() - current);
+  }
+
   /**
    * Increments the current integrity by the specified amount.
    *
@@ -0,0 +1,120 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.date.Date;
+import org.mafagafogigante.dungeon.game.WorldGenerator.GeneratedChunk;
+import org.mafagafogigante.dungeon.logging.DungeonLogger;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Generates chunks of a WorldGenerator on a pool of worker threads.
+ *
+ * <p>Workers only generate chunks, which does not change the World nor register the unique items they make. Finished
+ * chunks are handed back through a lock-free queue and the WorldGenerator commits them to the World on the GameThread,
+ * which owns it. Chunks that are never committed therefore leave no trace in the World. Every method of this class
+ * should be invoked on that thread.
+ */
+final class ChunkPregenerator {
+
+  private static final int WORKER_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+  private static final ExecutorService executor = Executors.newFixedThreadPool(WORKER_COUNT, new ThreadFactory() {
+    private int count;
+
+    @Override
+    public synchronized Thread newThread(@NotNull Runnable runnable) {
+      Thread thread = new Thread(runnable, "Chunk generator " + ++count);
+      thread.setDaemon(true); // Unfinished chunks are generated again when they are requested.
+      thread.setPriority(Thread.MIN_PRIORITY);
+      return thread;
+    }
+  });
+
+  private final WorldGenerator generator;
+  private final Map<Long, Future<GeneratedChunk>> pending = new HashMap<>();
+  private final Queue<GeneratedChunk> finished = new ConcurrentLinkedQueue<>();
+
+  ChunkPregenerator(WorldGenerator generator) {
+    this.generator = generator;
+  }
+
+  /**
+   * Starts generating the chunk with the specified key, unless it is already being generated.
+   *
+   * @param key the key of a chunk that is not in the World
+   * @param date the creation date of the items of the chunk
+   */
+  void submit(final long key, @NotNull final Date date) {
+    if (pending.containsKey(key)) {
+      return;
+    }
+    pending.put(key, executor.submit(new Callable<GeneratedChunk>() {
+      @Override
+      public GeneratedChunk call() {
+        GeneratedChunk generated = generator.generate(key, date);
+        finished.add(generated);
+        return generated;
+      }
+    }));
+  }
+
+  /**
+   * Returns the chunks that finished since the last invocation, which should be committed to the World.
+   */
+  List<GeneratedChunk> collectFinished() {
+    List<GeneratedChunk> chunks = new ArrayList<>();
+    for (GeneratedChunk generated = finished.poll(); generated != null; generated = finished.poll()) {
+      pending.remove(generated.getKey());
+      chunks.add(generated);
+    }
+    return chunks;
+  }
+
+  /**
+   * Waits for the chunk with the specified key if it is being generated.
+   *
+   * @return the chunk, which should be committed to the World, or null if it was not being generated or its generation
+   *     failed
+   */
+  @Nullable
+  GeneratedChunk await(long key) {
+    Future<GeneratedChunk> future = pending.remove(key);
+    if (future == null) {
+      return null;
+    }
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          GeneratedChunk generated = future.get();
+          finished.remove(generated);
+          return generated;
+        } catch (InterruptedException exception) {
+          interrupted = true; // The chunk is needed now.
+        }
+      }
+    } catch (ExecutionException exception) {
+      DungeonLogger.logSevere(exception.getCause());
+      return null;
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+}
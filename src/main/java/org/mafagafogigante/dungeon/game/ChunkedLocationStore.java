@@ -0,0 +1,547 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.io.Loader;
+import org.mafagafogigante.dungeon.io.RegionFile;
+import org.mafagafogigante.dungeon.io.Version;
+import org.mafagafogigante.dungeon.util.LongMap;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A store of Locations addressed by chunks.
+ *
+ * <p>Locations are grouped into square chunks of the same side used by the WorldGenerator. Chunks are indexed by a key
+ * that packs the chunk coordinates and the altitude into a single long, so that looking up a Location allocates
+ * nothing. The index is an open addressing hash table with linear probing.
+ *
+ * <p>Chunks far from the Hero can be evicted to a RegionFile, which keeps the heap flat as the World grows. Evicted
+ * chunks are faulted back in transparently when any of their Locations is requested.
+ *
+ * <p>Chunks remember the epoch in which they last changed and every save starts a new epoch. A save to a journal only
+ * needs to write the chunks that changed after the epoch in which that journal was last written, no matter how many
+ * other journals were written since.
+ *
+ * <p>A store loaded from a save starts with no chunks in memory and a ChunkSource that reads chunks from the save. Like
+ * evicted chunks, these are decoded when any of their Locations is requested.
+ */
+final class ChunkedLocationStore implements Serializable {
+
+  private static final long serialVersionUID = Version.MAJOR;
+  private static final int INITIAL_CAPACITY = 64;
+  private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+  private static final long FIRST_EPOCH = 1;
+
+  /**
+   * The epoch to write the chunks since in order to write every chunk.
+   */
+  static final long ALL_EPOCHS = -1;
+
+  // 24 bits for each horizontal chunk coordinate and 16 bits for the altitude.
+  private static final int HORIZONTAL_BITS = 24;
+  private static final int VERTICAL_BITS = 16;
+  private static final long HORIZONTAL_MASK = (1L << HORIZONTAL_BITS) - 1;
+  private static final long VERTICAL_MASK = (1L << VERTICAL_BITS) - 1;
+
+  private final World world;
+  private final int chunkSide;
+  private int locationCount;
+
+  // The chunks are written by writeObject, so that they can be left out of the head of a save journal.
+  private transient long[] keys = new long[INITIAL_CAPACITY];
+  private transient LocationChunk[] chunks = new LocationChunk[INITIAL_CAPACITY];
+  private transient int chunkCount;
+
+  // Consecutive lookups tend to hit the same chunk, so remember the last one.
+  private transient long lastKey;
+  private transient LocationChunk lastChunk;
+
+  // Created when the first chunk is evicted. Evicted chunks are written to the stream when this store is serialized.
+  private transient RegionFile regionFile;
+  // The epochs of the evicted chunks that changed since this store was loaded.
+  private transient LongMap<Long> evictedEpochs = new LongMap<>();
+  private transient long epoch = FIRST_EPOCH;
+
+  // The chunks of the save this store was loaded from that have not been requested since.
+  private transient ChunkSource savedChunks;
+
+  ChunkedLocationStore(World world, int chunkSide) {
+    if (chunkSide < 1) {
+      throw new IllegalArgumentException("chunkSide must be positive.");
+    }
+    this.world = world;
+    this.chunkSide = chunkSide;
+  }
+
+  /**
+   * Returns the coordinate of the chunk that contains the specified coordinate. This is a floor division.
+   *
+   * <p>For instance, if chunkSide == 5, -2 is in the chunk -1 and 1 is in the chunk 0.
+   */
+  static int toChunkCoordinate(int coordinate, int chunkSide) {
+    return coordinate < 0 ? ((coordinate + 1) / chunkSide) - 1 : coordinate / chunkSide;
+  }
+
+  /**
+   * Packs the coordinates of a chunk into a single long.
+   *
+   * <p>Throws an IllegalArgumentException if a coordinate does not fit in its bits, as it would share the key of
+   * another chunk.
+   */
+  static long makeChunkKey(int chunkX, int chunkY, int z) {
+    if (!fits(chunkX, HORIZONTAL_BITS) || !fits(chunkY, HORIZONTAL_BITS) || !fits(z, VERTICAL_BITS)) {
+      String format = "the chunk (%d, %d, %d) is beyond the limits of the World.";
+      throw new IllegalArgumentException(String.format(format, chunkX, chunkY, z));
+    }
+    long packedX = (chunkX & HORIZONTAL_MASK) << (HORIZONTAL_BITS + VERTICAL_BITS);
+    long packedY = (chunkY & HORIZONTAL_MASK) << VERTICAL_BITS;
+    return packedX | packedY | (z & VERTICAL_MASK);
+  }
+
+  /**
+   * Returns whether or not a coordinate is in the range of the two's complement integers of the specified bits.
+   */
+  private static boolean fits(int coordinate, int bits) {
+    return coordinate >= -(1 << (bits - 1)) && coordinate < (1 << (bits - 1));
+  }
+
+  static int getChunkX(long key) {
+    return (int) (key >> (HORIZONTAL_BITS + VERTICAL_BITS)) << (32 - HORIZONTAL_BITS) >> (32 - HORIZONTAL_BITS);
+  }
+
+  static int getChunkY(long key) {
+    return (int) (key >> VERTICAL_BITS) << (32 - HORIZONTAL_BITS) >> (32 - HORIZONTAL_BITS);
+  }
+
+  static int getZ(long key) {
+    return (short) key;
+  }
+
+  int getChunkSide() {
+    return chunkSide;
+  }
+
+  /**
+   * Returns how many Locations are in this store.
+   */
+  int getLocationCount() {
+    return locationCount;
+  }
+
+  /**
+   * Returns how many chunks are in this store, including the evicted ones and the ones that are still in the save.
+   */
+  int getChunkCount() {
+    return chunkCount + getEvictedChunkCount() + getSavedChunkCount();
+  }
+
+  /**
+   * Returns how many chunks are currently in memory.
+   */
+  int getResidentChunkCount() {
+    return chunkCount;
+  }
+
+  int getEvictedChunkCount() {
+    return regionFile == null ? 0 : regionFile.size();
+  }
+
+  /**
+   * Returns how many chunks have not been read from the save this store was loaded from.
+   */
+  int getSavedChunkCount() {
+    return savedChunks == null ? 0 : savedChunks.size();
+  }
+
+  /**
+   * Returns the Location at the specified coordinates or null if there is not a Location there yet.
+   */
+  Location get(int x, int y, int z) {
+    int chunkX = toChunkCoordinate(x, chunkSide);
+    int chunkY = toChunkCoordinate(y, chunkSide);
+    LocationChunk chunk = findChunk(makeChunkKey(chunkX, chunkY, z));
+    if (chunk == null) {
+      return null;
+    }
+    return chunk.get(x - chunkX * chunkSide, y - chunkY * chunkSide);
+  }
+
+  boolean contains(int x, int y, int z) {
+    return get(x, y, z) != null;
+  }
+
+  /**
+   * Adds a Location to this store at the Point of the Location. There should not be a Location at that Point.
+   */
+  void put(@NotNull Location location) {
+    Point point = location.getPoint();
+    int chunkX = toChunkCoordinate(point.getX(), chunkSide);
+    int chunkY = toChunkCoordinate(point.getY(), chunkSide);
+    long key = makeChunkKey(chunkX, chunkY, point.getZ());
+    LocationChunk chunk = findChunk(key);
+    if (chunk == null) {
+      chunk = new LocationChunk(chunkSide);
+      chunk.setModificationEpoch(epoch);
+      insertChunk(key, chunk);
+    }
+    chunk.put(point.getX() - chunkX * chunkSide, point.getY() - chunkY * chunkSide, location);
+    locationCount++;
+  }
+
+  /**
+   * Adds a whole chunk to this store. There should not be a chunk with that key.
+   */
+  void putChunk(long key, @NotNull LocationChunk chunk) {
+    if (containsChunk(key)) {
+      throw new IllegalStateException("store already has chunk " + getChunkX(key) + ", " + getChunkY(key) + ".");
+    }
+    chunk.setModificationEpoch(epoch);
+    insertChunk(key, chunk);
+    locationCount += chunk.size();
+  }
+
+  /**
+   * Returns whether or not this store has the chunk with the specified key, in memory or not, without reading it.
+   */
+  boolean containsChunk(long key) {
+    if (findResidentChunk(key) != null) {
+      return true;
+    }
+    return (regionFile != null && regionFile.contains(key)) || (savedChunks != null && savedChunks.contains(key));
+  }
+
+  /**
+   * Marks the chunk that contains the specified coordinates as modified, if there is such chunk.
+   */
+  void markDirty(int x, int y, int z) {
+    LocationChunk chunk = findChunk(makeChunkKey(toChunkCoordinate(x, chunkSide), toChunkCoordinate(y, chunkSide), z));
+    if (chunk != null) {
+      chunk.markModified(epoch);
+    }
+  }
+
+  /**
+   * Starts a new epoch, so that the chunks that change from now on are told apart from the ones a save just wrote.
+   *
+   * @return the epoch that ended
+   */
+  long advanceEpoch() {
+    return epoch++;
+  }
+
+  /**
+   * Writes chunks encoded for a save to the specified sink.
+   *
+   * @param sink the ChunkSink
+   * @param sinceEpoch only the chunks that changed after this epoch are written, every chunk if it is ALL_EPOCHS
+   */
+  void writeChunks(ChunkSink sink, long sinceEpoch) throws IOException {
+    for (int i = 0; i < keys.length; i++) {
+      if (chunks[i] != null && chunks[i].getModificationEpoch() > sinceEpoch) {
+        sink.write(keys[i], LocationChunkCodec.encodeDetachingHero(chunks[i], world));
+      }
+    }
+    if (regionFile != null) {
+      for (long key : regionFile.keys()) {
+        if (sinceEpoch == ALL_EPOCHS || getEvictedEpoch(key) > sinceEpoch) {
+          sink.write(key, regionFile.read(key));
+        }
+      }
+    }
+    if (savedChunks != null && sinceEpoch == ALL_EPOCHS) {
+      for (long key : savedChunks.keys()) {
+        sink.write(key, savedChunks.read(key));
+      }
+    }
+  }
+
+  /**
+   * Adds a chunk read from a save as an evicted chunk, to be decoded when any of its Locations is requested.
+   */
+  void putEvicted(long key, byte[] bytes) throws IOException {
+    if (regionFile == null) {
+      regionFile = Loader.createRegionFile();
+    }
+    regionFile.write(key, bytes);
+  }
+
+  /**
+   * Makes the chunks of a save available to this store, which should not have any chunks.
+   */
+  void attachSavedChunks(@NotNull ChunkSource source) {
+    if (getChunkCount() != 0) {
+      throw new IllegalStateException("the store already has chunks.");
+    }
+    savedChunks = source;
+  }
+
+  /**
+   * Moves the chunks that are still in the save to the RegionFile if they are read from the specified file, so that it
+   * may be replaced.
+   */
+  void detachSavedChunks(@NotNull File file) throws IOException {
+    if (savedChunks != null && savedChunks.isReadFrom(file)) {
+      for (long key : savedChunks.keys()) {
+        putEvicted(key, savedChunks.read(key));
+        savedChunks.remove(key);
+      }
+      savedChunks = null;
+    }
+  }
+
+  private long getEvictedEpoch(long key) {
+    Long evictedEpoch = evictedEpochs.get(key);
+    return evictedEpoch == null ? 0 : evictedEpoch;
+  }
+
+  private int indexFor(long key, int capacity) {
+    return (int) ((key * GOLDEN_RATIO) >>> (64 - Integer.numberOfTrailingZeros(capacity)));
+  }
+
+  private LocationChunk findChunk(long key) {
+    LocationChunk resident = findResidentChunk(key);
+    if (resident != null) {
+      return resident;
+    }
+    boolean evicted = regionFile != null && regionFile.contains(key);
+    if (evicted || (savedChunks != null && savedChunks.contains(key))) {
+      return faultIn(key, evicted);
+    }
+    return null;
+  }
+
+  /**
+   * Returns whether or not the chunk that contains the specified coordinates is in memory, without reading it.
+   */
+  boolean isResident(int x, int y, int z) {
+    long key = makeChunkKey(toChunkCoordinate(x, chunkSide), toChunkCoordinate(y, chunkSide), z);
+    return findResidentChunk(key) != null;
+  }
+
+  private LocationChunk findResidentChunk(long key) {
+    if (lastChunk != null && lastKey == key) {
+      return lastChunk;
+    }
+    int mask = keys.length - 1;
+    for (int index = indexFor(key, keys.length); chunks[index] != null; index = (index + 1) & mask) {
+      if (keys[index] == key) {
+        lastKey = key;
+        lastChunk = chunks[index];
+        return lastChunk;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Reads an evicted chunk or a chunk that is still in the save into memory.
+   */
+  private LocationChunk faultIn(long key, boolean evicted) {
+    byte[] bytes = null;
+    try {
+      // Remove the chunk first, as restoring Locations must not find it evicted.
+      if (evicted) {
+        bytes = regionFile.read(key);
+        regionFile.remove(key);
+      } else {
+        bytes = savedChunks.read(key);
+        savedChunks.remove(key);
+      }
+      LocationChunk chunk = LocationChunkCodec.decode(key, bytes, world);
+      Long evictedEpoch = evictedEpochs.remove(key);
+      chunk.setModificationEpoch(evictedEpoch == null ? 0 : evictedEpoch);
+      insertChunk(key, chunk);
+      lastKey = key;
+      lastChunk = chunk;
+      return chunk;
+    } catch (IOException exception) {
+      if (bytes != null) {
+        try {
+          putEvicted(key, bytes);
+        } catch (IOException ignored) {
+          // The chunk is lost, which is reported by the exception thrown below.
+        }
+      }
+      throw new IllegalStateException("failed to fault in chunk " + getChunkX(key) + ", " + getChunkY(key) + ".",
+          exception);
+    }
+  }
+
+  /**
+   * Evicts every chunk, of any altitude, whose horizontal distance to the chunk that contains the specified coordinates
+   * is greater than radius chunks.
+   *
+   * <p>If writing any chunk fails, no chunk is evicted.
+   *
+   * @return how many chunks were evicted
+   */
+  int evictChunksFarFrom(int x, int y, int radius) throws IOException {
+    int centerX = toChunkCoordinate(x, chunkSide);
+    int centerY = toChunkCoordinate(y, chunkSide);
+    List<Integer> evictedIndices = new ArrayList<>();
+    for (int i = 0; i < keys.length; i++) {
+      if (chunks[i] != null) {
+        boolean farInX = Math.abs(getChunkX(keys[i]) - centerX) > radius;
+        if (farInX || Math.abs(getChunkY(keys[i]) - centerY) > radius) {
+          evictedIndices.add(i);
+        }
+      }
+    }
+    if (evictedIndices.isEmpty()) {
+      return 0;
+    }
+    if (regionFile == null) {
+      regionFile = Loader.createRegionFile();
+    }
+    List<Long> writtenKeys = new ArrayList<>();
+    try {
+      for (int index : evictedIndices) {
+        regionFile.write(keys[index], LocationChunkCodec.encode(chunks[index], world));
+        writtenKeys.add(keys[index]);
+      }
+    } catch (IOException exception) {
+      for (long key : writtenKeys) {
+        regionFile.remove(key);
+      }
+      throw exception;
+    }
+    for (int index : evictedIndices) {
+      if (chunks[index].getModificationEpoch() != 0) {
+        evictedEpochs.put(keys[index], chunks[index].getModificationEpoch());
+      }
+      chunks[index] = null;
+    }
+    chunkCount -= evictedIndices.size();
+    lastChunk = null;
+    // Rebuild the table, as linear probing does not allow simply clearing slots.
+    resize(keys.length);
+    return evictedIndices.size();
+  }
+
+  private void insertChunk(long key, LocationChunk chunk) {
+    if (2 * (chunkCount + 1) > keys.length) {
+      resize(2 * keys.length);
+    }
+    place(keys, chunks, key, chunk);
+    chunkCount++;
+  }
+
+  private void resize(int capacity) {
+    long[] newKeys = new long[capacity];
+    LocationChunk[] newChunks = new LocationChunk[capacity];
+    for (int i = 0; i < keys.length; i++) {
+      if (chunks[i] != null) {
+        place(newKeys, newChunks, keys[i], chunks[i]);
+      }
+    }
+    keys = newKeys;
+    chunks = newChunks;
+  }
+
+  private void place(long[] keyArray, LocationChunk[] chunkArray, long key, LocationChunk chunk) {
+    int mask = keyArray.length - 1;
+    int index = indexFor(key, keyArray.length);
+    while (chunkArray[index] != null) {
+      index = (index + 1) & mask;
+    }
+    keyArray[index] = key;
+    chunkArray[index] = chunk;
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    if (SaveJournal.isHeadStream(out)) {
+      // The chunks go to their own records in a save journal.
+      out.writeInt(0);
+      out.writeInt(0);
+      return;
+    }
+    out.writeInt(chunkCount);
+    for (int i = 0; i < keys.length; i++) {
+      if (chunks[i] != null) {
+        out.writeLong(keys[i]);
+        out.writeObject(chunks[i]);
+      }
+    }
+    out.writeInt(getEvictedChunkCount() + getSavedChunkCount());
+    if (regionFile != null) {
+      // Copy evicted chunks one at a time so that saving does not bring the whole World into memory.
+      for (long key : regionFile.keys()) {
+        writeEncodedChunk(out, key, regionFile.read(key));
+      }
+    }
+    if (savedChunks != null) {
+      for (long key : savedChunks.keys()) {
+        writeEncodedChunk(out, key, savedChunks.read(key));
+      }
+    }
+  }
+
+  private static void writeEncodedChunk(ObjectOutputStream out, long key, byte[] bytes) throws IOException {
+    out.writeLong(key);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    keys = new long[INITIAL_CAPACITY];
+    chunks = new LocationChunk[INITIAL_CAPACITY];
+    evictedEpochs = new LongMap<>();
+    epoch = FIRST_EPOCH;
+    int residentChunkCount = in.readInt();
+    for (int i = 0; i < residentChunkCount; i++) {
+      long key = in.readLong();
+      insertChunk(key, (LocationChunk) in.readObject());
+    }
+    int evictedChunkCount = in.readInt();
+    for (int i = 0; i < evictedChunkCount; i++) {
+      long key = in.readLong();
+      byte[] bytes = new byte[in.readInt()];
+      in.readFully(bytes);
+      putEvicted(key, bytes);
+    }
+  }
+
+  /**
+   * Receives chunks encoded for a save.
+   */
+  interface ChunkSink {
+
+    void write(long key, byte[] bytes) throws IOException;
+
+  }
+
+  /**
+   * Provides chunks encoded for a save that have not been read into a store yet.
+   */
+  interface ChunkSource {
+
+    int size();
+
+    boolean contains(long key);
+
+    /**
+     * Returns whether or not the chunks are read from the specified file.
+     */
+    boolean isReadFrom(File file);
+
+    /**
+     * Returns a new array with the keys of the chunks, which removing chunks does not change.
+     */
+    long[] keys();
+
+    byte[] read(long key) throws IOException;
+
+    void remove(long key);
+
+  }
+
+}
@@ -1,13 +1,14 @@
 package org.mafagafogigante.dungeon.game;
 
+import org.mafagafogigante.dungeon.date.Date;
 import org.mafagafogigante.dungeon.game.LocationPreset.Type;
 import org.mafagafogigante.dungeon.io.Version;
-import org.mafagafogigante.dungeon.logging.DungeonLogger;
 import org.mafagafogigante.dungeon.util.Percentage;
 
 import org.jetbrains.annotations.NotNull;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -24,11 +25,6 @@ class DungeonCreator implements Serializable {
    * <p>Currently a 5x1 So that we can make dungeons like this: R=R=R (where R is a room and = is a corridor).
    */
   private static final MinimumBoundingRectangle minimumBoundingRectangle = new MinimumBoundingRectangle(5, 1);
-  private final DungeonDistributor distributor;
-
-  public DungeonCreator(DungeonDistributor distributor) {
-    this.distributor = distributor;
-  }
 
   public static MinimumBoundingRectangle getMinimumBoundingRectangle() {
     return minimumBoundingRectangle;
@@ -41,44 +37,43 @@ class DungeonCreator implements Serializable {
   }
 
   /**
-   * Creates a dungeon placing the entrance at the specified point. The world should not have a location at the
-   * specified point.
+   * Creates a dungeon whose entrance is at the specified point without changing the World, so that this may run on the
+   * threads that generate chunks in advance.
+   *
+   * @param world the World of the dungeon
+   * @param entrance the Point of the entrance, where the World should not have a Location
+   * @param date the creation date of the items of the dungeon
+   * @return the Locations of the dungeon, starting with its entrance, which the caller should add to the World
    */
-  public void createDungeon(@NotNull World world, @NotNull Point entrance) {
-    Point mainRoomPoint = createEntrance(world, entrance);
-    Location mainRoomLocation = createMainRoom(world, mainRoomPoint);
-    finishDungeon(world, mainRoomPoint, mainRoomLocation);
+  public List<Location> createDungeon(@NotNull World world, @NotNull Point entrance, @NotNull Date date) {
+    List<Location> locations = new ArrayList<>();
+    locations.add(new Location(getRandomLocationPreset(Type.DUNGEON_ENTRANCE), world, entrance, date));
+    Point mainRoomPoint = createStairway(world, entrance, date, locations);
+    Location mainRoomLocation = createMainRoom(world, mainRoomPoint, date, locations);
+    finishDungeon(world, mainRoomPoint, mainRoomLocation, date, locations);
+    return locations;
   }
 
   /**
-   * Creates the dungeon's entrance and the necessary stairways.
+   * Creates the stairway below the dungeon's entrance.
    *
    * <p>Returns the point where the main dungeon room should be.
    */
-  private Point createEntrance(@NotNull World world, @NotNull Point entrance) {
-    // The entrance.
-    if (world.alreadyHasLocationAt(entrance)) {
-      throw new IllegalStateException("world has location at the specified entrance.");
-    }
-    Location dungeonEntrance = new Location(getRandomLocationPreset(Type.DUNGEON_ENTRANCE), world, entrance);
-    world.addLocation(dungeonEntrance, entrance);
-    distributor.registerDungeonEntrance(entrance);
-    // The stairway.
+  private Point createStairway(World world, Point entrance, Date date, List<Location> locations) {
     Point stairwayPoint = new Point(entrance, Direction.DOWN);
     // Note that all DUNGEON_STAIRWAY presets are blocked towards North, East, South, and West.
-    Location stairwayLocation = new Location(getRandomLocationPreset(Type.DUNGEON_STAIRWAY), world, stairwayPoint);
-    world.addLocation(stairwayLocation, stairwayPoint);
+    locations.add(new Location(getRandomLocationPreset(Type.DUNGEON_STAIRWAY), world, stairwayPoint, date));
     return new Point(stairwayPoint, Direction.DOWN);
   }
 
   @NotNull
-  private Location createMainRoom(@NotNull World world, Point mainRoomPoint) {
+  private Location createMainRoom(World world, Point mainRoomPoint, Date date, List<Location> locations) {
     // Note that all DUNGEON_ROOM presets are open on all directions. It is up to the code to properly block them.
-    Location dungeonRoom = new Location(getRandomLocationPreset(Type.DUNGEON_ROOM), world, mainRoomPoint);
+    Location dungeonRoom = new Location(getRandomLocationPreset(Type.DUNGEON_ROOM), world, mainRoomPoint, date);
     dungeonRoom.getBlockedEntrances().block(Direction.NORTH);
     dungeonRoom.getBlockedEntrances().block(Direction.DOWN);
     dungeonRoom.getBlockedEntrances().block(Direction.SOUTH);
-    world.addLocation(dungeonRoom, mainRoomPoint); // The main room. All dungeons have one.
+    locations.add(dungeonRoom); // The main room. All dungeons have one.
     return dungeonRoom;
   }
 
@@ -88,41 +83,37 @@ class DungeonCreator implements Serializable {
    * <p>If this method does not make a corridor to east or west, it blocks that entrance in the main room to prevent
    * glitches.
    */
-  private void finishDungeon(@NotNull World world, Point mainRoomPoint, Location mainRoomLocation) {
+  private void finishDungeon(World world, Point mainRoomPoint, Location mainRoomLocation, Date date,
+      List<Location> locations) {
     // UPDATING THIS LOGIC MAY REQUIRE YOU TO UPDATE THE minimumBoundingRectangle variable.
     if (Random.roll(HORIZONTAL_EXPANSION_PROBABILITY)) {
-      expandTowards(world, mainRoomPoint, Direction.EAST);
+      expandTowards(world, mainRoomPoint, Direction.EAST, date, locations);
     } else {
       mainRoomLocation.getBlockedEntrances().block(Direction.EAST);
     }
     if (Random.roll(HORIZONTAL_EXPANSION_PROBABILITY)) {
-      expandTowards(world, mainRoomPoint, Direction.WEST);
+      expandTowards(world, mainRoomPoint, Direction.WEST, date, locations);
     } else {
       mainRoomLocation.getBlockedEntrances().block(Direction.WEST);
     }
   }
 
-  private void expandTowards(@NotNull World world, @NotNull Point origin, Direction direction) {
+  private void expandTowards(World world, Point origin, Direction direction, Date date, List<Location> locations) {
     Point corridorPoint = new Point(origin, direction);
-    if (world.alreadyHasLocationAt(corridorPoint)) {
-      DungeonLogger.warning("Found an existing location when attempting to expand a Dungeon at " + corridorPoint + ".");
-    }
     // Note that all DUNGEON_CORRIDOR presets have blocked UP and DOWN. It is up to the code to properly block the rest.
-    Location corridorLocation = new Location(getRandomLocationPreset(Type.DUNGEON_CORRIDOR), world, corridorPoint);
+    LocationPreset corridorPreset = getRandomLocationPreset(Type.DUNGEON_CORRIDOR);
+    Location corridorLocation = new Location(corridorPreset, world, corridorPoint, date);
     corridorLocation.getBlockedEntrances().block(Direction.NORTH);
     corridorLocation.getBlockedEntrances().block(Direction.SOUTH);
-    world.addLocation(corridorLocation, corridorPoint);
+    locations.add(corridorLocation);
     Point roomPoint = new Point(corridorPoint, direction);
-    if (world.alreadyHasLocationAt(roomPoint)) {
-      DungeonLogger.warning("Found an existing location when attempting to expand a Dungeon at " + roomPoint + ".");
-    }
-    Location roomLocation = new Location(getRandomLocationPreset(Type.DUNGEON_ROOM), world, roomPoint);
+    Location roomLocation = new Location(getRandomLocationPreset(Type.DUNGEON_ROOM), world, roomPoint, date);
     roomLocation.getBlockedEntrances().block(Direction.UP);
     roomLocation.getBlockedEntrances().block(Direction.NORTH);
     roomLocation.getBlockedEntrances().block(Direction.DOWN);
     roomLocation.getBlockedEntrances().block(Direction.SOUTH);
     roomLocation.getBlockedEntrances().block(direction);
-    world.addLocation(roomLocation, roomPoint);
+    locations.add(roomLocation);
   }
 
 }
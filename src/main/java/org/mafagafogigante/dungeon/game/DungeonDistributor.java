@@ -11,20 +11,29 @@ import java.util.Set;
 
 /**
  * A class that is responsible for distributing dungeons.
+ *
+ * <p>Whether or not a point has a dungeon entrance only depends on the seed and on the point, so that dungeons are
+ * distributed the same way whatever the order in which the World is generated.
  */
 class DungeonDistributor implements Serializable {
 
   private static final long serialVersionUID = Version.MAJOR;
   private static final Percentage dungeonProbability = Percentage.fromString("2%");
   private static final MinimumBoundingRectangle biggestDungeonPossible = DungeonCreator.getMinimumBoundingRectangle();
+  private static final int ZONE_WIDTH = biggestDungeonPossible.getWidth();
+  private static final int ZONE_HEIGHT = biggestDungeonPossible.getHeight();
 
+  private final long seed;
+  // Kept to catch a dungeon being created twice.
   private final Set<Point> entrances = new HashSet<>();
 
-  public DungeonDistributor() {
+  public DungeonDistributor(long seed) {
+    this.seed = seed;
   }
 
   /**
-   * Makes a list with all the Points that should not contain a dungeon entrance.
+   * Makes a list with all the Points that should not contain a dungeon entrance. Only used by tests, to check that no
+   * entrance is placed in the zone of another.
    */
   static List<Point> makeNoEntrancesZonePointList(Point point, MinimumBoundingRectangle minimumBoundingRectangle) {
     /*
@@ -59,10 +68,15 @@ class DungeonDistributor implements Serializable {
   }
 
   /**
-   * Randomly decides whether or not a point should have a dungeon entrance if it is isolated enough.
+   * Decides whether or not a point should have a dungeon entrance.
+   *
+   * <p>Every point has a value derived from the seed. A point is a candidate if its value is under the probability of a
+   * dungeon and has an entrance if it is isolated enough, that is, if no point in its no-entrances zone has a smaller
+   * value. Of two entrances, one would have the smaller value, so no entrance is in the zone of another.
    */
   public boolean rollForDungeon(Point point) {
-    return isIsolatedEnough(point) && Random.roll(dungeonProbability);
+    double value = valueOf(point.getX(), point.getY());
+    return value < dungeonProbability.toDouble() && isIsolatedEnough(point.getX(), point.getY(), value);
   }
 
   public void registerDungeonEntrance(Point point) {
@@ -73,14 +87,28 @@ class DungeonDistributor implements Serializable {
     }
   }
 
+  private double valueOf(int x, int y) {
+    long key = ((long) x << Integer.SIZE) | (y & 0xFFFFFFFFL);
+    return SplitMix64.nextDouble(SplitMix64.derive(seed, key));
+  }
+
   /**
-   * Tests if there is no dungeon entrances in the 5x5 square centered at the provided point. Therefore, currently it is
-   * only safe to make dungeons that are at most 3x3 and centered at the entrance.
+   * Tests if no point in the no-entrances zone of the provided point has a value smaller than or equal to the value of
+   * the provided point, so that neither of two candidates with the same value gets an entrance.
+   *
+   * <p>Values are computed rather than looked up, so this only uses arithmetic and stops at the first point with a
+   * smaller value. The rows of the point are checked first, as the zone is wider than it is tall.
    */
-  private boolean isIsolatedEnough(Point point) {
-    for (Point pointToCheck : makeNoEntrancesZonePointList(point, biggestDungeonPossible)) {
-      if (entrances.contains(pointToCheck)) {
-        return false;
+  private boolean isIsolatedEnough(int pointX, int pointY, double value) {
+    for (int distanceY = 0; distanceY <= ZONE_HEIGHT; distanceY++) {
+      for (int x = pointX - ZONE_WIDTH; x <= pointX + ZONE_WIDTH; x++) {
+        if (distanceY == 0) {
+          if (x != pointX && valueOf(x, pointY) <= value) {
+            return false;
+          }
+        } else if (valueOf(x, pointY - distanceY) <= value || valueOf(x, pointY + distanceY) <= value) {
+          return false;
+        }
       }
     }
     return true;
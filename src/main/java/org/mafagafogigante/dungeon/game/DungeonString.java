@@ -94,15 +94,26 @@ public final class DungeonString extends Writable {
     }
   }
 
+  /**
+   * Appends a range of an array of characters to this DungeonString.
+   *
+   * @param characters an array of characters
+   * @param offset the index of the first character that should be appended
+   * @param length how many characters should be appended
+   */
+  public void append(@NotNull char[] characters, int offset, int length) {
+    builder.append(characters, offset, length);
+  }
+
   /**
    * Changes the current color of this DungeonString. This will only impact future calls to <code>append</code>.
    *
-   * <p>Passing the current color of this DungeonString is a no-op.
+   * <p>Passing the current color of this DungeonString, or one that is equal to it, is a no-op.
    *
    * @param color a Color object
    */
   public void setColor(@NotNull Color color) {
-    if (currentColor != color) {
+    if (!currentColor.equals(color)) {
       addBuilderContentToList();
       currentColor = color;
     }
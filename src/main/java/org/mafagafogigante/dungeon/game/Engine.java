@@ -61,7 +61,11 @@ public final class Engine {
    * Sets the status of the GameState to unsaved.
    */
   private static void notifyGameStateModification() {
-    Game.getGameState().setSaved(false);
+    GameState gameState = Game.getGameState();
+    gameState.setSaved(false);
+    gameState.setAutosaved(false);
+    // Not every change to the Location of the Hero goes through Location, so assume that it changed.
+    gameState.getWorld().markLocationModified(gameState.getHero().getLocation().getPoint());
   }
 
   /**
@@ -70,6 +74,7 @@ public final class Engine {
   private static void silentRefresh() {
     refreshSpawners();
     refreshItems();
+    releaseDistantChunks();
   }
 
   /**
@@ -78,13 +83,23 @@ public final class Engine {
   public static void endTurn() {
     silentRefresh();
     refreshAchievements();
+    refreshTimeSeries();
   }
 
   /**
-   * Refreshes all relevant Spawners in the world, currently, that is the spawners of the location the Hero is at.
+   * Records what changed during the turn in the statistics of the current day.
+   */
+  private static void refreshTimeSeries() {
+    Date worldDate = Game.getGameState().getWorld().getWorldDate();
+    Game.getGameState().getStatistics().updateTimeSeries(worldDate);
+  }
+
+  /**
+   * Spawns the Creatures that are due in the Locations the Hero has been to, including the one the Hero is at.
    */
   private static void refreshSpawners() {
-    Game.getGameState().getHero().getLocation().refreshSpawners();
+    World world = Game.getGameState().getWorld();
+    world.refreshSpawners(Game.getGameState().getHero().getLocation());
   }
 
   /**
@@ -94,6 +109,14 @@ public final class Engine {
     Game.getGameState().getHero().getLocation().refreshItems();
   }
 
+  /**
+   * Lets the World evict the chunks far from the Hero to disk.
+   */
+  private static void releaseDistantChunks() {
+    World world = Game.getGameState().getWorld();
+    world.releaseChunksFarFrom(Game.getGameState().getHero().getLocation().getPoint());
+  }
+
   /**
    * Iterates over all achievements, trying to unlock yet to be unlocked achievements.
    */
@@ -2,14 +2,23 @@ package org.mafagafogigante.dungeon.game;
 
 import org.mafagafogigante.dungeon.io.Version;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.NavigableSet;
-import java.util.TreeSet;
 
 /**
  * A sorted set of integers that can be expanded from both ends.
+ *
+ * <p>The integers follow from a seed. Each end draws from its own generator, so the set is the same however the
+ * expansions towards either end are interleaved.
+ *
+ * <p>As integers are only ever added beyond the smallest or the biggest integer, they are kept in a sorted array with
+ * free space at both ends, which grows when either end runs out of space. This makes expansion amortized constant time
+ * per integer and contains a binary search, without boxing.
  */
 class ExpandableIntegerSet implements Serializable {
 
@@ -17,15 +26,26 @@ class ExpandableIntegerSet implements Serializable {
   private final int minimumDifference;
   private final int maximumDifference;
 
-  private final NavigableSet<Integer> set = new TreeSet<>();
+  private final SplitMix64 upwards;
+  private final SplitMix64 downwards;
+
+  private static final int INITIAL_CAPACITY = 8;
+
+  /**
+   * The integers of the set are in the range [head, tail) of this array, in ascending order.
+   */
+  private transient int[] integers = new int[INITIAL_CAPACITY];
+  private transient int head = INITIAL_CAPACITY / 2;
+  private transient int tail = INITIAL_CAPACITY / 2;
 
   /**
    * Make a new ExpandableIntegerSet.
    *
    * @param minimumDifference the minimum difference between integers, positive
    * @param maximumDifference the maximum difference between integers, bigger than {@code minimumDifference}
+   * @param seed the seed the integers follow from
    */
-  public ExpandableIntegerSet(int minimumDifference, int maximumDifference) {
+  public ExpandableIntegerSet(int minimumDifference, int maximumDifference, long seed) {
     if (minimumDifference < 1) {
       throw new IllegalArgumentException("minimumDifference must be positive");
     } else if (minimumDifference >= maximumDifference) {
@@ -34,55 +54,109 @@ class ExpandableIntegerSet implements Serializable {
       this.minimumDifference = minimumDifference;
       this.maximumDifference = maximumDifference;
     }
-    initialize();
+    this.upwards = new SplitMix64(SplitMix64.derive(seed, 1));
+    this.downwards = new SplitMix64(SplitMix64.derive(seed, -1));
+    initialize(seed);
   }
 
   /**
    * Generate the first integer of the set. This method should not be invoked twice.
    */
-  private void initialize() {
-    if (!set.isEmpty()) {
+  private void initialize(long seed) {
+    if (size() != 0) {
       throw new IllegalStateException("set already has an element.");
     } else {
-      set.add(Random.nextInteger(minimumDifference));
+      integers[tail++] = new SplitMix64(seed).nextInt(minimumDifference);
     }
   }
 
+  /**
+   * Returns how many integers are in the set.
+   */
+  int size() {
+    return tail - head;
+  }
+
   /**
    * Expand the set of integers towards an integer a until there is an integer bigger than or equal to value.
    *
    * @return a list with all new integers.
    */
   List<Integer> expand(int value) {
-    if (set.isEmpty()) {
+    if (size() == 0) {
       throw new IllegalStateException("the set is empty.");
     }
     ArrayList<Integer> integerList = new ArrayList<>();
-    int integer = set.last();
+    int integer = integers[tail - 1];
     while (value >= integer) {
-      integer += Random.nextInteger(minimumDifference, maximumDifference);
+      integer += nextDifference(upwards);
       integerList.add(integer);
-      set.add(integer);
+      if (tail == integers.length) {
+        reallocate();
+      }
+      integers[tail++] = integer;
     }
-    integer = set.first();
+    integer = integers[head];
     while (value <= integer) {
-      integer -= Random.nextInteger(minimumDifference, maximumDifference);
+      integer -= nextDifference(downwards);
       integerList.add(integer);
-      set.add(integer);
+      if (head == 0) {
+        reallocate();
+      }
+      integers[--head] = integer;
     }
     return integerList;
   }
 
+  /**
+   * Moves the integers to the middle of an array twice as big as they need, so that both ends have free space.
+   */
+  private void reallocate() {
+    int size = size();
+    int[] reallocated = new int[Math.max(INITIAL_CAPACITY, 2 * size)];
+    int newHead = (reallocated.length - size) / 2;
+    System.arraycopy(integers, head, reallocated, newHead, size);
+    integers = reallocated;
+    head = newHead;
+    tail = newHead + size;
+  }
+
+  private int nextDifference(SplitMix64 generator) {
+    return minimumDifference + generator.nextInt(maximumDifference - minimumDifference);
+  }
+
   /**
    * @return true if {@code value} is in the set.
    */
   boolean contains(int value) {
-    return set.contains(value);
+    return Arrays.binarySearch(integers, head, tail, value) >= 0;
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeInt(size());
+    for (int i = head; i < tail; i++) {
+      out.writeInt(integers[i]);
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    int size = in.readInt();
+    if (size < 1) {
+      throw new IOException("an ExpandableIntegerSet should not be empty.");
+    }
+    integers = new int[2 * size];
+    head = size / 2;
+    tail = head + size;
+    for (int i = head; i < tail; i++) {
+      integers[i] = in.readInt();
+    }
   }
 
   @Override
   public String toString() {
-    return "ExpandableIntegerSet currently of " + set;
+    return "ExpandableIntegerSet currently of " + Arrays.toString(Arrays.copyOfRange(integers, head, tail));
   }
 
 }
@@ -4,6 +4,7 @@ import org.mafagafogigante.dungeon.commands.IssuedCommand;
 import org.mafagafogigante.dungeon.commands.IssuedCommandEvaluation;
 import org.mafagafogigante.dungeon.commands.IssuedCommandProcessor;
 import org.mafagafogigante.dungeon.gui.GameWindow;
+import org.mafagafogigante.dungeon.io.Autosaver;
 import org.mafagafogigante.dungeon.io.Loader;
 import org.mafagafogigante.dungeon.io.Version;
 import org.mafagafogigante.dungeon.io.Writer;
@@ -17,6 +18,7 @@ import java.awt.Color;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
@@ -25,8 +27,8 @@ public class Game {
 
   private static final InstanceInformation instanceInformation = new InstanceInformation();
 
-  private static GameWindow gameWindow;
-  private static GameState gameState;
+  private static volatile GameWindow gameWindow;
+  private static volatile GameState gameState;
 
   /**
    * The main method.
@@ -41,7 +43,13 @@ public class Game {
       }
     });
     DungeonLogger.info("Finished making the window. Took " + stopWatch.toString() + ".");
-    setGameState(getInitialGameState());
+    GameThread.call(new Callable<Void>() {
+      @Override
+      public Void call() {
+        setGameState(getInitialGameState());
+        return null;
+      }
+    });
     invokeOnEventDispatchThreadAndWait(new Runnable() {
       @Override
       public void run() {
@@ -103,6 +111,10 @@ public class Game {
     return gameWindow;
   }
 
+  /**
+   * Returns the current GameState. Other than to read snapshots it publishes, the GameState should only be accessed on
+   * the GameThread.
+   */
   public static GameState getGameState() {
     return gameState;
   }
@@ -134,7 +146,7 @@ public class Game {
   }
 
   /**
-   * Renders a turn based on the last IssuedCommand.
+   * Renders a turn based on the last IssuedCommand. Should only be invoked on the GameThread.
    *
    * @param issuedCommand the last IssuedCommand.
    */
@@ -153,6 +165,7 @@ public class Game {
         setGameState(getAfterDeathGameState());
       } else {
         Engine.endTurn();
+        Autosaver.autosaveIfDue(getGameState());
       }
     }
     DungeonLogger.logCommandRenderingReport(issuedCommand.toString(), "finished renderTurn", stopWatch);
@@ -193,8 +206,20 @@ public class Game {
 
   /**
    * Exits the game, prompting the user if the current state should be saved if it is not already saved.
+   *
+   * <p>If this method is not invoked on the GameThread, the game exits after the GameThread finishes its current tasks.
    */
   public static void exit() {
+    if (!GameThread.isCurrentThread()) {
+      GameThread.execute(new Runnable() {
+        @Override
+        public void run() {
+          exit();
+        }
+      });
+      return;
+    }
+    Autosaver.awaitPendingSave();
     if (getGameState() != null && !getGameState().isSaved()) {
       Loader.saveGame(getGameState());
     }
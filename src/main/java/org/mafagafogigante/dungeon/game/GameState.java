@@ -8,7 +8,10 @@ import org.mafagafogigante.dungeon.io.ResourceNameResolver;
 import org.mafagafogigante.dungeon.io.Version;
 import org.mafagafogigante.dungeon.stats.Statistics;
 
+import java.io.File;
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 
 public class GameState implements Serializable {
 
@@ -21,13 +24,22 @@ public class GameState implements Serializable {
   private Version gameVersion = Version.getCurrentVersion();
 
   private transient boolean saved = false;
+  private transient boolean autosaved = false;
+  private transient Map<File, SaveJournal> journals;
 
   /**
    * Constructs a new GameState.
    */
   public GameState() {
+    this(Random.makeSeed());
+  }
+
+  /**
+   * Constructs a new GameState whose World is generated from the specified seed.
+   */
+  GameState(long seed) {
     commandHistory = new CommandHistory();
-    world = new World(statistics.getWorldStatistics());
+    world = new World(statistics.getWorldStatistics(), seed);
     createHeroAndStartingLocation();
   }
 
@@ -50,6 +62,13 @@ public class GameState implements Serializable {
     getStatistics().getExplorationStatistics().addVisit(heroPosition, locationId, world.getWorldDate());
   }
 
+  /**
+   * Puts the Hero back into its Location, which is left out of the Location when it is saved.
+   */
+  void attachHero() {
+    world.getLocation(heroPosition).addCreature(hero);
+  }
+
   public CommandHistory getCommandHistory() {
     return commandHistory;
   }
@@ -78,6 +97,39 @@ public class GameState implements Serializable {
     this.saved = saved;
   }
 
+  /**
+   * Returns whether or not this GameState was autosaved since it last changed.
+   */
+  public boolean isAutosaved() {
+    return autosaved;
+  }
+
+  public void setAutosaved(boolean autosaved) {
+    this.autosaved = autosaved;
+  }
+
+  /**
+   * Returns the SaveJournal of the specified file if this GameState was saved to it or loaded from it, by the user or
+   * by the Autosaver, or null if it was not.
+   */
+  public SaveJournal getJournal(File file) {
+    return journals == null ? null : journals.get(file.getAbsoluteFile());
+  }
+
+  /**
+   * Sets the SaveJournal of the specified file, or forgets it if the SaveJournal is null.
+   */
+  void setJournal(File file, SaveJournal journal) {
+    if (journals == null) {
+      journals = new HashMap<>();
+    }
+    if (journal == null) {
+      journals.remove(file.getAbsoluteFile());
+    } else {
+      journals.put(file.getAbsoluteFile(), journal);
+    }
+  }
+
   public Version getGameVersion() {
     return gameVersion;
   }
@@ -0,0 +1,120 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.logging.DungeonLogger;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The single thread that owns the state of the game.
+ *
+ * <p>The GameState and everything that can be reached from it, such as the World, its Locations and the Statistics,
+ * should only be read and modified on this thread. Therefore, none of them need to be synchronized. Other threads never
+ * access this state directly:
+ *
+ * <ul>
+ * <li>the Event Dispatch Thread submits commands to this thread and only reads immutable snapshots that it publishes,
+ * such as the ones of the CommandHistory;</li>
+ * <li>workers get what they need before they start, such as a SaveJournal.Snapshot, and hand their results back through
+ * lock-free queues that this thread drains, such as the one of the ChunkPregenerator.</li>
+ * </ul>
+ *
+ * <p>Tasks run one at a time, in the order in which they were submitted.
+ */
+public final class GameThread {
+
+  private static volatile Thread thread;
+
+  private static final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+    @Override
+    public Thread newThread(@NotNull Runnable runnable) {
+      Thread newThread = new Thread(runnable, "Game logic");
+      newThread.setDaemon(true); // The Event Dispatch Thread keeps the application running.
+      thread = newThread;
+      return newThread;
+    }
+  });
+
+  private GameThread() { // Ensure that this class cannot be instantiated.
+    throw new AssertionError();
+  }
+
+  /**
+   * Returns whether or not the current thread is the game thread.
+   */
+  public static boolean isCurrentThread() {
+    return Thread.currentThread() == thread;
+  }
+
+  /**
+   * Schedules a task to run on the game thread. Exceptions thrown by the task are logged. This method can be invoked on
+   * any thread.
+   */
+  public static void execute(@NotNull final Runnable runnable) {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          runnable.run();
+        } catch (RuntimeException exception) {
+          DungeonLogger.logSevere(exception);
+        }
+      }
+    });
+  }
+
+  /**
+   * Runs a task on the game thread and waits for its result. If this method is invoked on the game thread, the task is
+   * run immediately.
+   *
+   * @param callable the task, which may throw unchecked exceptions, which are rethrown on the current thread
+   * @return what the task returned
+   */
+  public static <T> T call(@NotNull Callable<T> callable) {
+    if (isCurrentThread()) {
+      return callUnchecked(callable);
+    }
+    Future<T> future = executor.submit(callable);
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return future.get();
+        } catch (InterruptedException exception) {
+          interrupted = true; // The task cannot be abandoned halfway through changing the game.
+        }
+      }
+    } catch (ExecutionException exception) {
+      throw rethrow(exception.getCause());
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static <T> T callUnchecked(Callable<T> callable) {
+    try {
+      return callable.call();
+    } catch (Exception exception) {
+      throw rethrow(exception);
+    }
+  }
+
+  private static RuntimeException rethrow(Throwable throwable) {
+    if (throwable instanceof RuntimeException) {
+      throw (RuntimeException) throwable;
+    } else if (throwable instanceof Error) {
+      throw (Error) throwable;
+    } else {
+      throw new IllegalStateException(throwable);
+    }
+  }
+
+}
@@ -0,0 +1,80 @@
+package org.mafagafogigante.dungeon.game;
+
+/**
+ * How long a WorldGenerator took to place each kind of Location and how many Locations of each kind it placed.
+ *
+ * <p>The time spent on a Location goes to the kind of Location it turned out to be, including the time taken to decide
+ * it. The expansion of the rivers around a chunk goes to the rivers.
+ *
+ * <p>A GenerationProfile is not synchronized, so it should only be given to a WorldGenerator whose chunks are all
+ * generated on the same thread.
+ */
+final class GenerationProfile {
+
+  /**
+   * A profile that does not measure anything and does not invoke System.nanoTime.
+   */
+  static final GenerationProfile DISABLED = new GenerationProfile(false);
+
+  private final boolean enabled;
+  private final long[] nanoseconds = new long[Placement.values().length];
+  private final int[] locations = new int[Placement.values().length];
+
+  GenerationProfile() {
+    this(true);
+  }
+
+  private GenerationProfile(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Returns the instant from which the next placement is measured.
+   */
+  long start() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records a placement that started at the specified instant and returns the instant at which it finished.
+   *
+   * @param placement the kind of Location placed
+   * @param since the instant returned by start or by the previous invocation of this method
+   * @param count how many Locations were placed, which may be zero
+   */
+  long record(Placement placement, long since, int count) {
+    if (!enabled) {
+      return 0;
+    }
+    long now = System.nanoTime();
+    nanoseconds[placement.ordinal()] += now - since;
+    locations[placement.ordinal()] += count;
+    return now;
+  }
+
+  long getNanoseconds(Placement placement) {
+    return nanoseconds[placement.ordinal()];
+  }
+
+  int getLocations(Placement placement) {
+    return locations[placement.ordinal()];
+  }
+
+  enum Placement {
+
+    RIVER("River"), DUNGEON("Dungeon"), LAND("Land");
+
+    private final String name;
+
+    Placement(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+
+  }
+
+}
@@ -1,5 +1,6 @@
 package org.mafagafogigante.dungeon.game;
 
+import org.mafagafogigante.dungeon.date.Date;
 import org.mafagafogigante.dungeon.entity.Entity;
 import org.mafagafogigante.dungeon.entity.Luminosity;
 import org.mafagafogigante.dungeon.entity.TagSet;
@@ -14,7 +15,10 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 
 /**
@@ -34,6 +38,10 @@ public class Location implements Serializable {
   private final Percentage lightPermittivity;
   private final World world;
   private final Point point;
+  /**
+   * How many Creatures of each Id are in this Location, so that Spawners do not go through all the Creatures.
+   */
+  private transient Map<Id, Integer> creatureCounts;
 
   /**
    * Constructs a new location for the specified world based on the provided preset.
@@ -44,6 +52,35 @@ public class Location implements Serializable {
    * @param world the World object
    */
   public Location(@NotNull LocationPreset preset, @NotNull World world, @NotNull Point point) {
+    this(preset, world, point, world.getWorldDate());
+    registerUniqueItems();
+  }
+
+  /**
+   * Constructs a new location for the specified world based on the provided preset, whose items are created at the
+   * specified date. The WorldGenerator uses the date a chunk was first generated at when it generates the chunk again.
+   *
+   * <p>This constructor does not change the World nor its ItemFactory, so it may run on the threads that generate
+   * chunks in advance. The unique items it makes are not registered until registerUniqueItems is invoked.
+   */
+  Location(@NotNull LocationPreset preset, @NotNull World world, @NotNull Point point, @NotNull Date date) {
+    this(preset, world, point, preset.getSpawners().size());
+    for (SpawnerPreset spawner : preset.getSpawners()) {
+      spawners.add(new Spawner(spawner, this));
+    }
+    ItemFactory itemFactory = getWorld().getItemFactory();
+    for (Entry<Id, Percentage> entry : preset.getItems()) {
+      if (Random.roll(entry.getValue())) {
+        Id id = entry.getKey();
+        if (itemFactory.canMakeItem(id)) {
+          // Not a change to the Location, which is not in the World yet.
+          items.addItem(itemFactory.makeUnregisteredItem(id, date));
+        }
+      }
+    }
+  }
+
+  private Location(LocationPreset preset, World world, Point point, int spawnerCount) {
     this.id = preset.getId();
     this.name = preset.getName();
     this.description = preset.getDescription();
@@ -52,19 +89,40 @@ public class Location implements Serializable {
     this.blockedEntrances = preset.getBlockedEntrances();
     this.lightPermittivity = preset.getLightPermittivity();
     this.creatures = new ArrayList<>();
-    this.spawners = new ArrayList<>(preset.getSpawners().size());
-    for (SpawnerPreset spawner : preset.getSpawners()) {
-      spawners.add(new Spawner(spawner, this));
-    }
+    this.spawners = new ArrayList<>(spawnerCount);
     this.tagSet = TagSet.copyTagSet(preset.getTagSet());
     this.items = new LocationInventory();
-    ItemFactory itemFactory = getWorld().getItemFactory();
-    for (Entry<Id, Percentage> entry : preset.getItems()) {
-      if (Random.roll(entry.getValue())) {
-        Id id = entry.getKey();
-        if (itemFactory.canMakeItem(id)) {
-          this.addItem(itemFactory.makeItem(id, world.getWorldDate()));
-        }
+  }
+
+  /**
+   * Makes a Location from its preset without any spawners, creatures, or items, which should be restored by the caller.
+   */
+  static Location makeEmptyLocation(@NotNull LocationPreset preset, @NotNull World world, @NotNull Point point) {
+    return new Location(preset, world, point, preset.getSpawners().size());
+  }
+
+  /**
+   * Evaluates whether or not this Location has unique items.
+   */
+  boolean hasUniqueItems() {
+    for (Item item : getItemList()) {
+      if (world.getItemFactory().isUnique(item.getId())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Registers the unique items this Location was made with in the ItemFactory of the World, discarding those that were
+   * registered first by another Location. Should be invoked on the thread that owns the World, before this Location is
+   * added to it.
+   */
+  void registerUniqueItems() {
+    ItemFactory itemFactory = world.getItemFactory();
+    for (Item item : new ArrayList<>(getItemList())) {
+      if (itemFactory.isUnique(item.getId()) && !itemFactory.registerItem(item)) {
+        items.removeItem(item); // Not a change to the Location, which is not in the World yet.
       }
     }
   }
@@ -81,13 +139,8 @@ public class Location implements Serializable {
     return description;
   }
 
-  /**
-   * Refreshes all the Spawners of this location.
-   */
-  void refreshSpawners() {
-    for (Spawner spawner : spawners) {
-      spawner.refresh();
-    }
+  List<Spawner> getSpawners() {
+    return spawners;
   }
 
   public TagSet<Tag> getTagSet() {
@@ -109,8 +162,11 @@ public class Location implements Serializable {
     return new Luminosity(new Percentage(Math.min(fromEntities.toDouble() + fromTheWorld.toDouble(), 1.0)));
   }
 
+  /**
+   * Returns an unmodifiable view of the Creatures in this Location. Use addCreature and removeCreature to change it.
+   */
   public List<Creature> getCreatures() {
-    return creatures;
+    return Collections.unmodifiableList(creatures);
   }
 
   public LocationInventory getInventory() {
@@ -136,16 +192,35 @@ public class Location implements Serializable {
   }
 
   /**
-   * Returns the number of creatures in this Location.
+   * Returns the number of creatures with the specified Id in this Location.
    */
   int getCreatureCount(Id id) {
-    int count = 0;
-    for (Creature creature : creatures) {
-      if (creature.getId().equals(id)) {
-        count++;
+    Integer count = getCreatureCounts().get(id);
+    return count == null ? 0 : count;
+  }
+
+  /**
+   * Returns the counts of the Creatures by Id, counting them again if they were not counted since deserialization.
+   */
+  private Map<Id, Integer> getCreatureCounts() {
+    if (creatureCounts == null) {
+      creatureCounts = new HashMap<>();
+      for (Creature creature : creatures) {
+        countCreature(creature.getId(), 1);
       }
     }
-    return count;
+    return creatureCounts;
+  }
+
+  private void countCreature(Id id, int delta) {
+    Map<Id, Integer> counts = getCreatureCounts();
+    Integer count = counts.get(id);
+    int updated = (count == null ? 0 : count) + delta;
+    if (updated == 0) {
+      counts.remove(id);
+    } else {
+      counts.put(id, updated);
+    }
   }
 
   /**
@@ -155,16 +230,29 @@ public class Location implements Serializable {
    * @param creature a Creature object
    */
   public void addCreature(Creature creature) {
+    restoreCreature(creature);
+    world.markLocationModified(point);
+  }
+
+  /**
+   * Adds a Creature to this Location without marking it as modified, which is how decoded Locations get their
+   * Creatures back.
+   */
+  void restoreCreature(Creature creature) {
     creature.setLocation(this);
+    // Count before changing the list, as the counts are remade from the list if they were lost to serialization.
+    countCreature(creature.getId(), 1);
     creatures.add(creature);
   }
 
   public void addItem(Item item) {
     items.addItem(item);
+    world.markLocationModified(point);
   }
 
   public void removeItem(Item item) {
     items.removeItem(item);
+    world.markLocationModified(point);
   }
 
   /**
@@ -175,7 +263,13 @@ public class Location implements Serializable {
       spawner.notifyKill(creature);
     }
     // The creature must be removed after the spawns are notified.
-    creatures.remove(creature);
+    if (creatures.contains(creature)) {
+      countCreature(creature.getId(), -1);
+      creatures.remove(creature);
+    }
+    world.markLocationModified(point);
+    // The population of a Spawner that was at its limit is now below it.
+    world.scheduleSpawners(this);
   }
 
   public World getWorld() {
@@ -0,0 +1,97 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.date.Date;
+import org.mafagafogigante.dungeon.io.Version;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serializable;
+
+/**
+ * A square chunk of Locations at the same altitude, stored in a dense array indexed by the offset of the Location
+ * relative to the lower left corner of the chunk.
+ */
+final class LocationChunk implements Serializable {
+
+  private static final long serialVersionUID = Version.MAJOR;
+  private final int chunkSide;
+  private final Location[] locations;
+  private int size;
+
+  // The epoch of the ChunkedLocationStore in which this chunk last changed. Chunks read from a save are from epoch 0.
+  private transient long modificationEpoch;
+  // The date this chunk was generated at if it was not modified since and the WorldGenerator can generate it again.
+  private Date generationDate;
+
+  LocationChunk(int chunkSide) {
+    this.chunkSide = chunkSide;
+    this.locations = new Location[chunkSide * chunkSide];
+  }
+
+  int getChunkSide() {
+    return chunkSide;
+  }
+
+  private int indexOf(int offsetX, int offsetY) {
+    return offsetX * chunkSide + offsetY;
+  }
+
+  /**
+   * Returns the Location at the specified offset or null if there is not a Location there yet.
+   */
+  Location get(int offsetX, int offsetY) {
+    return locations[indexOf(offsetX, offsetY)];
+  }
+
+  /**
+   * Puts a Location at the specified offset. There should not be a Location at that offset.
+   */
+  void put(int offsetX, int offsetY, @NotNull Location location) {
+    int index = indexOf(offsetX, offsetY);
+    if (locations[index] != null) {
+      throw new IllegalStateException("chunk already has a location at " + location.getPoint() + ".");
+    }
+    locations[index] = location;
+    size++;
+  }
+
+  /**
+   * Returns how many Locations this chunk holds.
+   */
+  int size() {
+    return size;
+  }
+
+  long getModificationEpoch() {
+    return modificationEpoch;
+  }
+
+  void setModificationEpoch(long modificationEpoch) {
+    this.modificationEpoch = modificationEpoch;
+  }
+
+  /**
+   * Records that a Location of this chunk changed in the specified epoch, so that it is written by the next save to
+   * every journal and in full.
+   */
+  void markModified(long epoch) {
+    modificationEpoch = epoch;
+    generationDate = null;
+  }
+
+  /**
+   * Returns whether or not this chunk can be generated again instead of being encoded.
+   */
+  boolean isRegenerable() {
+    return generationDate != null;
+  }
+
+  Date getGenerationDate() {
+    return generationDate;
+  }
+
+  void setGenerationDate(Date generationDate) {
+    this.generationDate = generationDate;
+  }
+
+}
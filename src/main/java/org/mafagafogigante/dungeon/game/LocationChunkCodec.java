@@ -0,0 +1,287 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.date.Date;
+import org.mafagafogigante.dungeon.entity.creatures.Creature;
+import org.mafagafogigante.dungeon.entity.creatures.Hero;
+import org.mafagafogigante.dungeon.entity.items.Item;
+import org.mafagafogigante.dungeon.entity.items.ItemFactory;
+import org.mafagafogigante.dungeon.entity.items.LocationInventory;
+import org.mafagafogigante.dungeon.io.VarInts;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes LocationChunks to byte arrays independently of the rest of the World.
+ *
+ * <p>Locations are written with an explicit schema: the Id of their preset, the state of their spawners, and their
+ * items, with integers written as varints. Everything a Location copies from its preset is read from the preset when
+ * the chunk is decoded, and so is everything a restorable Item copies from its preset. The coordinates of a Location
+ * follow from the key of its chunk and its slot in the chunk. The schema is versioned by CHUNK_FORMAT_VERSION, which is
+ * independent from the version of the game.
+ *
+ * <p>Creatures and the few Items that are not restorable are written through Java serialization in the same stream.
+ * The World and the Location they are in are written as tokens and resolved back when the chunk is decoded. The Hero
+ * is never encoded, as it belongs to the GameState. Chunks evicted from memory never have the Hero, while chunks
+ * written to a save leave it out and the GameState attaches it back when it is loaded.
+ *
+ * <p>A chunk that the WorldGenerator can generate again is encoded as the date it was generated at alone.
+ */
+final class LocationChunkCodec {
+
+  private static final int CHUNK_FORMAT_VERSION = 2;
+  private static final byte REGENERATED_CHUNK = 0;
+  private static final byte ENCODED_CHUNK = 1;
+  private static final byte RESTORED_ITEM = 0;
+  private static final byte SERIALIZED_ITEM = 1;
+
+  private LocationChunkCodec() { // Ensure that this class cannot be instantiated.
+    throw new AssertionError();
+  }
+
+  static byte[] encode(@NotNull LocationChunk chunk, @NotNull World world) throws IOException {
+    return encodeChunk(chunk, world, false);
+  }
+
+  static byte[] encodeDetachingHero(@NotNull LocationChunk chunk, @NotNull World world) throws IOException {
+    return encodeChunk(chunk, world, true);
+  }
+
+  private static byte[] encodeChunk(LocationChunk chunk, World world, boolean detachHero) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ChunkOutputStream out = new ChunkOutputStream(bytes, world)) {
+      VarInts.writeUnsignedInt(out, CHUNK_FORMAT_VERSION);
+      VarInts.writeUnsignedInt(out, chunk.getChunkSide());
+      if (chunk.isRegenerable()) {
+        out.writeByte(REGENERATED_CHUNK);
+        VarInts.writeSignedLong(out, chunk.getGenerationDate().getTime());
+      } else {
+        out.writeByte(ENCODED_CHUNK);
+        writeLocations(out, chunk, detachHero);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void writeLocations(ChunkOutputStream out, LocationChunk chunk, boolean detachHero)
+      throws IOException {
+    int chunkSide = chunk.getChunkSide();
+    VarInts.writeUnsignedInt(out, chunk.size());
+    for (int offsetX = 0; offsetX < chunkSide; offsetX++) {
+      for (int offsetY = 0; offsetY < chunkSide; offsetY++) {
+        Location location = chunk.get(offsetX, offsetY);
+        if (location != null) {
+          VarInts.writeUnsignedInt(out, offsetX * chunkSide + offsetY);
+          writeLocation(out, location, detachHero);
+        }
+      }
+    }
+  }
+
+  private static void writeLocation(ChunkOutputStream out, Location location, boolean detachHero) throws IOException {
+    out.writeId(location.getId());
+    VarInts.writeUnsignedInt(out, location.getSpawners().size());
+    for (Spawner spawner : location.getSpawners()) {
+      VarInts.writeUnsignedInt(out, spawner.getPopulationLimit());
+      VarInts.writeSignedLong(out, spawner.getLastChange());
+    }
+    List<Item> items = location.getItemList();
+    VarInts.writeUnsignedInt(out, items.size());
+    for (Item item : items) {
+      if (item.isRestorable()) {
+        out.writeByte(RESTORED_ITEM);
+        out.writeId(item.getId());
+        VarInts.writeSignedLong(out, item.getDateOfCreation().getTime());
+        VarInts.writeUnsignedInt(out, item.getIntegrity().getCurrent());
+        boolean drinkable = item.getDrinkableComponent() != null;
+        VarInts.writeUnsignedInt(out, drinkable ? item.getDrinkableComponent().getDoses() : 0);
+      } else {
+        out.writeByte(SERIALIZED_ITEM);
+        out.writeObject(item);
+      }
+    }
+    List<Creature> creatures = new ArrayList<>(location.getCreatures());
+    for (Creature creature : location.getCreatures()) {
+      if (creature instanceof Hero) {
+        if (!detachHero) {
+          throw new NotSerializableException("the Hero cannot be evicted with its chunk.");
+        }
+        creatures.remove(creature);
+      }
+    }
+    VarInts.writeUnsignedInt(out, creatures.size());
+    for (Creature creature : creatures) {
+      out.writeObject(creature);
+    }
+  }
+
+  static LocationChunk decode(long key, @NotNull byte[] bytes, @NotNull World world) throws IOException {
+    try (ChunkInputStream in = new ChunkInputStream(new ByteArrayInputStream(bytes), world)) {
+      int version = VarInts.readUnsignedInt(in);
+      if (version != CHUNK_FORMAT_VERSION) {
+        throw new IOException("unsupported chunk format version " + version + ".");
+      }
+      int chunkSide = VarInts.readUnsignedInt(in);
+      if (in.readByte() == REGENERATED_CHUNK) {
+        LocationChunk chunk = world.regenerateChunk(key, new Date(VarInts.readSignedLong(in)));
+        if (chunk.getChunkSide() != chunkSide) {
+          throw new IOException("the side of the chunks changed.");
+        }
+        return chunk;
+      }
+      LocationChunk chunk = new LocationChunk(chunkSide);
+      int size = VarInts.readUnsignedInt(in);
+      for (int i = 0; i < size; i++) {
+        int slot = VarInts.readUnsignedInt(in);
+        int offsetX = slot / chunkSide;
+        int offsetY = slot % chunkSide;
+        int x = ChunkedLocationStore.getChunkX(key) * chunkSide + offsetX;
+        int y = ChunkedLocationStore.getChunkY(key) * chunkSide + offsetY;
+        Point point = new Point(x, y, ChunkedLocationStore.getZ(key));
+        chunk.put(offsetX, offsetY, readLocation(in, world, point));
+      }
+      return chunk;
+    } catch (ClassNotFoundException | IllegalArgumentException | IllegalStateException exception) {
+      throw new IOException(exception);
+    }
+  }
+
+  private static Location readLocation(ChunkInputStream in, World world, Point point)
+      throws IOException, ClassNotFoundException {
+    Id presetId = in.readId();
+    LocationPreset preset = LocationPresetStore.getDefaultLocationPresetStore().getLocationPreset(presetId);
+    if (preset == null) {
+      throw new IOException("there is no location preset with the Id " + presetId + ".");
+    }
+    Location location = Location.makeEmptyLocation(preset, world, point);
+    in.setCurrentLocation(location);
+    int spawnerCount = VarInts.readUnsignedInt(in);
+    if (spawnerCount != preset.getSpawners().size()) {
+      throw new IOException("the spawners of " + presetId + " changed.");
+    }
+    for (SpawnerPreset spawnerPreset : preset.getSpawners()) {
+      int populationLimit = VarInts.readUnsignedInt(in);
+      long lastChange = VarInts.readSignedLong(in);
+      location.getSpawners().add(new Spawner(spawnerPreset, location, populationLimit, lastChange));
+    }
+    // Restore the contents directly, as they are not changes to the Location.
+    ItemFactory itemFactory = world.getItemFactory();
+    LocationInventory inventory = location.getInventory();
+    int itemCount = VarInts.readUnsignedInt(in);
+    for (int i = 0; i < itemCount; i++) {
+      if (in.readByte() == RESTORED_ITEM) {
+        Id itemId = in.readId();
+        Date dateOfCreation = new Date(VarInts.readSignedLong(in));
+        int integrity = VarInts.readUnsignedInt(in);
+        int doses = VarInts.readUnsignedInt(in);
+        inventory.addItem(itemFactory.restoreItem(itemId, dateOfCreation, integrity, doses));
+      } else {
+        inventory.addItem((Item) in.readObject());
+      }
+    }
+    int creatureCount = VarInts.readUnsignedInt(in);
+    for (int i = 0; i < creatureCount; i++) {
+      Creature creature = (Creature) in.readObject();
+      location.restoreCreature(creature);
+    }
+    return location;
+  }
+
+  private enum Token {
+    WORLD, LOCATION, INVENTORY
+  }
+
+  /**
+   * Writes an Id in full the first time it appears in the stream and as its index in the order of appearance after.
+   */
+  private static final class ChunkOutputStream extends ObjectOutputStream {
+
+    private final World world;
+    private final Map<Id, Integer> idIndices = new HashMap<>();
+
+    ChunkOutputStream(OutputStream out, World world) throws IOException {
+      super(out);
+      this.world = world;
+      enableReplaceObject(true);
+    }
+
+    void writeId(Id id) throws IOException {
+      Integer index = idIndices.get(id);
+      if (index == null) {
+        VarInts.writeUnsignedInt(this, idIndices.size());
+        writeUTF(id.toString());
+        idIndices.put(id, idIndices.size());
+      } else {
+        VarInts.writeUnsignedInt(this, index);
+      }
+    }
+
+    @Override
+    protected Object replaceObject(Object object) throws IOException {
+      if (object == world) {
+        return Token.WORLD;
+      } else if (object instanceof Location) {
+        return Token.LOCATION;
+      } else if (object instanceof LocationInventory) {
+        return Token.INVENTORY;
+      } else if (object instanceof Hero) {
+        throw new NotSerializableException("the Hero cannot be encoded in a chunk.");
+      }
+      return object;
+    }
+
+  }
+
+  private static final class ChunkInputStream extends ObjectInputStream {
+
+    private final World world;
+    private final List<Id> ids = new ArrayList<>();
+    private Location currentLocation;
+
+    ChunkInputStream(InputStream in, World world) throws IOException {
+      super(in);
+      this.world = world;
+      enableResolveObject(true);
+    }
+
+    Id readId() throws IOException {
+      int index = VarInts.readUnsignedInt(this);
+      if (index == ids.size()) {
+        ids.add(new Id(readUTF()));
+      } else if (index > ids.size()) {
+        throw new IOException("invalid Id index " + index + ".");
+      }
+      return ids.get(index);
+    }
+
+    void setCurrentLocation(Location currentLocation) {
+      this.currentLocation = currentLocation;
+    }
+
+    @Override
+    protected Object resolveObject(Object object) {
+      if (object == Token.WORLD) {
+        return world;
+      } else if (object == Token.LOCATION) {
+        return currentLocation;
+      } else if (object == Token.INVENTORY) {
+        return null; // The Item is added to the inventory of its Location after it is read.
+      }
+      return object;
+    }
+
+  }
+
+}
@@ -40,8 +40,10 @@ public final class LocationPresetStore {
 
   /**
    * Returns the default LocationPresetStore, initializing it if it hasn't already been initialized.
+   *
+   * <p>Synchronized because chunks generated in advance may be the first to request it.
    */
-  public static LocationPresetStore getDefaultLocationPresetStore() {
+  public static synchronized LocationPresetStore getDefaultLocationPresetStore() {
     if (defaultLocationPresetStoreIsUninitialized) {
       defaultLocationPresetStore.loadLocationPresets();
       defaultLocationPresetStoreIsUninitialized = false;
@@ -108,6 +110,13 @@ public final class LocationPresetStore {
     typeLocationPresetMap.get(preset.getType()).add(preset);
   }
 
+  /**
+   * Returns the LocationPreset with the specified Id or null if there is no such preset.
+   */
+  public LocationPreset getLocationPreset(Id id) {
+    return idLocationPresetMap.get(id);
+  }
+
   public Collection<LocationPreset> getAllPresets() {
     return idLocationPresetMap.values();
   }
@@ -9,11 +9,35 @@ import java.util.List;
 /**
  * Random class that encapsulates the single Random object shared by the whole application. The reason for this is that
  * other parts of the code should not be able to call some of Random public methods, such as setSeed.
+ *
+ * <p>While the WorldGenerator generates a chunk, the rolls of its thread come from a sequence seeded for that chunk
+ * instead, so that everything rolled for the chunk, down to the enchantments of its items, can be rolled again.
  */
 public class Random {
 
   private static final java.util.Random RANDOM = new java.util.Random();
 
+  // Set while a chunk is generated, so that what is rolled for it only depends on the seed of the World and the chunk.
+  private static final ThreadLocal<SplitMix64> SEEDED_SEQUENCE = new ThreadLocal<>();
+
+  /**
+   * Makes the rolls of the calling thread follow from the specified seed until endSeededSequence is invoked.
+   */
+  static void beginSeededSequence(long seed) {
+    SEEDED_SEQUENCE.set(new SplitMix64(seed));
+  }
+
+  static void endSeededSequence() {
+    SEEDED_SEQUENCE.remove();
+  }
+
+  /**
+   * Returns a new seed for a World.
+   */
+  static long makeSeed() {
+    return RANDOM.nextLong();
+  }
+
   /**
    * Simulates a random roll.
    *
@@ -21,7 +45,8 @@ public class Random {
    * @return a boolean indicating if the roll was successful or not.
    */
   public static boolean roll(Percentage chance) {
-    return chance.toDouble() > RANDOM.nextDouble();
+    SplitMix64 sequence = SEEDED_SEQUENCE.get();
+    return chance.toDouble() > (sequence == null ? RANDOM.nextDouble() : sequence.nextDouble());
   }
 
   /**
@@ -40,7 +65,16 @@ public class Random {
    * @return a boolean
    */
   public static boolean nextBoolean() {
-    return RANDOM.nextBoolean();
+    SplitMix64 sequence = SEEDED_SEQUENCE.get();
+    return sequence == null ? RANDOM.nextBoolean() : sequence.nextBoolean();
+  }
+
+  /**
+   * Returns a pseudorandom, uniformly distributed double value between 0 (inclusive) and 1 (exclusive).
+   */
+  public static double nextDouble() {
+    SplitMix64 sequence = SEEDED_SEQUENCE.get();
+    return sequence == null ? RANDOM.nextDouble() : sequence.nextDouble();
   }
 
   /**
@@ -50,7 +84,8 @@ public class Random {
    * @return an int in the range [0, n)
    */
   public static int nextInteger(int n) {
-    return RANDOM.nextInt(n);
+    SplitMix64 sequence = SEEDED_SEQUENCE.get();
+    return sequence == null ? RANDOM.nextInt(n) : sequence.nextInt(n);
   }
 
   /**
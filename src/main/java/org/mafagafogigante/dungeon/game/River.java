@@ -16,10 +16,10 @@ class River implements Serializable {
   private final ExpandableIntegerSet bridges;
 
   /**
-   * Make a river.
+   * Make a river whose bridges follow from the specified seed.
    */
-  River() {
-    bridges = new ExpandableIntegerSet(MIN_BRIDGE_DIST, MAX_BRIDGE_DIST);
+  River(long seed) {
+    bridges = new ExpandableIntegerSet(MIN_BRIDGE_DIST, MAX_BRIDGE_DIST, seed);
   }
 
   /**
@@ -4,9 +4,13 @@ import org.mafagafogigante.dungeon.io.Version;
 
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * The component of WorldGenerator that generates rivers.
+ *
+ * <p>Rivers and their bridges are expanded as they are queried, so every method is synchronized for the threads that
+ * generate chunks in advance.
  */
 final class RiverGenerator implements Serializable {
 
@@ -14,11 +18,17 @@ final class RiverGenerator implements Serializable {
   private static final int MIN_DIST_RIVER = 6;
   private static final int MAX_DIST_RIVER = 11;
   private static final int START = 10; // Rivers do not appear in x > 10 || x < 10.
+  private final long seed;
   private final ExpandableIntegerSet lines;
   private final HashMap<Integer, River> rivers;
 
-  public RiverGenerator() {
-    lines = new ExpandableIntegerSet(MIN_DIST_RIVER, MAX_DIST_RIVER);
+  /**
+   * Makes a RiverGenerator whose rivers and bridges follow from the specified seed, whatever the order in which they
+   * are expanded.
+   */
+  public RiverGenerator(long seed) {
+    this.seed = seed;
+    lines = new ExpandableIntegerSet(MIN_DIST_RIVER, MAX_DIST_RIVER, seed);
     rivers = new HashMap<>();
   }
 
@@ -29,15 +39,18 @@ final class RiverGenerator implements Serializable {
    * @param point the point from which the expansion starts
    * @param chunkSide the current chunk side
    */
-  void expand(Point point, int chunkSide) {
-    for (int river : lines.expand(point.getX() - chunkSide)) {
-      if (river <= -START) {
-        rivers.put(river, new River());
-      }
-    }
-    for (int river : lines.expand(point.getX() + chunkSide)) {
-      if (river >= START) {
-        rivers.put(river, new River());
+  synchronized void expand(Point point, int chunkSide) {
+    addRivers(lines.expand(point.getX() - chunkSide));
+    addRivers(lines.expand(point.getX() + chunkSide));
+  }
+
+  /**
+   * Makes rivers of new lines. Either expansion may add lines on both sides, so every line is checked against START.
+   */
+  private void addRivers(List<Integer> newLines) {
+    for (int river : newLines) {
+      if (river <= -START || river >= START) {
+        rivers.put(river, new River(SplitMix64.derive(seed, river)));
       }
     }
   }
@@ -45,7 +58,7 @@ final class RiverGenerator implements Serializable {
   /**
    * Returns if in this point there should be a river.
    */
-  boolean isRiver(Point point) {
+  synchronized boolean isRiver(Point point) {
     River river = rivers.get(point.getX());
     return river != null && !river.isBridge(point.getY());
   }
@@ -53,7 +66,7 @@ final class RiverGenerator implements Serializable {
   /**
    * Returns if in this point there should be a bridge.
    */
-  boolean isBridge(Point point) {
+  synchronized boolean isBridge(Point point) {
     River river = rivers.get(point.getX());
     return river != null && river.isBridge(point.getY());
   }
@@ -61,7 +74,7 @@ final class RiverGenerator implements Serializable {
   /**
    * Returns if in this point there should be a riverside.
    */
-  boolean isRiverside(Point point) {
+  synchronized boolean isRiverside(Point point) {
     River leftOfRiver = rivers.get(point.getX() - 1);
     River rightOfRiver = rivers.get(point.getX() + 1);
     return leftOfRiver != null || rightOfRiver != null;
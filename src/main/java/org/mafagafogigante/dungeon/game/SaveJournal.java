@@ -0,0 +1,634 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.io.SaveCodec;
+import org.mafagafogigante.dungeon.io.VarInts;
+import org.mafagafogigante.dungeon.util.LongMap;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A save file that is appended to instead of rewritten.
+ *
+ * <p>A journal is a sequence of records. Chunk records hold chunks of the World and head records hold the rest of the
+ * GameState. Saving appends the chunks that changed since the last save followed by a new head, so the cost of a save
+ * is proportional to what changed rather than to the size of the World. A head commits the chunk records before it:
+ * loading uses the last complete head and the last version of every chunk written before it.
+ *
+ * <p>Once the journal grows past twice the size of its live records, the next save compacts it by writing a new journal
+ * with a single version of every record and replacing the old one with it.
+ *
+ * <p>The payload of every record is compressed on its own with the SaveCodec recorded in the header of the journal, so
+ * that records can still be appended and read independently. Each record also holds the length of its payload before
+ * compression, which is what the logical length of the journal adds up.
+ *
+ * <p>Every save ends with a directory record, which holds the position of the head and of the last version of every
+ * chunk, followed by a trailer record that points to the directory. Loading a journal that ends with a trailer reads
+ * the directory instead of every record header and only decodes the head. Chunks are read from the file when their
+ * Locations are first requested. A journal that does not end with a trailer because its last save did not complete is
+ * scanned from the start instead.
+ *
+ * <p>A GameState keeps a journal for every file it was saved to or loaded from. Each journal remembers the epoch of the
+ * World in which it was last written, so saving to one file after saving to another still only appends what changed.
+ *
+ * <p>A Snapshot may be written on another thread than the one that prepares the next save, so what a journal knows
+ * about its file is guarded by the lock of the journal.
+ */
+public final class SaveJournal {
+
+  private static final int MAGIC = 0x444A4E4C;
+  private static final int FORMAT_VERSION = 4;
+  private static final int HEADER_LENGTH = 9;
+  private static final int RECORD_HEADER_LENGTH = 17;
+  private static final byte HEAD = 1;
+  private static final byte CHUNK = 2;
+  private static final byte DIRECTORY = 3;
+  private static final byte TRAILER = 4;
+  private static final int COMPACTION_FACTOR = 2;
+
+  private final File file;
+  private final SaveCodec codec;
+  private final LongMap<RecordPosition> chunkPositions = new LongMap<>();
+  private long chunkBytes;
+  private RecordPosition headPosition;
+  private long directoryLength;
+  private long length;
+  private long logicalLength;
+  private volatile boolean failed;
+  // Only used by the thread that prepares the saves. A journal that was loaded has every chunk from epoch 0.
+  private long savedEpoch;
+
+  private SaveJournal(File file, SaveCodec codec) {
+    this.file = file.getAbsoluteFile();
+    this.codec = codec;
+  }
+
+  /**
+   * Evaluates whether the next save of the specified GameState to the specified file will append to it.
+   */
+  public static boolean isJournaledTo(@NotNull GameState state, @NotNull File file) {
+    SaveJournal journal = state.getJournal(file);
+    return journal != null && journal.canAppendTo(file);
+  }
+
+  /**
+   * Saves a GameState to a file with the SaveCodec of its journal if the GameState was saved to or loaded from that
+   * file and with the default SaveCodec otherwise.
+   *
+   * @param state the GameState
+   * @param file the File
+   * @return how many bytes were written
+   */
+  public static long save(@NotNull GameState state, @NotNull File file) throws IOException {
+    boolean journaled = isJournaledTo(state, file);
+    return save(state, file, journaled ? state.getJournal(file).getCodec() : SaveCodec.DEFAULT);
+  }
+
+  /**
+   * Saves a GameState to a file, appending to it if the GameState was saved to or loaded from that file and its journal
+   * uses the specified SaveCodec.
+   *
+   * @param state the GameState
+   * @param file the File
+   * @param codec the SaveCodec used to compress the records
+   * @return how many bytes were written
+   */
+  public static long save(@NotNull GameState state, @NotNull File file, @NotNull SaveCodec codec) throws IOException {
+    return prepare(state, file, codec).write();
+  }
+
+  /**
+   * Encodes everything a save of a GameState to a file writes without writing it.
+   *
+   * <p>This is the only part of a save that reads the GameState, which is considered saved once this method returns.
+   * The returned Snapshot may then be written on another thread while the GameState changes. It must be written
+   * before the next Snapshot of the GameState is prepared. If writing it fails, the next save rewrites the file.
+   *
+   * @param state the GameState
+   * @param file the File
+   * @param codec the SaveCodec used to compress the records
+   * @return a Snapshot that has not been written
+   */
+  public static Snapshot prepare(@NotNull GameState state, @NotNull File file, @NotNull SaveCodec codec)
+      throws IOException {
+    SaveJournal journal = state.getJournal(file);
+    boolean appending = journal != null && journal.canAppendTo(file) && journal.codec == codec;
+    if (!appending || journal.shouldCompact()) {
+      appending = false;
+      journal = new SaveJournal(file, codec);
+    }
+    final List<Record> records = new ArrayList<>();
+    try {
+      if (!appending) {
+        // Nothing should read the file this World was loaded from once it is replaced.
+        state.getWorld().detachSavedChunks(file);
+      }
+      state.getWorld().writeChunks(new ChunkedLocationStore.ChunkSink() {
+        @Override
+        public void write(long key, byte[] bytes) {
+          records.add(new Record(CHUNK, key, bytes));
+        }
+      }, appending ? journal.savedEpoch : ChunkedLocationStore.ALL_EPOCHS);
+      records.add(new Record(HEAD, 0, encodeHead(state)));
+    } catch (IOException exception) {
+      // Whatever the journal knew about the file may be wrong now, so the next save rewrites it.
+      state.setJournal(file, null);
+      throw exception;
+    }
+    journal.savedEpoch = state.getWorld().advanceEpoch();
+    state.setJournal(file, journal);
+    return new Snapshot(journal, appending, records);
+  }
+
+  /**
+   * Loads a GameState from a journal. Only the head and the chunk of the Hero are decoded, the other chunks are decoded
+   * from the file when they are first requested.
+   */
+  public static GameState load(@NotNull File file) throws IOException, ClassNotFoundException {
+    SaveJournal journal;
+    byte[] head;
+    try (RandomAccessFile access = new RandomAccessFile(file, "r")) {
+      if (access.length() < HEADER_LENGTH || access.readInt() != MAGIC) {
+        throw new UnsupportedSaveException(file.getName() + " is not a save journal.");
+      }
+      int version = access.readInt();
+      if (version != FORMAT_VERSION) {
+        throw new UnsupportedSaveException("unsupported save journal version " + version + ".");
+      }
+      int codecIdentifier = access.readUnsignedByte();
+      SaveCodec codec = SaveCodec.fromIdentifier(codecIdentifier);
+      if (codec == null) {
+        throw new IOException("unsupported save codec " + codecIdentifier + ".");
+      }
+      journal = new SaveJournal(file, codec);
+      if (!journal.readDirectory(access)) {
+        journal.scan(access);
+      }
+      head = journal.readHead(access);
+    }
+    GameState state = decodeHead(head);
+    state.getWorld().attachSavedChunks(new JournalChunkSource(journal.file, journal.codec, journal.chunkPositions));
+    state.attachHero();
+    state.setJournal(journal.file, journal);
+    return state;
+  }
+
+  /**
+   * Reads the directory the trailer at the end of the file points to.
+   *
+   * @return false if the file does not end with a trailer that points to a directory
+   */
+  private boolean readDirectory(RandomAccessFile access) throws IOException {
+    long fileLength = access.length();
+    long trailer = fileLength - RECORD_HEADER_LENGTH;
+    if (trailer < HEADER_LENGTH + RECORD_HEADER_LENGTH) {
+      return false;
+    }
+    access.seek(trailer);
+    long directory = 0;
+    if (access.readByte() == TRAILER) {
+      directory = access.readLong();
+    }
+    if (directory < HEADER_LENGTH || directory > trailer - RECORD_HEADER_LENGTH) {
+      return false;
+    }
+    access.seek(directory);
+    byte type = access.readByte();
+    access.readLong();
+    int storedLength = access.readInt();
+    int directoryLogicalLength = access.readInt();
+    if (type != DIRECTORY || directory + RECORD_HEADER_LENGTH + storedLength != trailer || directoryLogicalLength < 0) {
+      return false;
+    }
+    byte[] bytes = new byte[storedLength];
+    access.readFully(bytes);
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(codec.decompress(bytes, directoryLogicalLength)));
+    headPosition = readPosition(in);
+    logicalLength = VarInts.readSignedLong(in) + 2 * RECORD_HEADER_LENGTH + directoryLogicalLength;
+    int chunkCount = VarInts.readUnsignedInt(in);
+    for (int i = 0; i < chunkCount; i++) {
+      long key = in.readLong();
+      RecordPosition position = readPosition(in);
+      chunkPositions.put(key, position);
+      chunkBytes += position.length;
+    }
+    directoryLength = storedLength;
+    length = fileLength;
+    return true;
+  }
+
+  /**
+   * Reads every record header to find the last complete head and the chunks it commits.
+   */
+  private void scan(RandomAccessFile access) throws IOException {
+    long fileLength = access.length();
+    logicalLength = HEADER_LENGTH;
+    long pendingLogicalLength = 0;
+    LongMap<RecordPosition> pending = new LongMap<>();
+    long position = HEADER_LENGTH;
+    while (position + RECORD_HEADER_LENGTH <= fileLength) {
+      access.seek(position);
+      byte type = access.readByte();
+      long key = access.readLong();
+      int recordLength = access.readInt();
+      int recordLogicalLength = access.readInt();
+      long payload = position + RECORD_HEADER_LENGTH;
+      if (recordLength < 0 || recordLogicalLength < 0 || payload + recordLength > fileLength) {
+        break; // The last save did not complete.
+      }
+      RecordPosition record = new RecordPosition(payload, recordLength, recordLogicalLength);
+      pendingLogicalLength += RECORD_HEADER_LENGTH + recordLogicalLength;
+      if (type == HEAD) {
+        chunkPositions.putAll(pending);
+        pending.clear();
+        headPosition = record;
+        length = payload + recordLength;
+        logicalLength += pendingLogicalLength;
+        pendingLogicalLength = 0;
+      } else if (type == CHUNK) {
+        pending.put(key, record);
+      } else if (type != DIRECTORY && type != TRAILER) {
+        break;
+      }
+      position = payload + recordLength;
+    }
+    if (headPosition == null) {
+      throw new IOException(file.getName() + " does not have a complete save.");
+    }
+    for (long key : chunkPositions.keys()) {
+      chunkBytes += chunkPositions.get(key).length;
+    }
+  }
+
+  /**
+   * Evaluates whether an ObjectOutputStream is writing the head of a journal, which should leave the chunks out.
+   */
+  static boolean isHeadStream(ObjectOutputStream out) {
+    return out instanceof HeadOutputStream;
+  }
+
+  private synchronized long compact(List<Record> records) throws IOException {
+    File temporary = new File(file.getPath() + ".tmp");
+    try (FileOutputStream stream = new FileOutputStream(temporary)) {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeByte(codec.getIdentifier());
+      logicalLength = HEADER_LENGTH;
+      length = HEADER_LENGTH + writeRecords(out, records, 0);
+      stream.getFD().sync();
+    }
+    try {
+      Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException exception) {
+      Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    return length;
+  }
+
+  private byte[] readHead(RandomAccessFile access) throws IOException {
+    byte[] bytes = new byte[headPosition.length];
+    access.seek(headPosition.offset);
+    access.readFully(bytes);
+    return codec.decompress(bytes, headPosition.logicalLength);
+  }
+
+  private static RecordPosition readPosition(DataInputStream in) throws IOException {
+    long offset = VarInts.readSignedLong(in);
+    int recordLength = VarInts.readUnsignedInt(in);
+    return new RecordPosition(offset, recordLength, VarInts.readUnsignedInt(in));
+  }
+
+  private static void writePosition(DataOutputStream out, RecordPosition position) throws IOException {
+    VarInts.writeSignedLong(out, position.offset);
+    VarInts.writeUnsignedInt(out, position.length);
+    VarInts.writeUnsignedInt(out, position.logicalLength);
+  }
+
+  private static byte[] encodeHead(GameState state) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new HeadOutputStream(bytes, state.getHero().getLocation())) {
+      out.writeObject(state);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static GameState decodeHead(byte[] bytes) throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new HeadInputStream(new ByteArrayInputStream(bytes))) {
+      return (GameState) in.readObject();
+    } catch (InvalidClassException exception) {
+      // The head was written by a version of the game whose classes were serialized differently.
+      throw new UnsupportedSaveException(exception.getMessage());
+    }
+  }
+
+  public SaveCodec getCodec() {
+    return codec;
+  }
+
+  /**
+   * Returns how many bytes the committed records of this journal would take if they were not compressed.
+   */
+  public synchronized long getLogicalLength() {
+    return logicalLength;
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  private synchronized boolean canAppendTo(File file) {
+    return !failed && this.file.equals(file.getAbsoluteFile()) && file.length() >= length;
+  }
+
+  private synchronized boolean shouldCompact() {
+    long liveRecordCount = chunkPositions.size() + 3L; // The chunks, the head, the directory, and the trailer.
+    long liveLength = HEADER_LENGTH + RECORD_HEADER_LENGTH * liveRecordCount + headPosition.length + chunkBytes;
+    return length > COMPACTION_FACTOR * (liveLength + directoryLength);
+  }
+
+  private synchronized long append(List<Record> records) throws IOException {
+    if (file.length() != length) {
+      try (RandomAccessFile access = new RandomAccessFile(file, "rw")) {
+        access.setLength(length); // Drop whatever a save that did not complete left after the last head.
+      }
+    }
+    long appended;
+    try (FileOutputStream stream = new FileOutputStream(file, true)) {
+      appended = writeRecords(new DataOutputStream(new BufferedOutputStream(stream)), records, length);
+      stream.getFD().sync();
+    }
+    length += appended;
+    return appended;
+  }
+
+  /**
+   * Writes records, the last of which is a head, followed by a directory and a trailer, and flushes the stream.
+   *
+   * @param start the offset in the file of the first byte written to the stream
+   * @return how many bytes were written
+   */
+  private long writeRecords(DataOutputStream out, List<Record> records, long start) throws IOException {
+    final long streamStart = out.size();
+    for (Record record : records) {
+      RecordPosition position = writeRecord(out, record.type, record.key, record.bytes, start + out.size());
+      if (record.type == HEAD) {
+        headPosition = position;
+      } else {
+        RecordPosition previousPosition = chunkPositions.put(record.key, position);
+        chunkBytes += position.length - (previousPosition == null ? 0 : previousPosition.length);
+      }
+    }
+    long directory = start + out.size();
+    directoryLength = writeRecord(out, DIRECTORY, 0, encodeDirectory(), directory).length;
+    out.writeByte(TRAILER);
+    out.writeLong(directory);
+    out.writeInt(0);
+    out.writeInt(0);
+    logicalLength += RECORD_HEADER_LENGTH;
+    out.flush();
+    return out.size() - streamStart;
+  }
+
+  /**
+   * Compresses and writes a record.
+   *
+   * @param offset the offset in the file at which the record starts
+   * @return the position of the payload of the record
+   */
+  private RecordPosition writeRecord(DataOutputStream out, byte type, long key, byte[] bytes, long offset)
+      throws IOException {
+    byte[] compressed = codec.compress(bytes);
+    out.writeByte(type);
+    out.writeLong(key);
+    out.writeInt(compressed.length);
+    out.writeInt(bytes.length);
+    out.write(compressed);
+    logicalLength += RECORD_HEADER_LENGTH + bytes.length;
+    return new RecordPosition(offset + RECORD_HEADER_LENGTH, compressed.length, bytes.length);
+  }
+
+  private byte[] encodeDirectory() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      writePosition(out, headPosition);
+      VarInts.writeSignedLong(out, logicalLength);
+      VarInts.writeUnsignedInt(out, chunkPositions.size());
+      for (long key : chunkPositions.keys()) {
+        out.writeLong(key);
+        writePosition(out, chunkPositions.get(key));
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private enum Token {
+    LOCATION
+  }
+
+  /**
+   * Thrown when a save was written by a version of the game whose saves cannot be loaded anymore.
+   */
+  public static class UnsupportedSaveException extends IOException {
+
+    UnsupportedSaveException(String message) {
+      super(message);
+    }
+
+  }
+
+  /**
+   * The records of a save that has been prepared but not written.
+   */
+  public static final class Snapshot {
+
+    private final SaveJournal journal;
+    private final boolean appending;
+    private final List<Record> records;
+
+    private Snapshot(SaveJournal journal, boolean appending, List<Record> records) {
+      this.journal = journal;
+      this.appending = appending;
+      this.records = records;
+    }
+
+    public SaveJournal getJournal() {
+      return journal;
+    }
+
+    /**
+     * Compresses and writes the records to the file, appending to it or replacing it atomically, and waits until they
+     * are on the storage device. This method may be called on any thread, but only once.
+     *
+     * @return how many bytes were written
+     */
+    public long write() throws IOException {
+      try {
+        return appending ? journal.append(records) : journal.compact(records);
+      } catch (IOException exception) {
+        journal.failed = true;
+        throw exception;
+      }
+    }
+
+  }
+
+  /**
+   * Reads the chunks of a save from a journal. Should only be used by one thread.
+   *
+   * <p>The file is not memory-mapped. A mapping cannot be released explicitly and, while it is alive, Windows refuses
+   * to truncate the file, which appending does, or to replace it, which compacting does. Instead, the file is opened
+   * for each chunk and closed right after it, so that it is never open while a save appends to it or replaces it.
+   * Appending only truncates what was written after the last head, so the chunks stay where they are.
+   */
+  private static final class JournalChunkSource implements ChunkedLocationStore.ChunkSource {
+
+    private final Path path;
+    private final SaveCodec codec;
+    private final LongMap<RecordPosition> positions;
+
+    JournalChunkSource(File file, SaveCodec codec, LongMap<RecordPosition> positions) {
+      this.path = file.toPath();
+      this.codec = codec;
+      this.positions = new LongMap<>(positions);
+    }
+
+    @Override
+    public int size() {
+      return positions.size();
+    }
+
+    @Override
+    public boolean contains(long key) {
+      return positions.containsKey(key);
+    }
+
+    @Override
+    public boolean isReadFrom(File file) {
+      return path.equals(file.getAbsoluteFile().toPath());
+    }
+
+    @Override
+    public long[] keys() {
+      return positions.keys();
+    }
+
+    @Override
+    public byte[] read(long key) throws IOException {
+      RecordPosition position = positions.get(key);
+      if (position == null) {
+        throw new IOException("there is no chunk with the key " + key + " in the save.");
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(position.length);
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        while (buffer.hasRemaining()) {
+          if (channel.read(buffer, position.offset + buffer.position()) == -1) {
+            throw new EOFException("the chunk with the key " + key + " is past the end of the save.");
+          }
+        }
+      }
+      return codec.decompress(buffer.array(), position.logicalLength);
+    }
+
+    @Override
+    public void remove(long key) {
+      positions.remove(key);
+    }
+
+  }
+
+  private static final class Record {
+
+    private final byte type;
+    private final long key;
+    private final byte[] bytes;
+
+    Record(byte type, long key, byte[] bytes) {
+      this.type = type;
+      this.key = key;
+      this.bytes = bytes;
+    }
+
+  }
+
+  private static final class RecordPosition {
+
+    private final long offset;
+    private final int length;
+    private final int logicalLength;
+
+    RecordPosition(long offset, int length, int logicalLength) {
+      this.offset = offset;
+      this.length = length;
+      this.logicalLength = logicalLength;
+    }
+
+  }
+
+  /**
+   * Writes a GameState without its chunks. The only Location it should reach is the one of the Hero, which is replaced
+   * by a token and attached back after loading. Any other Location could not be attached back, so it fails the save.
+   */
+  private static final class HeadOutputStream extends ObjectOutputStream {
+
+    private final Location heroLocation;
+
+    HeadOutputStream(OutputStream out, Location heroLocation) throws IOException {
+      super(out);
+      this.heroLocation = heroLocation;
+      enableReplaceObject(true);
+    }
+
+    @Override
+    protected Object replaceObject(Object object) throws IOException {
+      if (object == heroLocation) {
+        return Token.LOCATION;
+      } else if (object instanceof Location) {
+        throw new NotSerializableException("the head of a save should not reach " + object + ".");
+      }
+      return object;
+    }
+
+  }
+
+  private static final class HeadInputStream extends ObjectInputStream {
+
+    HeadInputStream(InputStream in) throws IOException {
+      super(in);
+      enableResolveObject(true);
+    }
+
+    @Override
+    protected Object resolveObject(Object object) {
+      return object == Token.LOCATION ? null : object;
+    }
+
+  }
+
+}
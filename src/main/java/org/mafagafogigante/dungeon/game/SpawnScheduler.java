@@ -0,0 +1,112 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Schedules the spawns of the active Spawners of a World by world time, so that only the Spawners that are due are
+ * touched when time passes.
+ *
+ * <p>The Spawners of a Location become active when the Hero is in it, and keep spawning after the Hero leaves while
+ * their Location is in memory. The other Spawners do nothing until they become active, when they spawn everything they
+ * should have spawned since their last change. As Creatures only die where the Hero is, both ways lead to the same
+ * Creatures, but this one does not modify, and therefore does not make the game save, Locations the Hero never saw.
+ *
+ * <p>Spawners whose population is at its limit are not in the queue. They are scheduled again when one of their
+ * Creatures is removed from their Location.
+ */
+final class SpawnScheduler {
+
+  private final PriorityQueue<Event> queue = new PriorityQueue<>();
+  // Orders the Events of the same time by the order in which they were scheduled.
+  private long sequence;
+
+  /**
+   * Activates the Spawners of a Location that are not active yet.
+   */
+  void activate(@NotNull Location location) {
+    for (Spawner spawner : location.getSpawners()) {
+      if (!spawner.isActive()) {
+        spawner.setActive(true);
+        schedule(spawner);
+      }
+    }
+  }
+
+  /**
+   * Schedules the next spawn of an active Spawner, unless it is already scheduled or its population is at its limit.
+   */
+  void schedule(@NotNull Spawner spawner) {
+    if (spawner.isActive() && !spawner.isScheduled() && spawner.canSpawn()) {
+      spawner.setScheduled(true);
+      queue.add(new Event(spawner.getNextSpawnTime(), sequence++, spawner));
+    }
+  }
+
+  /**
+   * Spawns every Creature that should have spawned up to the specified time. Each due Spawner is polled once, however
+   * many Creatures it spawns.
+   *
+   * @param time the world time, in milliseconds
+   */
+  void spawnUntil(long time) {
+    while (!queue.isEmpty() && queue.peek().time <= time) {
+      Spawner spawner = queue.poll().spawner;
+      spawner.setScheduled(false);
+      // The Event may be older than the last change of the Spawner, in which case it is just scheduled again.
+      spawner.spawnUntil(time);
+      schedule(spawner);
+    }
+  }
+
+  /**
+   * Deactivates the Spawners of the Locations that are no longer in memory, so that they can be collected.
+   */
+  void retainResident(@NotNull ChunkedLocationStore locations) {
+    List<Event> retained = new ArrayList<>(queue.size());
+    for (Event event : queue) {
+      Point point = event.spawner.getLocation().getPoint();
+      if (locations.isResident(point.getX(), point.getY(), point.getZ())) {
+        retained.add(event);
+      } else {
+        event.spawner.setActive(false);
+        event.spawner.setScheduled(false);
+      }
+    }
+    queue.clear();
+    queue.addAll(retained);
+  }
+
+  /**
+   * Returns how many Spawners are scheduled.
+   */
+  int size() {
+    return queue.size();
+  }
+
+  private static final class Event implements Comparable<Event> {
+
+    private final long time;
+    private final long sequence;
+    private final Spawner spawner;
+
+    Event(long time, long sequence, Spawner spawner) {
+      this.time = time;
+      this.sequence = sequence;
+      this.spawner = spawner;
+    }
+
+    @Override
+    public int compareTo(@NotNull Event event) {
+      if (time != event.time) {
+        return time < event.time ? -1 : 1;
+      }
+      return sequence < event.sequence ? -1 : sequence == event.sequence ? 0 : 1;
+    }
+
+  }
+
+}
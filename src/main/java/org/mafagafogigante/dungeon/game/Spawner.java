@@ -8,6 +8,8 @@ import java.io.Serializable;
 
 /**
  * Spawner class that repopulates locations.
+ *
+ * <p>Spawners are driven by the SpawnScheduler of their World.
  */
 class Spawner implements Serializable {
 
@@ -18,6 +20,9 @@ class Spawner implements Serializable {
   private final Location location;
   // A change can be either the spawn of a creature or the end of the population limit.
   private long lastChange;
+  // Whether the SpawnScheduler of the World manages this Spawner and whether it has a pending spawn in it.
+  private transient boolean active;
+  private transient boolean scheduled;
 
   public Spawner(SpawnerPreset preset, Location location) {
     id = preset.id;
@@ -28,24 +33,83 @@ class Spawner implements Serializable {
   }
 
   /**
-   * Refresh the spawner, spawning all creatures that should have spawned since the last spawn.
+   * Constructs a Spawner that was saved from its preset, its population limit, and the time of its last change.
+   */
+  Spawner(SpawnerPreset preset, Location location, int populationLimit, long lastChange) {
+    this.id = preset.id;
+    this.populationLimit = populationLimit;
+    this.spawnDelay = preset.spawnDelay;
+    this.location = location;
+    this.lastChange = lastChange;
+  }
+
+  int getPopulationLimit() {
+    return populationLimit;
+  }
+
+  long getLastChange() {
+    return lastChange;
+  }
+
+  Location getLocation() {
+    return location;
+  }
+
+  boolean isActive() {
+    return active;
+  }
+
+  void setActive(boolean active) {
+    this.active = active;
+  }
+
+  boolean isScheduled() {
+    return scheduled;
+  }
+
+  void setScheduled(boolean scheduled) {
+    this.scheduled = scheduled;
+  }
+
+  /**
+   * Returns the world time, in milliseconds, at which the next creature should spawn if the population is below its
+   * limit.
+   */
+  long getNextSpawnTime() {
+    return lastChange + spawnDelay;
+  }
+
+  /**
+   * Returns whether or not the population of this spawner is below its limit.
+   */
+  boolean canSpawn() {
+    return location.getCreatureCount(id) < populationLimit;
+  }
+
+  /**
+   * Spawns every creature that should have spawned up to the specified time, as if each had spawned just when it should
+   * have. How many is computed at once, so this takes as long after a long time skip as after a short one.
    *
-   * <p>Only spawners in locations whose creatures are visible to the player should be refreshed.
+   * @param time the world time, in milliseconds
    */
-  public void refresh() {
-    long worldTime = getWorldTime();
-    while (worldTime - lastChange >= spawnDelay && location.getCreatureCount(id) < populationLimit) {
-      World world = location.getWorld();
+  void spawnUntil(long time) {
+    if (time - lastChange < spawnDelay) {
+      return;
+    }
+    long due = (time - lastChange) / spawnDelay;
+    int missing = Math.max(0, populationLimit - location.getCreatureCount(id));
+    int spawns = (int) Math.min(due, missing);
+    World world = location.getWorld();
+    for (int i = 0; i < spawns; i++) {
       Creature creature = world.getCreatureFactory().makeCreature(id, world);
       if (creature != null) {
         location.addCreature(creature);
       } else {
         DungeonLogger.warning("Could not find the creature preset for " + id + ".");
       }
-      // Simulate that the creature was spawned just when it should have been.
-      // Do not prevent this modification if making the creature was unsuccessful to avoid an infinite loop.
-      lastChange += spawnDelay;
     }
+    // Do not prevent this modification if making the creatures was unsuccessful to avoid spawning them forever.
+    lastChange += spawns * (long) spawnDelay;
   }
 
   /**
@@ -0,0 +1,76 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.io.Version;
+
+import java.io.Serializable;
+
+/**
+ * A SplitMix64 pseudorandom number generator, whose whole state is a single long.
+ *
+ * <p>Independent generators can be derived from a seed and any key, such as the key of a chunk, so that what each of
+ * them produces does not depend on the order in which the others are used.
+ */
+final class SplitMix64 implements Serializable {
+
+  private static final long serialVersionUID = Version.MAJOR;
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+  private long state;
+
+  SplitMix64(long seed) {
+    this.state = seed;
+  }
+
+  /**
+   * Returns the seed of the generator derived from the specified seed for the specified key.
+   */
+  static long derive(long seed, long key) {
+    return mix(seed ^ mix(key + GOLDEN_GAMMA));
+  }
+
+  private static long mix(long value) {
+    long mixed = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+    mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+    return mixed ^ (mixed >>> 31);
+  }
+
+  private static double toDouble(long value) {
+    return (value >>> 11) * DOUBLE_UNIT;
+  }
+
+  long nextLong() {
+    state += GOLDEN_GAMMA;
+    return mix(state);
+  }
+
+  /**
+   * Returns a pseudorandom, uniformly distributed int value between 0 (inclusive) and the specified value (exclusive).
+   */
+  int nextInt(int bound) {
+    if (bound <= 0) {
+      throw new IllegalArgumentException("bound must be positive.");
+    }
+    return (int) (((nextLong() >>> 33) * bound) >>> 31);
+  }
+
+  /**
+   * Returns the first double that a generator with the specified seed would return from nextDouble, without making the
+   * generator.
+   */
+  static double nextDouble(long seed) {
+    return toDouble(mix(seed + GOLDEN_GAMMA));
+  }
+
+  /**
+   * Returns a pseudorandom, uniformly distributed double value between 0 (inclusive) and 1 (exclusive).
+   */
+  double nextDouble() {
+    return toDouble(nextLong());
+  }
+
+  boolean nextBoolean() {
+    return nextLong() < 0;
+  }
+
+}
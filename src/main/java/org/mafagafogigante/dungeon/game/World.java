@@ -22,9 +22,9 @@ import org.mafagafogigante.dungeon.world.Weather;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * A complete world, with a generator, entity factories, a map, a date, and statistics.
@@ -32,13 +32,23 @@ import java.util.Map;
 public class World implements Serializable {
 
   private static final long serialVersionUID = Version.MAJOR;
-  private final WorldGenerator generator = new WorldGenerator(this);
+
+  // How many chunks around the Hero are always kept in memory and how many chunks are allowed in memory before the
+  // ones outside of that square are evicted to disk.
+  private static final int RESIDENT_CHUNK_RADIUS = 12;
+  private static final int RESIDENT_CHUNK_LIMIT = 2 * (2 * RESIDENT_CHUNK_RADIUS + 1) * (2 * RESIDENT_CHUNK_RADIUS + 1);
+  // How many chunks around the Hero are generated in advance. Should be smaller than the resident radius.
+  private static final int PREGENERATION_RADIUS = 3;
+
+  private final WorldGenerator generator;
 
   // Each world should have its own factories because their limitations and characteristics are not meant to be shared.
   private final CreatureFactory creatureFactory;
   private final ItemFactory itemFactory;
 
-  private final Map<Point, Location> locations = new HashMap<>();
+  private final ChunkedLocationStore locations;
+  // Only schedules Locations that are in memory, so it is not saved.
+  private transient SpawnScheduler spawnScheduler;
 
   private final WorldStatistics worldStatistics;
 
@@ -53,6 +63,18 @@ public class World implements Serializable {
    * @param statistics a WorldStatistics object on which this World will record its status
    */
   public World(WorldStatistics statistics) {
+    this(statistics, Random.makeSeed());
+  }
+
+  /**
+   * Creates a new World whose Locations are generated from the specified seed.
+   *
+   * @param statistics a WorldStatistics object on which this World will record its status
+   * @param seed the seed of the WorldGenerator
+   */
+  World(WorldStatistics statistics, long seed) {
+    generator = new WorldGenerator(this, seed);
+    locations = new ChunkedLocationStore(this, generator.getChunkSide());
     worldStatistics = statistics;
 
     String creaturesFilename = ResourceNameResolver.resolveName(DungeonResource.CREATURES);
@@ -94,7 +116,7 @@ public class World implements Serializable {
    * Adds a Location to this World.
    */
   void addLocation(Location locationObject, Point coordinates) {
-    if (locations.containsKey(coordinates)) {
+    if (alreadyHasLocationAt(coordinates)) {
       throw new IllegalStateException("tried to repeatedly add a location to " + coordinates + ".");
     }
     if (!locationObject.getWorld().equals(this)) {
@@ -105,10 +127,47 @@ public class World implements Serializable {
       Point point = locationObject.getPoint();
       throw new IllegalStateException("tried to add location with Point field " + point + " to " + coordinates + ".");
     }
-    locations.put(coordinates, locationObject);
+    locations.put(locationObject);
     worldStatistics.addLocation(locationObject.getName().getSingular());
   }
 
+  /**
+   * Adds a chunk made by the WorldGenerator to this World.
+   */
+  void addChunk(long key, @NotNull LocationChunk chunk) {
+    locations.putChunk(key, chunk);
+    for (int offsetX = 0; offsetX < chunk.getChunkSide(); offsetX++) {
+      for (int offsetY = 0; offsetY < chunk.getChunkSide(); offsetY++) {
+        Location location = chunk.get(offsetX, offsetY);
+        if (location != null) {
+          worldStatistics.addLocation(location.getName().getSingular());
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns whether or not the chunk with the specified key was generated, without reading it into memory.
+   */
+  boolean hasChunk(long key) {
+    return locations.containsChunk(key);
+  }
+
+  /**
+   * Starts generating, in the background, the chunks around the specified Point that were not generated yet. Should be
+   * invoked after the Hero moves, so that the chunks the Hero could reach next are ready before they are requested.
+   */
+  public void pregenerateAround(@NotNull Point point) {
+    generator.pregenerateAround(point, PREGENERATION_RADIUS);
+  }
+
+  /**
+   * Generates again a chunk that was generated at the specified date and was not modified since.
+   */
+  LocationChunk regenerateChunk(long key, @NotNull Date generationDate) {
+    return generator.regenerate(key, generationDate);
+  }
+
   /**
    * Gets the Location in the specified Point. If the Location in the Point has not yet been created, the world
    * generator will do it.
@@ -118,10 +177,101 @@ public class World implements Serializable {
    */
   @NotNull
   public Location getLocation(@NotNull Point point) {
-    if (!locations.containsKey(point)) {
+    Location location = locations.get(point.getX(), point.getY(), point.getZ());
+    if (location == null) {
       generator.expand(point);
+      location = locations.get(point.getX(), point.getY(), point.getZ());
+    }
+    return location;
+  }
+
+  /**
+   * Records that the Location at the specified Point changed, so that it is written by the next save.
+   */
+  void markLocationModified(@NotNull Point point) {
+    locations.markDirty(point.getX(), point.getY(), point.getZ());
+  }
+
+  /**
+   * Starts a new epoch of the Locations of this World. Should be invoked after the chunks of a save were written.
+   *
+   * @return the epoch that ended
+   */
+  long advanceEpoch() {
+    return locations.advanceEpoch();
+  }
+
+  /**
+   * Writes the chunks of this World that changed after the specified epoch to the specified sink, as they should be
+   * written to a save.
+   */
+  void writeChunks(ChunkedLocationStore.ChunkSink sink, long sinceEpoch) throws IOException {
+    locations.writeChunks(sink, sinceEpoch);
+  }
+
+  /**
+   * Returns how many chunks of this World are in memory.
+   */
+  int getResidentChunkCount() {
+    return locations.getResidentChunkCount();
+  }
+
+  /**
+   * Makes the chunks of a save available to this World, which reads them when their Locations are requested.
+   */
+  void attachSavedChunks(@NotNull ChunkedLocationStore.ChunkSource source) {
+    locations.attachSavedChunks(source);
+  }
+
+  /**
+   * Moves the chunks that are still in the save this World was loaded from to disk if it is the specified file, so that
+   * the file may be replaced.
+   */
+  void detachSavedChunks(@NotNull File file) throws IOException {
+    locations.detachSavedChunks(file);
+  }
+
+  private SpawnScheduler getSpawnScheduler() {
+    if (spawnScheduler == null) {
+      spawnScheduler = new SpawnScheduler();
+    }
+    return spawnScheduler;
+  }
+
+  /**
+   * Activates the Spawners of the Location the Hero is in and spawns every Creature that is due in the Locations whose
+   * Spawners are active.
+   */
+  void refreshSpawners(@NotNull Location heroLocation) {
+    getSpawnScheduler().activate(heroLocation);
+    getSpawnScheduler().spawnUntil(worldDate.getTime());
+  }
+
+  /**
+   * Schedules the Spawners of a Location whose population may have dropped below its limit.
+   */
+  void scheduleSpawners(@NotNull Location location) {
+    for (Spawner spawner : location.getSpawners()) {
+      getSpawnScheduler().schedule(spawner);
+    }
+  }
+
+  /**
+   * Evicts the chunks far from the specified Point to disk if there are too many chunks in memory.
+   *
+   * <p>Evicted Locations are reloaded when they are requested again, so the Point should be the position of the Hero,
+   * whose Location must never be evicted.
+   */
+  void releaseChunksFarFrom(@NotNull Point point) {
+    if (getResidentChunkCount() > RESIDENT_CHUNK_LIMIT) {
+      try {
+        int evicted = locations.evictChunksFarFrom(point.getX(), point.getY(), RESIDENT_CHUNK_RADIUS);
+        getSpawnScheduler().retainResident(locations);
+        DungeonLogger.fine("Evicted " + evicted + " chunks to disk.");
+      } catch (IOException exception) {
+        DungeonLogger.logSevere(exception);
+      }
     }
-    return locations.get(point);
   }
 
   /**
@@ -168,7 +318,14 @@ public class World implements Serializable {
    * WorldGenerator.
    */
   public boolean alreadyHasLocationAt(Point point) {
-    return locations.containsKey(point);
+    return alreadyHasLocationAt(point.getX(), point.getY(), point.getZ());
+  }
+
+  /**
+   * Checks if there is already a location at the specified coordinates without allocating a Point.
+   */
+  boolean alreadyHasLocationAt(int x, int y, int z) {
+    return locations.contains(x, y, z);
   }
 
 }
@@ -1,14 +1,28 @@
 package org.mafagafogigante.dungeon.game;
 
+import org.mafagafogigante.dungeon.date.Date;
+import org.mafagafogigante.dungeon.game.GenerationProfile.Placement;
 import org.mafagafogigante.dungeon.game.LocationPreset.Type;
 import org.mafagafogigante.dungeon.io.Version;
 
 import org.jetbrains.annotations.NotNull;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The world generator. This class should be instantiated by a World object.
+ *
+ * <p>Locations are generated from seeded sequences derived from the seed of the World and the key of their chunk, and
+ * the rivers and dungeons they have only depend on the seed, so a chunk is a function of the seed, of its position, and
+ * of the date it was generated at, except for unique items, which only the first Location committed to the World with
+ * them gets. Chunks that did not create a dungeon nor a unique item can therefore be generated again from that date,
+ * which is all that needs to be saved of them while they are not modified.
+ *
+ * <p>Generating a chunk does not register its unique items in the ItemFactory of the World. They are registered when
+ * the chunk is committed, so that chunks that are never committed, such as chunks generated in advance that were not
+ * committed before the World was saved, do not keep the items they rolled from being made.
  */
 class WorldGenerator implements Serializable {
 
@@ -16,76 +30,246 @@ class WorldGenerator implements Serializable {
   private static final int DEFAULT_CHUNK_SIDE = 5;
 
   private final World world;
+  private final long seed;
   private final RiverGenerator riverGenerator;
-  private final DungeonDistributor dungeonDistributor = new DungeonDistributor();
-  private final DungeonCreator dungeonCreator = new DungeonCreator(dungeonDistributor);
+  private final DungeonDistributor dungeonDistributor;
+  private final DungeonCreator dungeonCreator;
   private final int chunkSide;
 
-  WorldGenerator(World world) {
+  // Created on demand, as it is not saved.
+  private transient ChunkPregenerator pregenerator;
+  // Only set to measure the generator, as it is not synchronized.
+  private transient GenerationProfile profile;
+
+  WorldGenerator(World world, long seed) {
     this.world = world;
-    this.riverGenerator = new RiverGenerator();
+    this.seed = seed;
+    this.riverGenerator = new RiverGenerator(SplitMix64.derive(seed, 1));
+    this.dungeonDistributor = new DungeonDistributor(SplitMix64.derive(seed, 2));
+    this.dungeonCreator = new DungeonCreator();
     this.chunkSide = WorldGenerator.DEFAULT_CHUNK_SIDE;
   }
 
   /**
-   * Retrieves a random LocationPreset whose type is "Land".
-   *
-   * @return a LocationPreset
+   * Retrieves a random LocationPreset of the specified type.
    */
-  private static LocationPreset getRandomLandLocationPreset() {
-    LocationPresetStore locationPresetStore = LocationPresetStore.getDefaultLocationPresetStore();
-    return Random.select(locationPresetStore.getLocationPresetsByType(Type.LAND));
+  private static LocationPreset getRandomLocationPreset(Type type) {
+    return Random.select(LocationPresetStore.getDefaultLocationPresetStore().getLocationPresetsByType(type));
   }
 
-  private Location createRandomRiverLocation(@NotNull final Point point) {
-    LocationPresetStore locationPresetStore = LocationPresetStore.getDefaultLocationPresetStore();
-    return new Location(Random.select(locationPresetStore.getLocationPresetsByType(Type.RIVER)), world, point);
+  int getChunkSide() {
+    return chunkSide;
   }
 
-  private Location createRandomBridgeLocation(@NotNull final Point point) {
-    LocationPresetStore locationPresetStore = LocationPresetStore.getDefaultLocationPresetStore();
-    return new Location(Random.select(locationPresetStore.getLocationPresetsByType(Type.BRIDGE)), world, point);
+  /**
+   * Makes this generator record how long it takes to place each kind of Location in the specified profile. Chunks must
+   * not be generated in advance while the profile is set.
+   */
+  void setProfile(GenerationProfile profile) {
+    this.profile = profile;
   }
 
-  private Location createRiversideLocation(@NotNull final Point point) {
-    LocationPresetStore locationPresetStore = LocationPresetStore.getDefaultLocationPresetStore();
-    return new Location(Random.select(locationPresetStore.getLocationPresetsByType(Type.RIVERSIDE)), world, point);
+  private GenerationProfile getProfile() {
+    return profile == null ? GenerationProfile.DISABLED : profile;
   }
 
+  private ChunkPregenerator getPregenerator() {
+    if (pregenerator == null) {
+      pregenerator = new ChunkPregenerator(this);
+    }
+    return pregenerator;
+  }
+
+  /**
+   * Generates the chunk at altitude zero that contains the specified point, if it was not generated yet.
+   *
+   * <p>If the chunk is being generated in advance, this waits for it instead.
+   */
   public void expand(Point point) {
-    riverGenerator.expand(point, chunkSide);
-    Point currentPoint;
-    LocationPreset currentLocationPreset = null;
-    int remainingLocationsOfCurrentPreset = 0;
-    int pX = point.getX();
-    int pY = point.getY();
+    commitPregeneratedChunks();
+    int chunkX = ChunkedLocationStore.toChunkCoordinate(point.getX(), chunkSide);
+    int chunkY = ChunkedLocationStore.toChunkCoordinate(point.getY(), chunkSide);
+    long key = ChunkedLocationStore.makeChunkKey(chunkX, chunkY, 0);
+    if (world.hasChunk(key)) {
+      return; // Happens when a point below a generated chunk is requested.
+    }
+    GeneratedChunk generated = getPregenerator().await(key);
+    commit(generated == null ? generate(key, world.getWorldDate()) : generated);
+  }
+
+  /**
+   * Starts generating, on other threads, the chunks at altitude zero around the specified point that were not generated
+   * yet, so that they are ready by the time they are requested. Commits the chunks that were generated since the last
+   * invocation.
+   *
+   * @param point the point around which chunks are generated
+   * @param radius how many chunks around the chunk of the point are generated in each direction
+   */
+  void pregenerateAround(Point point, int radius) {
+    commitPregeneratedChunks();
+    int centerX = ChunkedLocationStore.toChunkCoordinate(point.getX(), chunkSide);
+    int centerY = ChunkedLocationStore.toChunkCoordinate(point.getY(), chunkSide);
+    for (int chunkX = centerX - radius; chunkX <= centerX + radius; chunkX++) {
+      for (int chunkY = centerY - radius; chunkY <= centerY + radius; chunkY++) {
+        long key = ChunkedLocationStore.makeChunkKey(chunkX, chunkY, 0);
+        if (!world.hasChunk(key)) {
+          getPregenerator().submit(key, world.getWorldDate());
+        }
+      }
+    }
+  }
+
+  private void commitPregeneratedChunks() {
+    if (pregenerator != null) {
+      for (GeneratedChunk generated : pregenerator.collectFinished()) {
+        commit(generated);
+      }
+    }
+  }
+
+  /**
+   * Adds a generated chunk and the dungeons it created to the World. Should only be invoked on the thread that owns the
+   * World.
+   */
+  private void commit(GeneratedChunk generated) {
+    for (Location location : generated.uniqueItemLocations) {
+      location.registerUniqueItems();
+    }
+    world.addChunk(generated.key, generated.chunk);
+    for (Location location : generated.dungeonLocations) {
+      if (location.getPoint().getZ() == 0) {
+        dungeonDistributor.registerDungeonEntrance(location.getPoint());
+      } else {
+        world.addLocation(location, location.getPoint());
+      }
+    }
+  }
+
+  /**
+   * Generates again a chunk that was generated at the specified date and was not modified since.
+   *
+   * @throws IllegalStateException if the chunk creates a dungeon, which means that it cannot be generated again
+   */
+  LocationChunk regenerate(long key, @NotNull Date date) {
+    GeneratedChunk generated = generate(key, date);
+    if (!generated.isRegenerable()) {
+      int chunkX = ChunkedLocationStore.getChunkX(key);
+      int chunkY = ChunkedLocationStore.getChunkY(key);
+      throw new IllegalStateException("cannot generate chunk " + chunkX + ", " + chunkY + " again.");
+    }
+    return generated.chunk;
+  }
+
+  /**
+   * Generates a chunk at altitude zero without changing the World, so that this may run on any thread.
+   *
+   * @param key the key of the chunk
+   * @param date the creation date of the items of the chunk
+   */
+  GeneratedChunk generate(long key, @NotNull Date date) {
     // Get the closest smaller chunkSide multiple of x and y.
     // For instance, if chunkSide == 5, x == -2 and y == 1, then it makes xStart == -5 and yStart == 0.
-    int xStart = pX < 0 ? chunkSide * (((pX + 1) / chunkSide) - 1) : chunkSide * (pX / chunkSide);
-    int yStart = pY < 0 ? chunkSide * (((pY + 1) / chunkSide) - 1) : chunkSide * (pY / chunkSide);
-    for (int x = xStart; x < xStart + chunkSide; x++) {
-      for (int y = yStart; y < yStart + chunkSide; y++) {
-        currentPoint = new Point(x, y, 0);
-        if (!world.alreadyHasLocationAt(currentPoint)) {
+    int xStart = chunkSide * ChunkedLocationStore.getChunkX(key);
+    int yStart = chunkSide * ChunkedLocationStore.getChunkY(key);
+    GenerationProfile profile = getProfile();
+    long lap = profile.start();
+    riverGenerator.expand(new Point(xStart, yStart, 0), chunkSide);
+    lap = profile.record(Placement.RIVER, lap, 0);
+    LocationChunk chunk = new LocationChunk(chunkSide);
+    List<Location> dungeonLocations = new ArrayList<>();
+    LocationPreset currentLocationPreset = null;
+    int remainingLocationsOfCurrentPreset = 0;
+    long chunkSeed = SplitMix64.derive(seed, key);
+    try {
+      for (int x = xStart; x < xStart + chunkSide; x++) {
+        for (int y = yStart; y < yStart + chunkSide; y++) {
+          // Each Location has its own sequence, so a unique item made by one World but not by another only changes it.
+          Random.beginSeededSequence(SplitMix64.derive(chunkSeed, (x - xStart) * chunkSide + y - yStart));
+          Point currentPoint = new Point(x, y, 0);
+          Location location;
           if (riverGenerator.isRiver(currentPoint)) {
-            world.addLocation(createRandomRiverLocation(currentPoint), currentPoint);
+            location = new Location(getRandomLocationPreset(Type.RIVER), world, currentPoint, date);
+            lap = profile.record(Placement.RIVER, lap, 1);
           } else if (riverGenerator.isBridge(currentPoint)) {
-            world.addLocation(createRandomBridgeLocation(currentPoint), currentPoint);
+            location = new Location(getRandomLocationPreset(Type.BRIDGE), world, currentPoint, date);
+            lap = profile.record(Placement.RIVER, lap, 1);
           } else if (riverGenerator.isRiverside(currentPoint)) {
-            world.addLocation(createRiversideLocation(currentPoint), currentPoint);
+            location = new Location(getRandomLocationPreset(Type.RIVERSIDE), world, currentPoint, date);
+            lap = profile.record(Placement.RIVER, lap, 1);
           } else if (dungeonDistributor.rollForDungeon(currentPoint)) {
-            dungeonCreator.createDungeon(world, currentPoint);
+            List<Location> dungeon = dungeonCreator.createDungeon(world, currentPoint, date);
+            dungeonLocations.addAll(dungeon);
+            location = dungeon.get(0);
+            lap = profile.record(Placement.DUNGEON, lap, dungeon.size());
           } else {
             if (currentLocationPreset == null || remainingLocationsOfCurrentPreset == 0) {
-              currentLocationPreset = getRandomLandLocationPreset();
+              currentLocationPreset = getRandomLocationPreset(Type.LAND);
               remainingLocationsOfCurrentPreset = currentLocationPreset.getBlobSize();
             }
-            world.addLocation(new Location(currentLocationPreset, world, currentPoint), currentPoint);
+            location = new Location(currentLocationPreset, world, currentPoint, date);
             remainingLocationsOfCurrentPreset--;
+            lap = profile.record(Placement.LAND, lap, 1);
           }
+          chunk.put(x - xStart, y - yStart, location);
         }
       }
+    } finally {
+      Random.endSeededSequence();
+    }
+    // Only recorded here, the unique items are registered when the chunk is committed.
+    List<Location> uniqueItemLocations = new ArrayList<>();
+    for (int offsetX = 0; offsetX < chunkSide; offsetX++) {
+      for (int offsetY = 0; offsetY < chunkSide; offsetY++) {
+        if (chunk.get(offsetX, offsetY).hasUniqueItems()) {
+          uniqueItemLocations.add(chunk.get(offsetX, offsetY));
+        }
+      }
+    }
+    for (Location location : dungeonLocations) {
+      // The entrance is in the chunk.
+      if (location.getPoint().getZ() != 0 && location.hasUniqueItems()) {
+        uniqueItemLocations.add(location);
+      }
+    }
+    GeneratedChunk generated = new GeneratedChunk(key, chunk, dungeonLocations, uniqueItemLocations);
+    if (generated.isRegenerable()) {
+      // A unique item made again would be discarded, which would not make the same chunk.
+      chunk.setGenerationDate(date);
+    }
+    return generated;
+  }
+
+  /**
+   * A chunk made by the WorldGenerator that was not added to the World yet, with the Locations of the dungeons it
+   * created, including their entrances, which are also in the chunk, and the Locations that have unique items that were
+   * not registered yet.
+   */
+  static final class GeneratedChunk {
+
+    private final long key;
+    private final LocationChunk chunk;
+    private final List<Location> dungeonLocations;
+    private final List<Location> uniqueItemLocations;
+
+    GeneratedChunk(long key, LocationChunk chunk, List<Location> dungeonLocations, List<Location> uniqueItemLocations) {
+      this.key = key;
+      this.chunk = chunk;
+      this.dungeonLocations = dungeonLocations;
+      this.uniqueItemLocations = uniqueItemLocations;
+    }
+
+    long getKey() {
+      return key;
+    }
+
+    List<Location> getUniqueItemLocations() {
+      return uniqueItemLocations;
+    }
+
+    private boolean isRegenerable() {
+      return dungeonLocations.isEmpty() && uniqueItemLocations.isEmpty();
     }
+
   }
 
 }
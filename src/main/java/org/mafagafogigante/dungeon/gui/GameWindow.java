@@ -4,6 +4,7 @@ import org.mafagafogigante.dungeon.commands.CommandHistory;
 import org.mafagafogigante.dungeon.commands.IssuedCommand;
 import org.mafagafogigante.dungeon.game.Game;
 import org.mafagafogigante.dungeon.game.GameState;
+import org.mafagafogigante.dungeon.game.GameThread;
 import org.mafagafogigante.dungeon.game.Writable;
 import org.mafagafogigante.dungeon.io.Loader;
 import org.mafagafogigante.dungeon.logging.DungeonLogger;
@@ -41,7 +42,6 @@ import javax.swing.JTextPane;
 import javax.swing.KeyStroke;
 import javax.swing.ScrollPaneConstants;
 import javax.swing.SwingUtilities;
-import javax.swing.SwingWorker;
 import javax.swing.WindowConstants;
 
 public class GameWindow extends JFrame {
@@ -168,7 +168,12 @@ public class GameWindow extends JFrame {
       public void actionPerformed(ActionEvent event) {
         if (acceptingNextCommand) {
           clearTextPane();
-          Loader.saveGame(Game.getGameState());
+          GameThread.execute(new Runnable() {
+            @Override
+            public void run() {
+              Loader.saveGame(Game.getGameState());
+            }
+          });
         }
       }
     });
@@ -288,32 +293,33 @@ public class GameWindow extends JFrame {
         // Visually accepted the command here. Start tracking time from here onwards.
         final StopWatch stopWatch = new StopWatch();
         acceptingNextCommand = false;
-        SwingWorker<Void, Void> inputRenderer = new SwingWorker<Void, Void>() {
+        // The command is added to the history on the GameThread, after this cursor is moved past the last command.
+        Game.getGameState().getCommandHistory().getCursor().moveToEnd();
+        GameThread.execute(new Runnable() {
           @Override
-          protected Void doInBackground() {
+          public void run() {
             if (IssuedCommand.isValidSource(text)) {
-              DungeonLogger.logCommandRenderingReport(text, "started doInBackGround", stopWatch);
+              DungeonLogger.logCommandRenderingReport(text, "started rendering on the GameThread", stopWatch);
               try {
                 Game.renderTurn(new IssuedCommand(text), stopWatch);
               } catch (Throwable throwable) {
                 logExecutionExceptionAndExit(throwable);
               }
-              DungeonLogger.logCommandRenderingReport(text, "finished doInBackGround", stopWatch);
+              DungeonLogger.logCommandRenderingReport(text, "finished rendering on the GameThread", stopWatch);
             } else {
               DungeonLogger.warning("Input is not a valid command source.");
             }
             acceptingNextCommand = true;
-            return null;
           }
-        };
-        inputRenderer.execute();
+        });
       }
     }
   }
 
   /**
    * Handles a key press in the text field. This method checks for a command history access by the keys UP, DOWN, or TAB
-   * and, if this is the case, processes this query.
+   * and, if this is the case, processes this query. Only the cursor and the published snapshots of the CommandHistory
+   * are used, as the GameThread may be adding a command to it.
    *
    * @param event the KeyEvent.
    */
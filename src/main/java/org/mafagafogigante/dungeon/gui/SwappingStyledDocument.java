@@ -4,7 +4,13 @@ import org.mafagafogigante.dungeon.game.ColoredString;
 import org.mafagafogigante.dungeon.game.Writable;
 import org.mafagafogigante.dungeon.logging.DungeonLogger;
 
+import java.awt.Color;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import javax.swing.JTextPane;
+import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.DefaultStyledDocument;
 import javax.swing.text.MutableAttributeSet;
@@ -23,6 +29,11 @@ import javax.swing.text.StyledDocument;
  */
 final class SwappingStyledDocument {
 
+  /**
+   * The AttributeSets of the colors of the text written so far. Only accessed on the Event Dispatch Thread.
+   */
+  private static final Map<Color, AttributeSet> attributeSets = new HashMap<>();
+
   private final JTextPane textPane;
   private StyledDocument activeDocument = new DefaultStyledDocument();
   private StyledDocument inactiveDocument = new DefaultStyledDocument();
@@ -45,18 +56,41 @@ final class SwappingStyledDocument {
     writeToDocument(inactiveDocument, writable);
   }
 
-  private void writeToDocument(StyledDocument inactiveDocument, Writable writable) {
-    for (ColoredString coloredString : writable.toColoredStringList()) {
-      MutableAttributeSet attributeSet = new SimpleAttributeSet();
-      StyleConstants.setForeground(attributeSet, coloredString.getColor());
-      try {
-        inactiveDocument.insertString(inactiveDocument.getLength(), coloredString.getString(), attributeSet);
-      } catch (BadLocationException warn) {
-        DungeonLogger.warning("insertString resulted in a BadLocationException.");
+  /**
+   * Writes a Writable to a document. Adjacent ColoredStrings of the same color are inserted at once.
+   */
+  private void writeToDocument(StyledDocument document, Writable writable) {
+    List<ColoredString> coloredStrings = writable.toColoredStringList();
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < coloredStrings.size(); i++) {
+      Color color = coloredStrings.get(i).getColor();
+      builder.append(coloredStrings.get(i).getString());
+      if (i + 1 == coloredStrings.size() || !coloredStrings.get(i + 1).getColor().equals(color)) {
+        try {
+          document.insertString(document.getLength(), builder.toString(), getAttributeSet(color));
+        } catch (BadLocationException warn) {
+          DungeonLogger.warning("insertString resulted in a BadLocationException.");
+        }
+        builder.setLength(0);
       }
     }
   }
 
+  /**
+   * Returns the AttributeSet of text of the specified color. The document copies the attributes it is given, so the
+   * same AttributeSet is used for all text of a color.
+   */
+  private static AttributeSet getAttributeSet(Color color) {
+    AttributeSet attributeSet = attributeSets.get(color);
+    if (attributeSet == null) {
+      MutableAttributeSet newAttributeSet = new SimpleAttributeSet();
+      StyleConstants.setForeground(newAttributeSet, color);
+      attributeSet = newAttributeSet;
+      attributeSets.put(color, attributeSet);
+    }
+    return attributeSet;
+  }
+
   private void swapDocuments(WritingSpecifications specifications) {
     final StyledDocument oldActiveDocument = activeDocument;
     activeDocument = inactiveDocument;
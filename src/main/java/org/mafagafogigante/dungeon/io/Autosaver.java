@@ -0,0 +1,176 @@
+package org.mafagafogigante.dungeon.io;
+
+import org.mafagafogigante.dungeon.game.GameState;
+import org.mafagafogigante.dungeon.game.SaveJournal;
+import org.mafagafogigante.dungeon.logging.DungeonLogger;
+import org.mafagafogigante.dungeon.util.StopWatch;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves the game periodically without making the player wait for it.
+ *
+ * <p>The GameState is only read while a SaveJournal.Snapshot of it is prepared, on the GameThread. The Snapshot is
+ * compressed, written, and synced on a background thread, so the player can keep issuing commands. The game is
+ * always autosaved to the autosave file, never to a file of the user. An autosave does not mark the GameState saved,
+ * so exiting still offers to save it, but it marks the GameState autosaved, so it is not autosaved again until it
+ * changes.
+ *
+ * <p>At most one save is pending at any time. Every other save and load waits for it to finish first.
+ */
+public final class Autosaver {
+
+  public static final long UNKNOWN_DURATION = -1;
+
+  private static final long INTERVAL = TimeUnit.MINUTES.toMillis(2);
+  private static final String AUTOSAVE_NAME = "autosave";
+
+  // Package-private so that tests can hold the thread that writes the saves.
+  static final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+    @Override
+    public Thread newThread(@NotNull Runnable runnable) {
+      Thread thread = new Thread(runnable, "Autosaver");
+      thread.setDaemon(true); // Game.exit waits for the pending save.
+      return thread;
+    }
+  });
+
+  private static Future<?> pendingSave;
+  private static GameState pendingState;
+  private static volatile long lastSaveMillis = System.currentTimeMillis();
+  private static volatile long lastSaveLatency = UNKNOWN_DURATION;
+  private static volatile long lastSavePause = UNKNOWN_DURATION;
+
+  private Autosaver() { // Ensure that this class cannot be instantiated.
+    throw new AssertionError();
+  }
+
+  /**
+   * Starts saving the specified GameState in the background if it changed since it was last saved or autosaved and the
+   * autosave interval has passed since the last save. Should only be invoked on the GameThread.
+   */
+  public static void autosaveIfDue(@NotNull GameState state) {
+    if (isDue(state, System.currentTimeMillis())) {
+      Loader.ensureSavesFolderExists();
+      autosaveIfDue(state, Loader.createSaveFileFromName(AUTOSAVE_NAME), System.currentTimeMillis());
+    }
+  }
+
+  /**
+   * Starts saving the specified GameState to the specified file in the background if it is due at the specified time.
+   */
+  static synchronized void autosaveIfDue(@NotNull GameState state, @NotNull final File file, long now) {
+    if (!isDue(state, now)) {
+      return;
+    }
+    final StopWatch stopWatch = new StopWatch();
+    SaveCodec codec = SaveJournal.isJournaledTo(state, file) ? state.getJournal(file).getCodec() : SaveCodec.DEFAULT;
+    final SaveJournal.Snapshot snapshot;
+    try {
+      snapshot = SaveJournal.prepare(state, file, codec);
+    } catch (IOException exception) {
+      lastSaveMillis = now; // Do not try again on every turn.
+      Writer.write("Could not autosave the game.");
+      DungeonLogger.logSevere(exception);
+      return;
+    }
+    state.setAutosaved(true);
+    pendingState = state;
+    final Version version = state.getGameVersion();
+    final long pause = stopWatch.getElapsedTime(TimeUnit.MILLISECONDS);
+    pendingSave = executor.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws IOException {
+        long written = Loader.writeSnapshot(snapshot, version);
+        recordSave(pause, stopWatch.getElapsedTime(TimeUnit.MILLISECONDS));
+        String sizeString = Converter.bytesToHuman(written);
+        DungeonLogger.info(String.format("Autosaved %s to %s in %s.", sizeString, file.getName(), stopWatch));
+        return null;
+      }
+    });
+  }
+
+  private static synchronized boolean isDue(GameState state, long now) {
+    collectPendingSave(false);
+    boolean changed = !state.isSaved() && !state.isAutosaved();
+    return pendingSave == null && changed && now - lastSaveMillis >= INTERVAL;
+  }
+
+  /**
+   * Waits until the pending save, if there is one, finishes.
+   */
+  public static synchronized void awaitPendingSave() {
+    collectPendingSave(true);
+  }
+
+  private static void collectPendingSave(boolean wait) {
+    if (pendingSave == null || (!wait && !pendingSave.isDone())) {
+      return;
+    }
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          pendingSave.get();
+          break;
+        } catch (InterruptedException exception) {
+          interrupted = true; // The save must finish before the next one starts.
+        }
+      }
+    } catch (ExecutionException exception) {
+      pendingState.setAutosaved(false); // So that the next autosave writes it again.
+      Writer.write("Could not autosave the game.");
+      DungeonLogger.logSevere(exception.getCause());
+    } finally {
+      pendingSave = null;
+      pendingState = null;
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Records the durations of a save that finished.
+   *
+   * @param pause how long the save kept the player from issuing commands, in milliseconds
+   * @param latency how long it took for the save to reach the storage device, in milliseconds
+   */
+  static void recordSave(long pause, long latency) {
+    lastSavePause = pause;
+    lastSaveLatency = latency;
+    lastSaveMillis = System.currentTimeMillis();
+  }
+
+  /**
+   * Returns the autosave interval in milliseconds.
+   */
+  public static long getInterval() {
+    return INTERVAL;
+  }
+
+  /**
+   * Returns how many milliseconds the last save took to reach the storage device or UNKNOWN_DURATION.
+   */
+  public static long getLastSaveLatency() {
+    return lastSaveLatency;
+  }
+
+  /**
+   * Returns for how many milliseconds the last save kept the player from issuing commands or UNKNOWN_DURATION.
+   */
+  public static long getLastSavePause() {
+    return lastSavePause;
+  }
+
+}
@@ -3,29 +3,30 @@ package org.mafagafogigante.dungeon.io;
 import org.mafagafogigante.dungeon.game.DungeonString;
 import org.mafagafogigante.dungeon.game.Game;
 import org.mafagafogigante.dungeon.game.GameState;
+import org.mafagafogigante.dungeon.game.SaveJournal;
 import org.mafagafogigante.dungeon.logging.DungeonLogger;
 import org.mafagafogigante.dungeon.util.Messenger;
 import org.mafagafogigante.dungeon.util.StopWatch;
+import org.mafagafogigante.dungeon.util.Utils;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JOptionPane;
 
@@ -37,9 +38,11 @@ public final class Loader {
   private static final File SAVES_FOLDER = new File("saves/");
   private static final String SAVE_EXTENSION = ".dungeon";
   private static final String VERSION_EXTENSION = ".version";
+  private static final String REGION_EXTENSION = ".region";
   private static final String DEFAULT_SAVE_NAME = "default" + SAVE_EXTENSION;
   private static final String SAVE_CONFIRM = "Do you want to save the game?";
   private static final String LOAD_CONFIRM = "Do you want to load the game?";
+  private static final String OVERWRITE_CONFIRM = "Do you want to overwrite %s?";
 
   private Loader() { // Ensure that this class cannot be instantiated.
     throw new AssertionError();
@@ -156,15 +159,33 @@ public final class Loader {
   /**
    * Saves the specified GameState, using the default save file or the one defined in the IssuedCommand.
    *
-   * <p>Only asks for confirmation if there already is a save file with the name.
+   * <p>The second argument, if present, is the name of the SaveCodec to compress the save file with. Otherwise, the
+   * save file keeps its codec if the GameState was loaded from it or saved to it and uses the default codec if it was
+   * not.
+   *
+   * <p>Only asks for confirmation if there already is a save file with the name that the GameState was not loaded from
+   * or saved to.
    */
   public static void saveGame(GameState gameState, String[] arguments) {
+    Autosaver.awaitPendingSave();
     String saveName = DEFAULT_SAVE_NAME;
     if (arguments != null && arguments.length != 0) {
       saveName = arguments[0];
     }
-    if (saveFileDoesNotExist(saveName) || confirmOperation(SAVE_CONFIRM)) {
-      saveFile(gameState, saveName);
+    File saveFile = createSaveFileFromName(saveName);
+    SaveJournal journal = gameState.getJournal(saveFile);
+    boolean ownSave = journal != null;
+    SaveCodec codec = ownSave ? journal.getCodec() : SaveCodec.DEFAULT;
+    if (arguments != null && arguments.length > 1) {
+      codec = SaveCodec.fromName(arguments[1]);
+      if (codec == null) {
+        String codecs = Utils.enumerate(EnumSet.allOf(SaveCodec.class));
+        Writer.write(String.format("%s is not a codec. The codecs are %s.", arguments[1], codecs));
+        return;
+      }
+    }
+    if (ownSave || saveFileDoesNotExist(saveName) || confirmOperation(SAVE_CONFIRM)) {
+      saveFile(gameState, saveName, codec);
     }
   }
 
@@ -184,7 +205,7 @@ public final class Loader {
    * @param name the provided filename
    * @return a File object
    */
-  private static File createSaveFileFromName(String name) {
+  static File createSaveFileFromName(String name) {
     return new File(SAVES_FOLDER, ensureFileEndsWithExtension(name, SAVE_EXTENSION));
   }
 
@@ -210,22 +231,28 @@ public final class Loader {
    * @return a GameState or {@code null} if something goes wrong.
    */
   private static GameState loadFile(File file) {
+    Autosaver.awaitPendingSave();
     StopWatch stopWatch = new StopWatch();
-    try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(file));
-         ObjectInputStream objectInputStream = new ObjectInputStream(in)) {
-      GameState loadedGameState = (GameState) objectInputStream.readObject();
+    try {
+      GameState loadedGameState = SaveJournal.load(file);
       loadedGameState.setSaved(true); // It is saved, we just loaded it (needed as it now defaults to false).
       // Update the GameState version if required.
       if (loadedGameState.getGameVersion().compareTo(Version.getCurrentVersion()) < 0) {
         loadedGameState.setGameVersion(Version.getCurrentVersion());
       }
       String sizeString = Converter.bytesToHuman(file.length());
-      DungeonLogger.info(String.format("Loaded %s in %s.", sizeString, stopWatch.toString()));
-      Writer.write(String.format("Successfully loaded the game (read %s from %s).", sizeString, file.getName()));
+      String logicalSizeString = Converter.bytesToHuman(loadedGameState.getJournal(file).getLogicalLength());
+      String format = "Opened %s (%s uncompressed) in %s.";
+      DungeonLogger.info(String.format(format, sizeString, logicalSizeString, stopWatch.toString()));
+      Writer.write(String.format("Successfully loaded the game from %s (%s).", file.getName(), sizeString));
       return loadedGameState;
     } catch (FileNotFoundException bad) { // The filed was moved or deleted.
       Writer.write("Could not find the specified saved game.");
       return null;
+    } catch (SaveJournal.UnsupportedSaveException exception) {
+      Writer.write(file.getName() + " was saved by an older version of the game, which is not supported anymore.");
+      DungeonLogger.warning(exception.getMessage());
+      return null;
     } catch (ClassNotFoundException | IOException exception) {
       Writer.write("Could not load the saved game.");
       DungeonLogger.logSevere(exception);
@@ -234,35 +261,90 @@ public final class Loader {
   }
 
   /**
-   * Serializes the specified {@code GameState} state to a file.
+   * Writes the specified {@code GameState} state to a file. If the file is the SaveJournal of the GameState and uses
+   * the specified SaveCodec, only what changed since it was last saved is written.
    *
    * @param state a GameState
    * @param name the name of the file
+   * @param codec the SaveCodec
    */
-  private static void saveFile(GameState state, String name) {
+  private static void saveFile(GameState state, String name, SaveCodec codec) {
     StopWatch stopWatch = new StopWatch();
     File saveFile = createSaveFileFromName(name);
-    File versionFile = createVersionFileFromSaveFile(saveFile);
     ensureSavesFolderExists();
-    try (BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(saveFile));
-         ObjectOutputStream objectOutputStream = new ObjectOutputStream(out)) {
-      objectOutputStream.writeObject(state);
+    try {
+      SaveJournal.Snapshot snapshot = SaveJournal.prepare(state, saveFile, codec);
       state.setSaved(true);
-      String sizeString = Converter.bytesToHuman(saveFile.length());
-      Charset charset = DungeonCharset.DEFAULT_CHARSET;
-      try (OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(versionFile), charset)) {
-        writer.write(state.getGameVersion().toString());
-        writer.append(System.lineSeparator());
-      }
+      long written = writeSnapshot(snapshot, state.getGameVersion());
+      long duration = stopWatch.getElapsedTime(TimeUnit.MILLISECONDS);
+      Autosaver.recordSave(duration, duration);
+      String sizeString = Converter.bytesToHuman(written);
       DungeonLogger.info(String.format("Saved %s in %s.", sizeString, stopWatch.toString()));
       Writer.write(String.format("Successfully saved the game (wrote %s to %s).", sizeString, saveFile.getName()));
     } catch (IOException exception) {
+      state.setSaved(false);
       Writer.write("Could not save the game.");
       DungeonLogger.logSevere(exception);
     }
   }
 
-  private static void ensureSavesFolderExists() {
+  /**
+   * Writes a SaveJournal.Snapshot and the version file of its save file. May be invoked on any thread.
+   *
+   * <p>The version file records the version of the game, the codec, and the logical length of the save file, one per
+   * line.
+   *
+   * @return how many bytes were written to the save file
+   */
+  static long writeSnapshot(SaveJournal.Snapshot snapshot, Version version) throws IOException {
+    long written = snapshot.write();
+    SaveJournal journal = snapshot.getJournal();
+    File versionFile = createVersionFileFromSaveFile(journal.getFile());
+    Charset charset = DungeonCharset.DEFAULT_CHARSET;
+    try (OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(versionFile), charset)) {
+      writer.write(version.toString());
+      writer.append(System.lineSeparator());
+      writer.write(journal.getCodec().toString());
+      writer.append(System.lineSeparator());
+      writer.write(Long.toString(journal.getLogicalLength()));
+      writer.append(System.lineSeparator());
+    }
+    return written;
+  }
+
+  /**
+   * Creates a new RegionFile in the saves folder. The file is deleted when it is closed or when the application exits.
+   */
+  public static RegionFile createRegionFile() throws IOException {
+    ensureSavesFolderExists();
+    File file = File.createTempFile("world", REGION_EXTENSION, SAVES_FOLDER);
+    file.deleteOnExit();
+    return new RegionFile(file);
+  }
+
+  /**
+   * Returns a File in the saves folder to export data to. Asks for confirmation if the file already exists.
+   *
+   * <p>This method guarantees that if null is returned, something is written to the screen.
+   *
+   * @param name the name of the file, which should not contain a path separator
+   * @return a File or null if the name is not valid or if the user does not want to overwrite the file
+   */
+  public static File createExportFile(@NotNull String name) {
+    if (name.isEmpty() || name.indexOf('/') != -1 || name.indexOf('\\') != -1) {
+      Writer.write("The name of the file should not contain a path separator.");
+      return null;
+    }
+    ensureSavesFolderExists();
+    File file = new File(SAVES_FOLDER, name);
+    if (file.exists() && !confirmOperation(String.format(OVERWRITE_CONFIRM, name))) {
+      Writer.write("Did not overwrite " + name + ".");
+      return null;
+    }
+    return file;
+  }
+
+  static void ensureSavesFolderExists() {
     if (!SAVES_FOLDER.exists()) {
       if (!SAVES_FOLDER.mkdir()) {
         Messenger.printFailedToCreateDirectoryMessage(SAVES_FOLDER.getName());
@@ -291,26 +373,41 @@ public final class Loader {
     return fileList;
   }
 
+  /**
+   * Reads the version files of the specified save files. The list has null for save files without a version file.
+   */
   @NotNull
-  static List<Version> getSavedFilesVersions(List<File> savedFiles) {
-    List<Version> versionList = new ArrayList<>();
-    char[] versionBuffer = new char[32];
+  static List<SaveMetadata> getSavedFilesMetadata(List<File> savedFiles) {
+    List<SaveMetadata> metadataList = new ArrayList<>();
     for (File saveFile : savedFiles) {
       File versionFile = createVersionFileFromSaveFile(saveFile);
       Charset charset = DungeonCharset.DEFAULT_CHARSET;
-      try (InputStreamReader reader = new InputStreamReader(new FileInputStream(versionFile), charset)) {
-        int end = reader.read(versionBuffer);
-        while (end > 1 && Character.isWhitespace(versionBuffer[end - 1])) {
-          end--;
+      try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(versionFile), charset))) {
+        String versionLine = in.readLine();
+        if (versionLine == null) {
+          throw new IOException(versionFile.getName() + " is empty.");
+        }
+        Version version = new Version(versionLine.trim());
+        String codecLine = in.readLine();
+        SaveCodec codec = codecLine == null ? null : SaveCodec.fromName(codecLine.trim());
+        String lengthLine = in.readLine();
+        long logicalLength = SaveMetadata.UNKNOWN_LENGTH;
+        if (lengthLine != null) {
+          try {
+            logicalLength = Long.parseLong(lengthLine.trim());
+          } catch (NumberFormatException ignored) {
+            // Leave the length unknown.
+          }
         }
-        versionList.add(new Version(new String(versionBuffer, 0, end)));
+        metadataList.add(new SaveMetadata(version, codec, logicalLength));
       } catch (FileNotFoundException exception) {
-        versionList.add(null);
-      } catch (IOException fatal) {
-        DungeonLogger.logSevere(fatal);
+        metadataList.add(null);
+      } catch (IOException | IllegalArgumentException exception) {
+        DungeonLogger.logSevere(exception);
+        metadataList.add(null);
       }
     }
-    return versionList;
+    return metadataList;
   }
 
   /**
@@ -0,0 +1,179 @@
+package org.mafagafogigante.dungeon.io;
+
+import org.mafagafogigante.dungeon.logging.DungeonLogger;
+import org.mafagafogigante.dungeon.util.LongMap;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A scratch file of byte records addressed by long keys.
+ *
+ * <p>Records are appended to the end of the file and located through an index kept in memory, keyed by primitive longs
+ * so that checking whether a record is here does not box its key. Overwritten and removed
+ * records leave garbage behind, which is reclaimed by compacting the file once it outweighs the live records.
+ */
+public final class RegionFile implements Closeable {
+
+  private static final long MINIMUM_GARBAGE_TO_COMPACT = 1L << 20;
+
+  private final LongMap<Record> index = new LongMap<>();
+  private final File file;
+  private RandomAccessFile access;
+  private long liveBytes;
+  private long garbageBytes;
+
+  /**
+   * Creates a RegionFile backed by the specified file. Anything in the file is discarded.
+   */
+  public RegionFile(@NotNull File file) throws IOException {
+    this.file = file;
+    this.access = new RandomAccessFile(file, "rw");
+    this.access.setLength(0);
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * Returns how many records are in this file.
+   */
+  public int size() {
+    return index.size();
+  }
+
+  /**
+   * Returns how many bytes the live records of this file take.
+   */
+  public long getLiveBytes() {
+    return liveBytes;
+  }
+
+  /**
+   * Returns a new array with the keys of the records in this file, which writing or removing records does not change.
+   */
+  public long[] keys() {
+    return index.keys();
+  }
+
+  public boolean contains(long key) {
+    return index.containsKey(key);
+  }
+
+  /**
+   * Returns the record with the specified key or null if there is no such record.
+   */
+  public byte[] read(long key) throws IOException {
+    Record record = index.get(key);
+    if (record == null) {
+      return null;
+    }
+    return readRecord(access, record);
+  }
+
+  /**
+   * Writes a record, replacing any record previously written with the same key.
+   */
+  public void write(long key, @NotNull byte[] bytes) throws IOException {
+    remove(key);
+    long offset = access.length();
+    access.seek(offset);
+    access.write(bytes);
+    index.put(key, new Record(offset, bytes.length));
+    liveBytes += bytes.length;
+  }
+
+  /**
+   * Removes the record with the specified key, if there is one.
+   */
+  public void remove(long key) throws IOException {
+    Record record = index.remove(key);
+    if (record != null) {
+      liveBytes -= record.length;
+      garbageBytes += record.length;
+      if (garbageBytes >= MINIMUM_GARBAGE_TO_COMPACT && garbageBytes > liveBytes) {
+        compact();
+      }
+    }
+  }
+
+  /**
+   * Returns the file the live records are rewritten to when this file is compacted, which is next to this file.
+   */
+  File getCompactionFile() {
+    return new File(file.getPath() + ".tmp");
+  }
+
+  /**
+   * Rewrites the live records to the compaction file and moves it over this file.
+   *
+   * <p>This file is closed before it is replaced, as open files cannot be replaced on every platform. If anything
+   * fails, this file is reopened as it was and the compaction file is deleted.
+   */
+  private void compact() throws IOException {
+    File compactionFile = getCompactionFile();
+    LongMap<Record> compactedIndex = new LongMap<>();
+    try {
+      try (RandomAccessFile compactedAccess = new RandomAccessFile(compactionFile, "rw")) {
+        compactedAccess.setLength(0);
+        for (long key : index.keys()) {
+          Record record = index.get(key);
+          long offset = compactedAccess.length();
+          compactedAccess.seek(offset);
+          compactedAccess.write(readRecord(access, record));
+          compactedIndex.put(key, new Record(offset, record.length));
+        }
+      }
+      access.close();
+      try {
+        Files.move(compactionFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        access = new RandomAccessFile(file, "rw");
+      }
+    } finally {
+      if (compactionFile.exists() && !compactionFile.delete()) {
+        DungeonLogger.warning("Could not delete " + compactionFile.getName() + ".");
+      }
+    }
+    index.putAll(compactedIndex);
+    garbageBytes = 0;
+  }
+
+  private static byte[] readRecord(RandomAccessFile access, Record record) throws IOException {
+    byte[] bytes = new byte[record.length];
+    access.seek(record.offset);
+    access.readFully(bytes);
+    return bytes;
+  }
+
+  /**
+   * Closes and deletes the underlying file.
+   */
+  @Override
+  public void close() throws IOException {
+    access.close();
+    if (!file.delete()) {
+      file.deleteOnExit();
+    }
+  }
+
+  private static final class Record {
+
+    private final long offset;
+    private final int length;
+
+    Record(long offset, int length) {
+      this.offset = offset;
+      this.length = length;
+    }
+
+  }
+
+}
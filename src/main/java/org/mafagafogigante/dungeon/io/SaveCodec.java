@@ -0,0 +1,167 @@
+package org.mafagafogigante.dungeon.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The compression codecs that save files may be written with.
+ *
+ * <p>Every codec has a stable identifier that is written to save files, so codecs may be added but their identifiers
+ * should never be reused.
+ */
+public enum SaveCodec {
+
+  NONE(0) {
+    @Override
+    public OutputStream wrap(@NotNull OutputStream out) {
+      return out;
+    }
+
+    @Override
+    public InputStream wrap(@NotNull InputStream in) {
+      return in;
+    }
+
+    @Override
+    public byte[] compress(@NotNull byte[] bytes) {
+      return bytes;
+    }
+  },
+  DEFLATE(1) {
+    @Override
+    public OutputStream wrap(@NotNull OutputStream out) {
+      final Deflater deflater = new Deflater(COMPRESSION_LEVEL);
+      return new DeflaterOutputStream(out, deflater) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            deflater.end(); // A Deflater passed to the stream is not ended when the stream is closed.
+          }
+        }
+      };
+    }
+
+    @Override
+    public InputStream wrap(@NotNull InputStream in) {
+      return new InflaterInputStream(in);
+    }
+  },
+  GZIP(2) {
+    @Override
+    public OutputStream wrap(@NotNull OutputStream out) throws IOException {
+      return new GZIPOutputStream(out) {
+        {
+          def.setLevel(COMPRESSION_LEVEL);
+        }
+      };
+    }
+
+    @Override
+    public InputStream wrap(@NotNull InputStream in) throws IOException {
+      return new GZIPInputStream(in);
+    }
+  };
+
+  public static final SaveCodec DEFAULT = DEFLATE;
+
+  /**
+   * Save files are written far more often than they are read and most of their size is removed by the fastest level.
+   */
+  private static final int COMPRESSION_LEVEL = Deflater.BEST_SPEED;
+
+  private final int identifier;
+
+  SaveCodec(int identifier) {
+    this.identifier = identifier;
+  }
+
+  /**
+   * Returns the SaveCodec with the specified identifier or null if there is no such codec.
+   */
+  @Nullable
+  public static SaveCodec fromIdentifier(int identifier) {
+    for (SaveCodec codec : values()) {
+      if (codec.identifier == identifier) {
+        return codec;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the SaveCodec with the specified name, ignoring case, or null if there is no such codec.
+   */
+  @Nullable
+  public static SaveCodec fromName(@NotNull String name) {
+    for (SaveCodec codec : values()) {
+      if (codec.toString().equalsIgnoreCase(name)) {
+        return codec;
+      }
+    }
+    return null;
+  }
+
+  public int getIdentifier() {
+    return identifier;
+  }
+
+  /**
+   * Wraps an OutputStream so that what is written to it is compressed. Closing the returned stream finishes it and
+   * closes the underlying stream.
+   */
+  public abstract OutputStream wrap(@NotNull OutputStream out) throws IOException;
+
+  /**
+   * Wraps an InputStream so that what is read from it is decompressed.
+   */
+  public abstract InputStream wrap(@NotNull InputStream in) throws IOException;
+
+  /**
+   * Compresses an array of bytes.
+   */
+  public byte[] compress(@NotNull byte[] bytes) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 2 + 32);
+    try (OutputStream out = wrap(compressed)) {
+      out.write(bytes);
+    }
+    return compressed.toByteArray();
+  }
+
+  /**
+   * Decompresses an array of bytes written by compress.
+   *
+   * @param bytes the compressed bytes
+   * @param length the length of the decompressed bytes
+   */
+  public byte[] decompress(@NotNull byte[] bytes, int length) throws IOException {
+    byte[] decompressed = new byte[length];
+    try (DataInputStream in = new DataInputStream(wrap(new ByteArrayInputStream(bytes)))) {
+      in.readFully(decompressed);
+      if (in.read() != -1) {
+        throw new IOException("decompressed data is longer than " + length + " bytes.");
+      }
+    }
+    return decompressed;
+  }
+
+  @Override
+  public String toString() {
+    return name().toLowerCase(Locale.ENGLISH);
+  }
+
+}
@@ -0,0 +1,43 @@
+package org.mafagafogigante.dungeon.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * What the version file of a save file records about it.
+ *
+ * <p>Version files written before save files were compressed only record the version, so the other fields are unknown
+ * for them.
+ */
+final class SaveMetadata {
+
+  static final long UNKNOWN_LENGTH = -1;
+
+  private final Version version;
+  private final SaveCodec codec;
+  private final long logicalLength;
+
+  SaveMetadata(@NotNull Version version, @Nullable SaveCodec codec, long logicalLength) {
+    this.version = version;
+    this.codec = codec;
+    this.logicalLength = logicalLength;
+  }
+
+  @NotNull
+  Version getVersion() {
+    return version;
+  }
+
+  @Nullable
+  SaveCodec getCodec() {
+    return codec;
+  }
+
+  /**
+   * Returns how many bytes the save file would take if it were not compressed or UNKNOWN_LENGTH.
+   */
+  long getLogicalLength() {
+    return logicalLength;
+  }
+
+}
@@ -24,32 +24,50 @@ public final class SavesTableWriter {
    */
   public static void writeSavesFolderTable() {
     List<File> files = Loader.getSavedFiles();
-    List<Version> versions = Loader.getSavedFilesVersions(files);
+    List<SaveMetadata> metadataList = Loader.getSavedFilesMetadata(files);
     if (!files.isEmpty()) {
       List<ColumnAlignment> columnAlignments = new ArrayList<>();
       columnAlignments.add(ColumnAlignment.LEFT);
       columnAlignments.add(ColumnAlignment.RIGHT);
       columnAlignments.add(ColumnAlignment.RIGHT);
       columnAlignments.add(ColumnAlignment.LEFT);
-      Table table = new Table("Name", "Size", "Version", "Last modified");
+      columnAlignments.add(ColumnAlignment.RIGHT);
+      columnAlignments.add(ColumnAlignment.LEFT);
+      Table table = new Table("Name", "Size", "Logical size", "Codec", "Version", "Last modified");
       table.setColumnAlignments(columnAlignments);
       int fileCount = 0;
-      int byteCount = 0;
+      long byteCount = 0;
+      long logicalByteCount = 0;
       final SimpleDateFormat lastModifiedFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
       for (int i = 0; i < files.size(); i++) {
         File file = files.get(i);
-        Version version = versions.get(i);
+        SaveMetadata metadata = metadataList.get(i);
         fileCount += 1;
         byteCount += file.length();
         Date lastModified = new Date(file.lastModified());
         String periodString = Utils.makePeriodString(System.currentTimeMillis() - lastModified.getTime()) + " ago";
         String lastModifiedString = String.format("%s (%s)", lastModifiedFormat.format(lastModified), periodString);
-        String versionString = version == null ? "N/A" : version.toString();
-        table.insertRow(file.getName(), Converter.bytesToHuman(file.length()), versionString, lastModifiedString);
+        String logicalSizeString = "N/A";
+        String codecString = "N/A";
+        String versionString = "N/A";
+        if (metadata != null) {
+          if (metadata.getLogicalLength() != SaveMetadata.UNKNOWN_LENGTH) {
+            logicalSizeString = Converter.bytesToHuman(metadata.getLogicalLength());
+            logicalByteCount += metadata.getLogicalLength();
+          }
+          if (metadata.getCodec() != null) {
+            codecString = metadata.getCodec().toString();
+          }
+          versionString = metadata.getVersion().toString();
+        }
+        String sizeString = Converter.bytesToHuman(file.length());
+        table.insertRow(file.getName(), sizeString, logicalSizeString, codecString, versionString, lastModifiedString);
       }
       if (fileCount > 1) {
         table.insertSeparator();
-        table.insertRow("Sum of these " + fileCount + " files", Converter.bytesToHuman((byteCount)), "", "");
+        String sizeString = Converter.bytesToHuman(byteCount);
+        String logicalSizeString = Converter.bytesToHuman(logicalByteCount);
+        table.insertRow("Sum of these " + fileCount + " files", sizeString, logicalSizeString, "", "", "");
       }
       Writer.write(table);
     } else {
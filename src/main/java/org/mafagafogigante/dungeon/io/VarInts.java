@@ -0,0 +1,77 @@
+package org.mafagafogigante.dungeon.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Reads and writes integers using a variable number of bytes.
+ *
+ * <p>Each byte holds seven bits of the integer, least significant bits first, and its highest bit is set if more bytes
+ * follow. Signed integers are zigzag encoded first, so that numbers close to zero take few bytes whatever their sign.
+ */
+public final class VarInts {
+
+  private static final int MAXIMUM_LONG_SHIFT = 63;
+
+  private VarInts() { // Ensure that this class cannot be instantiated.
+    throw new AssertionError();
+  }
+
+  /**
+   * Writes a nonnegative int.
+   */
+  public static void writeUnsignedInt(DataOutput out, int value) throws IOException {
+    if (value < 0) {
+      throw new IllegalArgumentException("value should be nonnegative.");
+    }
+    writeUnsignedLong(out, value);
+  }
+
+  /**
+   * Reads an int written by writeUnsignedInt.
+   */
+  public static int readUnsignedInt(DataInput in) throws IOException {
+    long value = readUnsignedLong(in);
+    if (value > Integer.MAX_VALUE) {
+      throw new IOException("varint does not fit in an int.");
+    }
+    return (int) value;
+  }
+
+  /**
+   * Writes a long of any sign.
+   */
+  public static void writeSignedLong(DataOutput out, long value) throws IOException {
+    writeUnsignedLong(out, (value << 1) ^ (value >> MAXIMUM_LONG_SHIFT));
+  }
+
+  /**
+   * Reads a long written by writeSignedLong.
+   */
+  public static long readSignedLong(DataInput in) throws IOException {
+    long value = readUnsignedLong(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeUnsignedLong(DataOutput out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  private static long readUnsignedLong(DataInput in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift <= MAXIMUM_LONG_SHIFT; shift += 7) {
+      byte current = in.readByte();
+      value |= (long) (current & 0x7F) << shift;
+      if ((current & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("varint is too long.");
+  }
+
+}
@@ -12,7 +12,7 @@ import java.util.Properties;
 
 public class Version implements Comparable<Version>, Serializable {
 
-  public static final long MAJOR = 7L;
+  public static final long MAJOR = 8L;
   private static final long serialVersionUID = Version.MAJOR;
   private static final String PROPERTIES_NAME = "project.properties";
   private static final Version CURRENT_VERSION = readCurrentVersion();
@@ -1,6 +1,7 @@
 package org.mafagafogigante.dungeon.map;
 
 import org.mafagafogigante.dungeon.game.Game;
+import org.mafagafogigante.dungeon.game.GameState;
 import org.mafagafogigante.dungeon.game.Point;
 import org.mafagafogigante.dungeon.game.World;
 import org.mafagafogigante.dungeon.stats.ExplorationStatistics;
@@ -12,14 +13,18 @@ import org.jetbrains.annotations.NotNull;
  */
 class WorldMap {
 
+  /**
+   * The raster of the current GameState. Replaced when the GameState is.
+   */
+  private static WorldMapRaster raster;
+
   private final WorldMapSymbol[][] matrix;
   private final IterationLimits limits;
 
   /**
    * Initializes the WorldMap with a proper IterationLimits object and a matrix of null objects.
    */
-  private WorldMap(int rows, int columns) {
-    Point center = Game.getGameState().getHero().getLocation().getPoint();
+  private WorldMap(Point center, int rows, int columns) {
     this.limits = new IterationLimits(center, rows, columns);
     this.matrix = new WorldMapSymbol[rows][columns];
   }
@@ -29,27 +34,41 @@ class WorldMap {
    */
   @NotNull
   static WorldMap makeWorldMap(int rows, int columns, boolean limited) {
-    World world = Game.getGameState().getWorld();
     Point heroPosition = Game.getGameState().getHero().getLocation().getPoint();
-    if (limited) {
-      ExplorationStatistics explorationStatistics = Game.getGameState().getStatistics().getExplorationStatistics();
-      return renderWorldMap(new WorldMapSymbolFactory(world, heroPosition, explorationStatistics), rows, columns);
-    } else {
-      return renderWorldMap(new WorldMapSymbolFactory(world, heroPosition), rows, columns);
-    }
+    WorldMap map = new WorldMap(heroPosition, rows, columns);
+    getRaster().copy(map.limits, map.matrix, limited);
+    map.placeHero(heroPosition);
+    return map;
   }
 
-  private static WorldMap renderWorldMap(WorldMapSymbolFactory symbolFactory, int rows, int columns) {
-    WorldMap map = new WorldMap(rows, columns);
-    for (int curY = map.limits.minY; curY >= map.limits.maxY; curY--) {
-      for (int curX = map.limits.minX; curX <= map.limits.maxX; curX++) {
-        Point currentPosition = new Point(curX, curY, 0);
-        map.matrix[map.limits.minY - curY][curX - map.limits.minX] = symbolFactory.getSymbol(currentPosition);
-      }
-    }
+  /**
+   * Makes a zoomed out WorldMap of the specified size, which only contains already seen locations. Every symbol of the
+   * map stands for a block of 2<sup>level</sup> by 2<sup>level</sup> locations.
+   */
+  @NotNull
+  static WorldMap makeZoomedWorldMap(int rows, int columns, int level) {
+    Point heroPosition = Game.getGameState().getHero().getLocation().getPoint();
+    Point heroBlock = new Point(heroPosition.getX() >> level, heroPosition.getY() >> level, 0);
+    WorldMap map = new WorldMap(heroBlock, rows, columns);
+    getRaster().copyZoomed(map.limits, map.matrix, level);
+    map.placeHero(heroBlock);
     return map;
   }
 
+  private static WorldMapRaster getRaster() {
+    GameState gameState = Game.getGameState();
+    World world = gameState.getWorld();
+    ExplorationStatistics explorationStatistics = gameState.getStatistics().getExplorationStatistics();
+    if (raster == null || !raster.isRasterOf(world, explorationStatistics)) {
+      raster = new WorldMapRaster(world, explorationStatistics);
+    }
+    return raster;
+  }
+
+  private void placeHero(Point heroPosition) {
+    matrix[limits.minY - heroPosition.getY()][heroPosition.getX() - limits.minX] = WorldMapSymbol.getHeroSymbol();
+  }
+
   WorldMapSymbol[][] getSymbolMatrix() {
     return matrix;
   }
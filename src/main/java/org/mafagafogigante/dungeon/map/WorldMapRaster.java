@@ -0,0 +1,235 @@
+package org.mafagafogigante.dungeon.map;
+
+import org.mafagafogigante.dungeon.game.Id;
+import org.mafagafogigante.dungeon.game.LocationPresetStore;
+import org.mafagafogigante.dungeon.game.Point;
+import org.mafagafogigante.dungeon.game.World;
+import org.mafagafogigante.dungeon.stats.ExplorationStatistics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The map symbols of the surface of a World, kept in square chunks.
+ *
+ * <p>The symbol of a Point is only made once: when the Point is first seen, for the map of seen Locations, or when the
+ * debug map first shows it, generating its Location if needed. Seen Points are rasterized from the Location Id that the
+ * ExplorationStatistics recorded for them, so that rasterizing them after a load does not read every chunk they are in
+ * back into memory. Rendering a WorldMap is then a copy of precomputed
+ * symbols, which takes time proportional to the size of the map and not to the size of the World.
+ *
+ * <p>Zoomed out maps of seen Locations are made from summary levels. At level k, every symbol stands for a block of
+ * 2<sup>k</sup> by 2<sup>k</sup> Points and is the most common symbol among the seen Points of the block. The levels
+ * are updated as Points are seen, so zooming out is as fast as the regular map regardless of how much was explored.
+ */
+final class WorldMapRaster {
+
+  static final int MAX_ZOOM_LEVEL = 6;
+
+  private static final int CHUNK_SHIFT = 5;
+  private static final int CHUNK_SIDE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIDE - 1;
+
+  private final World world;
+  private final ExplorationStatistics explorationStatistics;
+  private final Map<Long, RasterChunk> chunks = new HashMap<>();
+  private final Map<Id, WorldMapSymbol> symbols = new HashMap<>();
+  /**
+   * The summary blocks of each zoom level, from level 1 to MAX_ZOOM_LEVEL.
+   */
+  private final List<Map<Long, SummaryBlock>> summaryLevels = new ArrayList<>();
+  /**
+   * How many of the seen Points of the ExplorationStatistics are already in this raster.
+   */
+  private int rasterizedSeenPoints;
+
+  WorldMapRaster(@NotNull World world, @NotNull ExplorationStatistics explorationStatistics) {
+    this.world = world;
+    this.explorationStatistics = explorationStatistics;
+    for (int level = 1; level <= MAX_ZOOM_LEVEL; level++) {
+      summaryLevels.add(new HashMap<Long, SummaryBlock>());
+    }
+  }
+
+  private static long makeKey(int x, int y) {
+    return ((long) x << 32) | (y & 0xFFFFFFFFL);
+  }
+
+  private static int getIndex(int x, int y) {
+    return ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+  }
+
+  /**
+   * Returns whether or not this is the raster of the specified World and ExplorationStatistics.
+   */
+  boolean isRasterOf(World world, ExplorationStatistics explorationStatistics) {
+    return this.world == world && this.explorationStatistics == explorationStatistics;
+  }
+
+  /**
+   * Copies the symbols inside the specified limits to a matrix.
+   *
+   * @param limits the IterationLimits of the matrix
+   * @param matrix a matrix with as many rows and columns as the limits
+   * @param limited if only the symbols of seen Locations should be copied
+   */
+  void copy(@NotNull IterationLimits limits, @NotNull WorldMapSymbol[][] matrix, boolean limited) {
+    if (limited) {
+      rasterizeSeenPoints();
+    }
+    for (int y = limits.minY; y >= limits.maxY; y--) {
+      WorldMapSymbol[] row = matrix[limits.minY - y];
+      int x = limits.minX;
+      while (x <= limits.maxX) {
+        int end = Math.min(limits.maxX, ((x >> CHUNK_SHIFT) << CHUNK_SHIFT) + CHUNK_MASK);
+        RasterChunk chunk = chunks.get(makeKey(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT));
+        if (chunk == null && !limited) {
+          chunk = getChunk(x, y);
+        }
+        for (int index = getIndex(x, y); x <= end; x++, index++) {
+          WorldMapSymbol symbol = chunk == null ? null : limited ? chunk.seen[index] : chunk.generated[index];
+          if (symbol == null) {
+            if (limited) {
+              symbol = WorldMapSymbol.getNotYetGeneratedSymbol();
+            } else {
+              symbol = getSymbol(world.getLocation(new Point(x, y, 0)).getId());
+              chunk.generated[index] = symbol;
+            }
+          }
+          row[x - limits.minX] = symbol;
+        }
+      }
+    }
+  }
+
+  /**
+   * Copies the symbols of a zoomed out map of seen Locations inside the specified limits to a matrix.
+   *
+   * @param limits the IterationLimits of the matrix, in blocks of the zoom level
+   * @param matrix a matrix with as many rows and columns as the limits
+   * @param level the zoom level, between 1 and MAX_ZOOM_LEVEL
+   */
+  void copyZoomed(@NotNull IterationLimits limits, @NotNull WorldMapSymbol[][] matrix, int level) {
+    if (level < 1 || level > MAX_ZOOM_LEVEL) {
+      throw new IllegalArgumentException("level should be between 1 and " + MAX_ZOOM_LEVEL + ".");
+    }
+    rasterizeSeenPoints();
+    Map<Long, SummaryBlock> blocks = summaryLevels.get(level - 1);
+    for (int y = limits.minY; y >= limits.maxY; y--) {
+      WorldMapSymbol[] row = matrix[limits.minY - y];
+      for (int x = limits.minX; x <= limits.maxX; x++) {
+        SummaryBlock block = blocks.get(makeKey(x, y));
+        row[x - limits.minX] = block == null ? WorldMapSymbol.getNotYetGeneratedSymbol() : block.dominant;
+      }
+    }
+  }
+
+  /**
+   * Adds the symbols of the Points seen since the last call to this method.
+   */
+  private void rasterizeSeenPoints() {
+    List<Point> seenPoints = explorationStatistics.getSeenPoints();
+    for (; rasterizedSeenPoints < seenPoints.size(); rasterizedSeenPoints++) {
+      Point point = seenPoints.get(rasterizedSeenPoints);
+      if (point.getZ() == 0) {
+        WorldMapSymbol symbol = getSymbol(explorationStatistics.getLocationId(point));
+        RasterChunk chunk = getChunk(point.getX(), point.getY());
+        int index = getIndex(point.getX(), point.getY());
+        chunk.seen[index] = symbol;
+        chunk.generated[index] = symbol;
+        for (int level = 1; level <= MAX_ZOOM_LEVEL; level++) {
+          getSummaryBlock(level, point.getX() >> level, point.getY() >> level).add(symbol);
+        }
+      }
+    }
+  }
+
+  private RasterChunk getChunk(int x, int y) {
+    long key = makeKey(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+    RasterChunk chunk = chunks.get(key);
+    if (chunk == null) {
+      chunk = new RasterChunk();
+      chunks.put(key, chunk);
+    }
+    return chunk;
+  }
+
+  private SummaryBlock getSummaryBlock(int level, int blockX, int blockY) {
+    Map<Long, SummaryBlock> blocks = summaryLevels.get(level - 1);
+    long key = makeKey(blockX, blockY);
+    SummaryBlock block = blocks.get(key);
+    if (block == null) {
+      block = new SummaryBlock();
+      blocks.put(key, block);
+    }
+    return block;
+  }
+
+  /**
+   * Returns the symbol of the Locations with the specified Id, which all have the same symbol, so it is only made once.
+   */
+  private WorldMapSymbol getSymbol(Id locationId) {
+    WorldMapSymbol symbol = symbols.get(locationId);
+    if (symbol == null) {
+      LocationPresetStore presetStore = LocationPresetStore.getDefaultLocationPresetStore();
+      symbol = WorldMapSymbol.makeSymbol(presetStore.getLocationPreset(locationId));
+      symbols.put(locationId, symbol);
+    }
+    return symbol;
+  }
+
+  private static final class RasterChunk {
+
+    /**
+     * The symbols of the seen Points, null for the other Points.
+     */
+    private final WorldMapSymbol[] seen = new WorldMapSymbol[CHUNK_SIDE * CHUNK_SIDE];
+    /**
+     * The symbols of the Points that were seen or shown by the debug map, null for the other Points.
+     */
+    private final WorldMapSymbol[] generated = new WorldMapSymbol[CHUNK_SIDE * CHUNK_SIDE];
+
+  }
+
+  /**
+   * Counts the symbols of the seen Points of a block of a zoom level. Blocks have few distinct symbols, so they are
+   * counted in small arrays that are searched linearly.
+   */
+  private static final class SummaryBlock {
+
+    private WorldMapSymbol[] symbols = new WorldMapSymbol[2];
+    private int[] counts = new int[2];
+    private int size;
+    /**
+     * The most common symbol. Ties go to the symbol that reached the count first.
+     */
+    private WorldMapSymbol dominant;
+    private int dominantCount;
+
+    void add(WorldMapSymbol symbol) {
+      int index = 0;
+      while (index < size && symbols[index] != symbol) { // Symbols are shared, so they can be compared by identity.
+        index++;
+      }
+      if (index == size) {
+        if (size == symbols.length) {
+          symbols = Arrays.copyOf(symbols, 2 * size);
+          counts = Arrays.copyOf(counts, 2 * size);
+        }
+        symbols[size++] = symbol;
+      }
+      counts[index]++;
+      if (counts[index] > dominantCount) {
+        dominant = symbol;
+        dominantCount = counts[index];
+      }
+    }
+
+  }
+
+}
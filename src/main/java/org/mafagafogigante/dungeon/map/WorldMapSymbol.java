@@ -2,6 +2,7 @@ package org.mafagafogigante.dungeon.map;
 
 import org.mafagafogigante.dungeon.game.Location;
 import org.mafagafogigante.dungeon.game.LocationDescription;
+import org.mafagafogigante.dungeon.game.LocationPreset;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -17,12 +18,12 @@ class WorldMapSymbol {
   private static final WorldMapSymbol NOT_YET_GENERATED_SYMBOL = new WorldMapSymbol("Unknown", '~', Color.GRAY);
 
   private final String name;
-  private final String character;
+  private final char character;
   private final Color color;
 
   private WorldMapSymbol(String name, char character, @NotNull Color color) {
     this.name = name;
-    this.character = String.valueOf(character);
+    this.character = character;
     this.color = color;
   }
 
@@ -34,6 +35,14 @@ class WorldMapSymbol {
     return new WorldMapSymbol(singular, symbol, color);
   }
 
+  /**
+   * Makes the symbol of the Locations made from a LocationPreset, which is the same as the symbol of any of them.
+   */
+  public static WorldMapSymbol makeSymbol(@NotNull LocationPreset preset) {
+    LocationDescription description = preset.getDescription();
+    return new WorldMapSymbol(preset.getName().getSingular(), description.getSymbol(), description.getColor());
+  }
+
   public static WorldMapSymbol getHeroSymbol() {
     return HERO_SYMBOL;
   }
@@ -46,10 +55,14 @@ class WorldMapSymbol {
     return name;
   }
 
-  public String getCharacterAsString() {
+  public char getCharacter() {
     return character;
   }
 
+  public String getCharacterAsString() {
+    return String.valueOf(character);
+  }
+
   public Color getColor() {
     return color;
   }
@@ -64,7 +77,7 @@ class WorldMapSymbol {
     }
     WorldMapSymbol that = (WorldMapSymbol) o;
     final boolean nameEquals = Objects.equals(name, that.name);
-    final boolean characterEquals = Objects.equals(character, that.character);
+    final boolean characterEquals = character == that.character;
     final boolean colorEquals = Objects.equals(color, that.color);
     return nameEquals && characterEquals && colorEquals;
   }
@@ -3,21 +3,70 @@ package org.mafagafogigante.dungeon.map;
 import org.mafagafogigante.dungeon.game.DungeonString;
 import org.mafagafogigante.dungeon.gui.GameWindow;
 import org.mafagafogigante.dungeon.io.Writer;
+import org.mafagafogigante.dungeon.logging.DungeonLogger;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.awt.Color;
+
 public final class WorldMapWriter {
 
+  public static final long UNKNOWN_DURATION = -1;
+
+  private static long lastRenderNanos = UNKNOWN_DURATION;
+  private static char[] buffer = new char[0];
+
   private WorldMapWriter() {
     throw new AssertionError();
   }
 
+  /**
+   * Writes a map of the seen locations. If the arguments are "zoom" and a block size, writes a zoomed out map in which
+   * each symbol stands for a square block of locations of that size.
+   */
+  public static void parseMapCommand(@NotNull String[] arguments) {
+    if (arguments.length == 0) {
+      writeMap();
+      return;
+    }
+    if (arguments.length == 2 && "zoom".equalsIgnoreCase(arguments[0])) {
+      try {
+        int blockSize = Integer.parseInt(arguments[1]);
+        int level = Integer.numberOfTrailingZeros(blockSize);
+        if (blockSize == 1) {
+          writeMap();
+          return;
+        } else if (blockSize > 0 && Integer.bitCount(blockSize) == 1 && level <= WorldMapRaster.MAX_ZOOM_LEVEL) {
+          writeZoomedMap(level);
+          return;
+        }
+      } catch (NumberFormatException ignore) {
+        // This exception reproduces the same error message an invalid block size does.
+      }
+    }
+    Writer.write("Usage: map [zoom N], where N is a power of two up to " + (1 << WorldMapRaster.MAX_ZOOM_LEVEL) + ".");
+  }
+
   public static void writeMap() {
-    renderMap(WorldMap.makeWorldMap(getMapRows(), getMapColumns(), true));
+    long start = System.nanoTime();
+    renderMap(WorldMap.makeWorldMap(getMapRows(), getMapColumns(), true), start);
+  }
+
+  private static void writeZoomedMap(int level) {
+    long start = System.nanoTime();
+    renderMap(WorldMap.makeZoomedWorldMap(getMapRows(), getMapColumns(), level), start);
   }
 
   public static void writeDebugMap() {
-    renderMap(WorldMap.makeWorldMap(getMapRows(), getMapColumns(), false));
+    long start = System.nanoTime();
+    renderMap(WorldMap.makeWorldMap(getMapRows(), getMapColumns(), false), start);
+  }
+
+  /**
+   * Returns how many nanoseconds it took to render the last WorldMap from the World or UNKNOWN_DURATION.
+   */
+  public static long getLastRenderNanos() {
+    return lastRenderNanos;
   }
 
   private static int getMapRows() {
@@ -32,22 +81,52 @@ public final class WorldMapWriter {
    * Writes a WorldMap to the screen. This erases all the content currently on the screen.
    *
    * @param map a WorldMap, not null
+   * @param start the value of System.nanoTime when the WorldMap started being made
    */
-  private static void renderMap(@NotNull WorldMap map) {
+  private static void renderMap(@NotNull WorldMap map, long start) {
     DungeonString string = new DungeonString();
     WorldMapSymbol[][] worldMapSymbolMatrix = map.getSymbolMatrix();
-    for (int i = 1; i < worldMapSymbolMatrix.length - 1; i++) {
-      for (WorldMapSymbol symbol : worldMapSymbolMatrix[i]) {
-        // OK as setColor verifies if the color change is necessary (does not replace a color by itself).
-        string.setColor(symbol.getColor());
-        string.append(symbol.getCharacterAsString());
-      }
-      if (i < worldMapSymbolMatrix.length - 1) {
-        string.append("\n");
-      }
-    }
+    appendSymbols(worldMapSymbolMatrix, string);
     WorldMapLegend.renderLegend(worldMapSymbolMatrix, string);
+    lastRenderNanos = System.nanoTime() - start;
+    DungeonLogger.fine("Rendered a WorldMap in " + lastRenderNanos + " ns.");
     Writer.write(string);
   }
 
+  /**
+   * Appends the symbols of all rows of a matrix but the first and the last to a DungeonString, ending every row with a
+   * newline. Each run of symbols of the same color is appended at once, from a buffer that is reused between maps.
+   */
+  static void appendSymbols(@NotNull WorldMapSymbol[][] matrix, @NotNull DungeonString string) {
+    int capacity = 0;
+    for (int i = 1; i < matrix.length - 1; i++) {
+      capacity += matrix[i].length + 1;
+    }
+    if (buffer.length < capacity) {
+      buffer = new char[capacity];
+    }
+    int length = 0;
+    int runStart = 0;
+    Color runColor = null;
+    for (int i = 1; i < matrix.length - 1; i++) {
+      for (WorldMapSymbol symbol : matrix[i]) {
+        if (!symbol.getColor().equals(runColor)) {
+          appendRun(string, runColor, runStart, length);
+          runColor = symbol.getColor();
+          runStart = length;
+        }
+        buffer[length++] = symbol.getCharacter();
+      }
+      buffer[length++] = '\n'; // Does not end the run, as the color of a newline does not matter.
+    }
+    appendRun(string, runColor, runStart, length);
+  }
+
+  private static void appendRun(DungeonString string, Color color, int start, int end) {
+    if (color != null && start < end) {
+      string.setColor(color);
+      string.append(buffer, start, end - start);
+    }
+  }
+
 }
@@ -1,7 +1,9 @@
 package org.mafagafogigante.dungeon.stats;
 
+import org.mafagafogigante.dungeon.achievements.BattleStatisticsQuery;
 import org.mafagafogigante.dungeon.achievements.BattleStatisticsRequirement;
 import org.mafagafogigante.dungeon.entity.creatures.Creature;
+import org.mafagafogigante.dungeon.game.Id;
 import org.mafagafogigante.dungeon.game.PartOfDay;
 import org.mafagafogigante.dungeon.io.Version;
 import org.mafagafogigante.dungeon.util.CounterMap;
@@ -9,6 +11,15 @@ import org.mafagafogigante.dungeon.util.CounterMap;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * BattleStatistics class that stores battle statistics to enable achievements.
@@ -17,6 +28,9 @@ public class BattleStatistics implements Serializable {
 
   private static final long serialVersionUID = Version.MAJOR;
   private final CounterMap<BattleRecord> records = new CounterMap<>();
+  private int battleCount;
+  private transient List<StatisticsListener> listeners;
+  private transient Index index;
 
   /**
    * Adds the outcome of a battle to the statistics.
@@ -27,7 +41,42 @@ public class BattleStatistics implements Serializable {
    */
   public void addBattle(@NotNull Creature foe, @NotNull CauseOfDeath causeOfDeath, @NotNull PartOfDay partOfDay) {
     BattleRecord record = new BattleRecord(foe.getId(), foe.getType(), causeOfDeath, partOfDay);
+    // Update the Index before the records, as it is remade from the records if it was lost to serialization.
+    getIndex().addRecord(record, 1);
     records.incrementCounter(record);
+    battleCount++;
+    if (listeners != null) {
+      for (StatisticsListener listener : listeners) {
+        listener.statisticsChanged(StatisticsChange.BATTLE);
+      }
+    }
+  }
+
+  /**
+   * Adds a StatisticsListener that is notified of battles. Listeners are not serialized.
+   */
+  void addListener(StatisticsListener listener) {
+    if (listeners == null) {
+      listeners = new ArrayList<>();
+    }
+    listeners.add(listener);
+  }
+
+  private Index getIndex() {
+    if (index == null) {
+      index = new Index();
+      for (BattleRecord record : records.keySet()) {
+        index.addRecord(record, records.getCounter(record));
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Returns how many battles were added to the statistics.
+   */
+  int getBattleCount() {
+    return battleCount;
   }
 
   /**
@@ -43,18 +92,12 @@ public class BattleStatistics implements Serializable {
 
   /**
    * Evaluates if this BattleStatistics satisfies a BattleStatisticsRequirement.
+   *
+   * <p>The first evaluation of a query goes through the BattleRecords of its most selective field. Its count is then
+   * kept up to date as battles are added, so evaluating it again is a single lookup.
    */
   public boolean satisfies(BattleStatisticsRequirement requirement) {
-    int count = 0;
-    for (BattleRecord record : records.keySet()) {
-      if (requirement.getQuery().matches(record)) {
-        count += records.getCounter(record);
-        if (count >= requirement.getCount()) {
-          return true;
-        }
-      }
-    }
-    return false;
+    return getIndex().getCount(requirement.getQuery(), records) >= requirement.getCount();
   }
 
   @Override
@@ -62,4 +105,79 @@ public class BattleStatistics implements Serializable {
     return String.format("BattleStatistics{records=%s}", records);
   }
 
+  /**
+   * The distinct BattleRecords by each of their fields and the counts of the queries that were evaluated.
+   */
+  private static final class Index {
+
+    private final Map<Id, Set<BattleRecord>> recordsById = new HashMap<>();
+    private final Map<String, Set<BattleRecord>> recordsByType = new HashMap<>();
+    private final Map<CauseOfDeath, Set<BattleRecord>> recordsByCauseOfDeath = new HashMap<>();
+    private final Map<PartOfDay, Set<BattleRecord>> recordsByPartOfDay = new EnumMap<>(PartOfDay.class);
+    private final Map<BattleStatisticsQuery, Integer> queryCounts = new HashMap<>();
+
+    private static <K> void addToIndex(Map<K, Set<BattleRecord>> index, K key, BattleRecord record) {
+      Set<BattleRecord> set = index.get(key);
+      if (set == null) {
+        set = new HashSet<>();
+        index.put(key, set);
+      }
+      set.add(record);
+    }
+
+    /**
+     * Returns the smaller of the candidates and the BattleRecords indexed by a key, or the candidates if the key is
+     * null, which matches any value.
+     */
+    private static <K> Collection<BattleRecord> narrow(Collection<BattleRecord> candidates,
+        Map<K, Set<BattleRecord>> index, K key) {
+      if (key == null) {
+        return candidates;
+      }
+      Set<BattleRecord> set = index.get(key);
+      if (set == null) {
+        return Collections.emptySet();
+      }
+      return set.size() < candidates.size() ? set : candidates;
+    }
+
+    /**
+     * Adds a number of battles with the same BattleRecord, updating the counts of the evaluated queries it matches.
+     */
+    void addRecord(BattleRecord record, int battles) {
+      addToIndex(recordsById, record.getId(), record);
+      addToIndex(recordsByType, record.getType(), record);
+      addToIndex(recordsByCauseOfDeath, record.getCauseOfDeath(), record);
+      addToIndex(recordsByPartOfDay, record.getPartOfDay(), record);
+      for (Map.Entry<BattleStatisticsQuery, Integer> entry : queryCounts.entrySet()) {
+        if (entry.getKey().matches(record)) {
+          entry.setValue(entry.getValue() + battles);
+        }
+      }
+    }
+
+    /**
+     * Returns how many battles match a query.
+     */
+    int getCount(BattleStatisticsQuery query, CounterMap<BattleRecord> records) {
+      Integer count = queryCounts.get(query);
+      if (count == null) {
+        Collection<BattleRecord> candidates = records.keySet();
+        candidates = narrow(candidates, recordsById, query.getId());
+        candidates = narrow(candidates, recordsByType, query.getType());
+        candidates = narrow(candidates, recordsByCauseOfDeath, query.getCauseOfDeath());
+        candidates = narrow(candidates, recordsByPartOfDay, query.getPartOfDay());
+        count = 0;
+        for (BattleRecord record : candidates) {
+          if (query.matches(record)) {
+            count += records.getCounter(record);
+          }
+        }
+        queryCounts.put(query, count);
+      }
+      return count;
+    }
+
+  }
+
 }
@@ -5,9 +5,14 @@ import org.mafagafogigante.dungeon.game.Id;
 import org.mafagafogigante.dungeon.game.PartOfDay;
 import org.mafagafogigante.dungeon.game.Point;
 import org.mafagafogigante.dungeon.io.Version;
+import org.mafagafogigante.dungeon.util.CounterMap;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * ExplorationStatistics class that tracks the Hero's exploration progress.
@@ -16,6 +21,16 @@ public class ExplorationStatistics implements Serializable {
 
   private static final long serialVersionUID = Version.MAJOR;
   private final HashMap<Point, ExplorationStatisticsEntry> entries;
+  /**
+   * The seen Points, in the order in which they were first seen. Points are only ever appended to it, so that whoever
+   * reads it can remember how far it has read and later just read the Points that were seen since.
+   */
+  private transient List<Point> seenPoints;
+  private transient List<StatisticsListener> listeners;
+  /**
+   * What the queries of this class ask about the entries, kept up to date as the entries change.
+   */
+  private transient Rollups rollups;
 
   public ExplorationStatistics() {
     this.entries = new HashMap<>();
@@ -31,10 +46,55 @@ public class ExplorationStatistics implements Serializable {
    */
   public void createEntryIfNotExists(Point point, Id locationId, Date discoveredDate) {
     if (!hasBeenSeen(point)) {
-      entries.put(point, new ExplorationStatisticsEntry(locationId, discoveredDate));
+      ExplorationStatisticsEntry entry = new ExplorationStatisticsEntry(locationId, discoveredDate);
+      // Update the rollups before the entries, as they are remade from the entries if they were lost to serialization.
+      getRollups().addEntry(entry);
+      entries.put(point, entry);
+      if (seenPoints != null) {
+        seenPoints.add(point);
+      }
+      notifyListeners(StatisticsChange.DISCOVERY);
     }
   }
 
+  private Rollups getRollups() {
+    if (rollups == null) {
+      rollups = new Rollups();
+      for (ExplorationStatisticsEntry entry : entries.values()) {
+        rollups.addEntry(entry);
+      }
+    }
+    return rollups;
+  }
+
+  /**
+   * Adds a StatisticsListener that is notified of discoveries, visits, and kills. Listeners are not serialized.
+   */
+  void addListener(StatisticsListener listener) {
+    if (listeners == null) {
+      listeners = new ArrayList<>();
+    }
+    listeners.add(listener);
+  }
+
+  private void notifyListeners(StatisticsChange change) {
+    if (listeners != null) {
+      for (StatisticsListener listener : listeners) {
+        listener.statisticsChanged(change);
+      }
+    }
+  }
+
+  /**
+   * Returns an unmodifiable view of the seen Points. Points seen after this method returns are appended to the view.
+   */
+  public List<Point> getSeenPoints() {
+    if (seenPoints == null) {
+      seenPoints = new ArrayList<>(entries.keySet());
+    }
+    return Collections.unmodifiableList(seenPoints);
+  }
+
   /**
    * Records a visit to a specified Point.
    *
@@ -42,7 +102,11 @@ public class ExplorationStatistics implements Serializable {
    */
   public void addVisit(Point point, Id locationId, Date discoveredDate) {
     createEntryIfNotExists(point, locationId, discoveredDate);
-    entries.get(point).addVisit();
+    Rollups rollups = getRollups();
+    ExplorationStatisticsEntry entry = entries.get(point);
+    entry.addVisit();
+    rollups.addVisit(entry);
+    notifyListeners(StatisticsChange.VISIT);
   }
 
   /**
@@ -52,7 +116,11 @@ public class ExplorationStatistics implements Serializable {
    */
   public void addKill(Point point) {
     // Don't call createEntryIfNotExists as the player needs to visit a Point before killing anything in it.
-    entries.get(point).addKill();
+    Rollups rollups = getRollups();
+    ExplorationStatisticsEntry entry = entries.get(point);
+    entry.addKill();
+    rollups.addKill(entry);
+    notifyListeners(StatisticsChange.KILL);
   }
 
   /**
@@ -65,6 +133,14 @@ public class ExplorationStatistics implements Serializable {
     return entries.containsKey(point);
   }
 
+  /**
+   * Returns the Id of the Location at a seen Point or null if the Point was not seen.
+   */
+  public Id getLocationId(Point point) {
+    ExplorationStatisticsEntry entry = entries.get(point);
+    return entry == null ? null : entry.getLocationId();
+  }
+
   /**
    * Returns how many Locations with the specified Id the Hero visited.
    *
@@ -72,13 +148,7 @@ public class ExplorationStatistics implements Serializable {
    * @return a nonnegative integer
    */
   public int getVisitedLocations(Id locationId) {
-    int count = 0;
-    for (ExplorationStatisticsEntry entry : entries.values()) {
-      if (entry.getLocationId().equals(locationId) && entry.getVisitCount() > 0) {
-        count++;
-      }
-    }
-    return count;
+    return getRollups().visitedLocations.getCounter(locationId);
   }
 
   /**
@@ -88,13 +158,7 @@ public class ExplorationStatistics implements Serializable {
    * @return a nonnegative integer
    */
   public int getKillCount(Id locationId) {
-    int count = 0;
-    for (ExplorationStatisticsEntry entry : entries.values()) {
-      if (entry.getLocationId().equals(locationId)) {
-        count += entry.getKillCount();
-      }
-    }
-    return count;
+    return getRollups().kills.getCounter(locationId);
   }
 
   /**
@@ -104,15 +168,8 @@ public class ExplorationStatistics implements Serializable {
    * @return a nonnegative integer
    */
   public int getMaximumNumberOfVisits(Id locationId) {
-    int maximumVisitsToLocationWithThisId = 0;
-    for (ExplorationStatisticsEntry entry : entries.values()) {
-      if (entry.getLocationId().equals(locationId)) {
-        if (entry.getVisitCount() > maximumVisitsToLocationWithThisId) {
-          maximumVisitsToLocationWithThisId = entry.getVisitCount();
-        }
-      }
-    }
-    return maximumVisitsToLocationWithThisId;
+    Integer maximumVisitsToLocationWithThisId = getRollups().maximumVisits.get(locationId);
+    return maximumVisitsToLocationWithThisId == null ? 0 : maximumVisitsToLocationWithThisId;
   }
 
   /**
@@ -122,14 +179,57 @@ public class ExplorationStatistics implements Serializable {
    * @return a nonnegative integer
    */
   public int getLocationsDiscoveredDuringPartOfDay(PartOfDay partOfDay) {
-    int count = 0;
-    for (ExplorationStatisticsEntry location : entries.values()) {
-      PartOfDay partOfDayOfDiscovery = PartOfDay.getCorrespondingConstant(location.getDiscoveredDate());
-      if (partOfDayOfDiscovery == partOfDay) {
-        count++;
+    return getRollups().discoveries[partOfDay.ordinal()];
+  }
+
+  /**
+   * The aggregates of the entries by Location ID and by PartOfDay of discovery.
+   */
+  private static final class Rollups {
+
+    private final CounterMap<Id> visitedLocations = new CounterMap<>();
+    private final CounterMap<Id> kills = new CounterMap<>();
+    private final Map<Id, Integer> maximumVisits = new HashMap<>();
+    private final int[] discoveries = new int[PartOfDay.values().length];
+
+    /**
+     * Adds an entry with all its visits and kills.
+     */
+    void addEntry(ExplorationStatisticsEntry entry) {
+      discoveries[PartOfDay.getCorrespondingConstant(entry.getDiscoveredDate()).ordinal()]++;
+      if (entry.getKillCount() > 0) {
+        kills.incrementCounter(entry.getLocationId(), entry.getKillCount());
+      }
+      if (entry.getVisitCount() > 0) {
+        visitedLocations.incrementCounter(entry.getLocationId());
+        updateMaximumVisits(entry);
+      }
+    }
+
+    /**
+     * Adds the visit that was just added to an entry.
+     */
+    void addVisit(ExplorationStatisticsEntry entry) {
+      if (entry.getVisitCount() == 1) {
+        visitedLocations.incrementCounter(entry.getLocationId());
       }
+      updateMaximumVisits(entry);
     }
-    return count;
+
+    /**
+     * Adds the kill that was just added to an entry.
+     */
+    void addKill(ExplorationStatisticsEntry entry) {
+      kills.incrementCounter(entry.getLocationId());
+    }
+
+    private void updateMaximumVisits(ExplorationStatisticsEntry entry) {
+      Integer maximum = maximumVisits.get(entry.getLocationId());
+      if (maximum == null || entry.getVisitCount() > maximum) {
+        maximumVisits.put(entry.getLocationId(), entry.getVisitCount());
+      }
+    }
+
   }
 
 }
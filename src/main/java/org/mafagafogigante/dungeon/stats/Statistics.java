@@ -2,12 +2,24 @@ package org.mafagafogigante.dungeon.stats;
 
 import org.mafagafogigante.dungeon.commands.IssuedCommand;
 import org.mafagafogigante.dungeon.date.Date;
+import org.mafagafogigante.dungeon.io.Autosaver;
+import org.mafagafogigante.dungeon.io.Loader;
 import org.mafagafogigante.dungeon.io.Version;
 import org.mafagafogigante.dungeon.io.Writer;
+import org.mafagafogigante.dungeon.logging.DungeonLogger;
+import org.mafagafogigante.dungeon.map.WorldMapWriter;
+import org.mafagafogigante.dungeon.stats.StatisticsTimeSeries.Series;
 import org.mafagafogigante.dungeon.util.ColumnAlignment;
 import org.mafagafogigante.dungeon.util.Table;
+import org.mafagafogigante.dungeon.util.Utils;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -18,11 +30,14 @@ import java.util.TreeSet;
 public final class Statistics implements Serializable {
 
   private static final long serialVersionUID = Version.MAJOR;
+  private static final String DEFAULT_EXPORT_NAME = "statistics";
+  private static final String EXPORT_EXTENSION = ".csv";
   private final WorldStatistics worldStatistics = new WorldStatistics();
   private final ExplorationStatistics explorationStatistics = new ExplorationStatistics();
   private final BattleStatistics battleStatistics = new BattleStatistics();
   private final CommandStatistics commandStatistics = new CommandStatistics();
   private final HeroStatistics heroStatistics = new HeroStatistics();
+  private final StatisticsTimeSeries timeSeries = new StatisticsTimeSeries();
 
   /**
    * Returns the WorldStatistics object of this Statistics.
@@ -55,6 +70,55 @@ public final class Statistics implements Serializable {
     return heroStatistics;
   }
 
+  public StatisticsTimeSeries getTimeSeries() {
+    return timeSeries;
+  }
+
+  /**
+   * Records how much each total grew since the last update in the bucket of the specified date of the
+   * StatisticsTimeSeries.
+   */
+  public void updateTimeSeries(Date date) {
+    timeSeries.record(Series.KILLS, date, battleStatistics.getBattleCount());
+    timeSeries.record(Series.DAMAGE_INFLICTED, date, heroStatistics.getDamageInflicted());
+    timeSeries.record(Series.DAMAGE_TAKEN, date, heroStatistics.getDamageTaken());
+    timeSeries.record(Series.SPAWNS, date, worldStatistics.getSpawnCount());
+    timeSeries.record(Series.LOCATIONS, date, worldStatistics.getLocationCount());
+  }
+
+  /**
+   * Exports the StatisticsTimeSeries to a CSV file in the saves folder, named after the first argument if there is
+   * one.
+   *
+   * <p>The rows are written to the file as they are read from the buckets, so nothing but the buckets is kept in
+   * memory however many days there are.
+   */
+  public void exportTimeSeries(String[] arguments) {
+    String name = arguments.length == 0 ? DEFAULT_EXPORT_NAME : arguments[0];
+    File file = Loader.createExportFile(name.endsWith(EXPORT_EXTENSION) ? name : name + EXPORT_EXTENSION);
+    if (file == null) {
+      return;
+    }
+    try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+        StandardCharsets.UTF_8))) {
+      timeSeries.writeCsv(writer);
+    } catch (IOException exception) {
+      DungeonLogger.logSevere(exception);
+      Writer.write("Failed to export the statistics to " + file.getName() + ".");
+      return;
+    }
+    Writer.write("Exported the statistics of each day to " + file.getPath() + ".");
+  }
+
+  /**
+   * Adds a StatisticsListener that is notified of every StatisticsChange. Listeners are not serialized, so they should
+   * be added again after the Statistics are loaded.
+   */
+  public void addListener(StatisticsListener listener) {
+    explorationStatistics.addListener(listener);
+    battleStatistics.addListener(listener);
+  }
+
   /**
    * Adds an issued command to the CommandStatistics.
    */
@@ -73,9 +137,31 @@ public final class Statistics implements Serializable {
     insertHeroStatistics(statistics);
     statistics.insertSeparator();
     insertWorldStatistics(statistics);
+    statistics.insertSeparator();
+    insertSaveStatistics(statistics);
+    insertMapStatistics(statistics);
     Writer.write(statistics);
   }
 
+  private static void insertSaveStatistics(Table statistics) {
+    statistics.insertRow("Autosave interval", Utils.makePeriodString(Autosaver.getInterval()));
+    statistics.insertRow("Last save latency", makeDurationString(Autosaver.getLastSaveLatency()));
+    statistics.insertRow("Last save pause", makeDurationString(Autosaver.getLastSavePause()));
+  }
+
+  private static void insertMapStatistics(Table statistics) {
+    long nanoseconds = WorldMapWriter.getLastRenderNanos();
+    if (nanoseconds == WorldMapWriter.UNKNOWN_DURATION) {
+      statistics.insertRow("Last map render", "N/A");
+    } else {
+      statistics.insertRow("Last map render", String.format("%.3f ms", nanoseconds / 1e6));
+    }
+  }
+
+  private static String makeDurationString(long milliseconds) {
+    return milliseconds == Autosaver.UNKNOWN_DURATION ? "N/A" : milliseconds + " ms";
+  }
+
   private void insertHeroStatistics(Table statistics) {
     statistics.insertRow("Damage inflicted", String.valueOf(heroStatistics.getDamageInflicted()));
     statistics.insertRow("Damage taken", String.valueOf(heroStatistics.getDamageTaken()));
@@ -0,0 +1,25 @@
+package org.mafagafogigante.dungeon.stats;
+
+/**
+ * The kinds of changes to the Statistics on which achievements may depend.
+ */
+public enum StatisticsChange {
+
+  /**
+   * A Point was seen for the first time.
+   */
+  DISCOVERY,
+  /**
+   * A Point was visited.
+   */
+  VISIT,
+  /**
+   * A Creature was killed in a Point.
+   */
+  KILL,
+  /**
+   * A battle was won.
+   */
+  BATTLE
+
+}
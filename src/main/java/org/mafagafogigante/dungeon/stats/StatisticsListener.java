@@ -0,0 +1,13 @@
+package org.mafagafogigante.dungeon.stats;
+
+/**
+ * Interface for the objects that are notified of the changes to Statistics.
+ */
+public interface StatisticsListener {
+
+  /**
+   * Invoked after the Statistics changed.
+   */
+  void statisticsChanged(StatisticsChange change);
+
+}
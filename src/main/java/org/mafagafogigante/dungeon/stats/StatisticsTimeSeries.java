@@ -0,0 +1,198 @@
+package org.mafagafogigante.dungeon.stats;
+
+import org.mafagafogigante.dungeon.date.Date;
+import org.mafagafogigante.dungeon.date.DungeonTimeUnit;
+import org.mafagafogigante.dungeon.io.Version;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Statistics by day of the World, to see how the pace of a game changes over a long session.
+ *
+ * <p>Each Series is a column of int buckets, one per day, in a ring buffer. Only the most recent days are kept: when a
+ * day after the last one is recorded, the buckets of the days that fall out of the buffer are reused for the new days.
+ *
+ * <p>The values are recorded from the lifetime totals of the other statistics, so that they need not know about this
+ * class: every time a total is recorded, the difference from the previous total is added to the bucket of the date.
+ *
+ * <p>Only the buckets of the kept days are serialized, so a short game does not write every bucket of the buffer.
+ */
+public final class StatisticsTimeSeries implements Serializable {
+
+  static final int DEFAULT_CAPACITY = 1024;
+  private static final long serialVersionUID = Version.MAJOR;
+  private static final long NO_DAY = -1;
+
+  private final int capacity;
+  /**
+   * The buckets of each Series, indexed by Series ordinal and then by day modulo the capacity.
+   */
+  private transient int[][] columns;
+  /**
+   * The last recorded total of each Series.
+   */
+  private final long[] totals;
+  private long firstDay = NO_DAY;
+  private long lastDay = NO_DAY;
+
+  public StatisticsTimeSeries() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty StatisticsTimeSeries that keeps the specified number of days.
+   */
+  StatisticsTimeSeries(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity should be positive.");
+    }
+    this.capacity = capacity;
+    this.columns = new int[Series.values().length][capacity];
+    this.totals = new long[Series.values().length];
+  }
+
+  private static long toDay(Date date) {
+    return date.getTime() / DungeonTimeUnit.DAY.milliseconds;
+  }
+
+  private int toBucket(long day) {
+    return (int) (day % capacity);
+  }
+
+  /**
+   * Returns the first day that is still kept.
+   */
+  private long getOldestDay() {
+    return Math.max(firstDay, lastDay - capacity + 1);
+  }
+
+  /**
+   * Records the current total of a Series, adding how much it grew since the last time it was recorded to the bucket of
+   * the specified date. Dates before the oldest day that is kept are not recorded.
+   */
+  void record(@NotNull Series series, @NotNull Date date, long total) {
+    long difference = total - totals[series.ordinal()];
+    totals[series.ordinal()] = total;
+    if (difference == 0) {
+      return;
+    }
+    long day = toDay(date);
+    advanceTo(day);
+    if (day >= getOldestDay()) {
+      columns[series.ordinal()][toBucket(day)] += (int) difference;
+    }
+  }
+
+  /**
+   * Makes the specified day the last day, if it is after the last day, emptying the buckets of the new days.
+   */
+  private void advanceTo(long day) {
+    if (lastDay == NO_DAY) {
+      firstDay = day;
+      lastDay = day;
+    } else if (day > lastDay) {
+      // Each bucket is emptied at most once, however many days passed.
+      for (long newDay = Math.max(lastDay + 1, day - capacity + 1); newDay <= day; newDay++) {
+        for (int[] column : columns) {
+          column[toBucket(newDay)] = 0;
+        }
+      }
+      lastDay = day;
+    }
+  }
+
+  /**
+   * Returns the value of a Series in the day of the specified date, which is zero if the day is not kept.
+   */
+  public int get(@NotNull Series series, @NotNull Date date) {
+    long day = toDay(date);
+    if (lastDay == NO_DAY || day > lastDay || day < getOldestDay()) {
+      return 0;
+    }
+    return columns[series.ordinal()][toBucket(day)];
+  }
+
+  /**
+   * Writes the kept days as CSV, one row per day from the oldest to the last, as they are read from the buckets.
+   *
+   * @param writer the Writer to write to, which should be buffered
+   */
+  public void writeCsv(@NotNull Writer writer) throws IOException {
+    writer.write("Date");
+    for (Series series : Series.values()) {
+      writer.write(',');
+      writer.write(series.toString());
+    }
+    writer.write('\n');
+    if (lastDay == NO_DAY) {
+      return;
+    }
+    for (long day = getOldestDay(); day <= lastDay; day++) {
+      Date date = new Date(day * DungeonTimeUnit.DAY.milliseconds);
+      String dateString = String.format(Locale.ENGLISH, "%d-%02d-%02d", date.getYear(), date.getMonth(), date.getDay());
+      writer.write(dateString);
+      for (int[] column : columns) {
+        writer.write(',');
+        writer.write(Integer.toString(column[toBucket(day)]));
+      }
+      writer.write('\n');
+    }
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    if (lastDay == NO_DAY) {
+      return;
+    }
+    for (int[] column : columns) {
+      for (long day = getOldestDay(); day <= lastDay; day++) {
+        out.writeInt(column[toBucket(day)]);
+      }
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    if (capacity < 1) {
+      throw new IOException("the capacity of a StatisticsTimeSeries should be positive.");
+    }
+    columns = new int[Series.values().length][capacity];
+    if (lastDay == NO_DAY) {
+      return;
+    }
+    if (firstDay < 0 || lastDay < firstDay) {
+      throw new IOException("the days of a StatisticsTimeSeries should not be negative or out of order.");
+    }
+    for (int[] column : columns) {
+      for (long day = getOldestDay(); day <= lastDay; day++) {
+        column[toBucket(day)] = in.readInt();
+      }
+    }
+  }
+
+  public enum Series {
+
+    KILLS("Kills"), DAMAGE_INFLICTED("Damage inflicted"), DAMAGE_TAKEN("Damage taken"), SPAWNS("Spawns"),
+    LOCATIONS("Locations");
+
+    private final String name;
+
+    Series(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+
+  }
+
+}
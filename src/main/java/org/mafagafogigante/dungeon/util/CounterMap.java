@@ -2,41 +2,143 @@ package org.mafagafogigante.dungeon.util;
 
 import org.mafagafogigante.dungeon.io.Version;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
  * CounterMap class that maps a generic key to an integer and provides methods manipulate this integer. Implements
  * Iterable sorted by descending values.
+ *
+ * <p>The keys and their counters are kept in parallel arrays, in the order in which the keys were added, and found
+ * through an open-addressing table of indices into these arrays. Incrementing a counter changes an int in place, so it
+ * neither boxes nor allocates unless the key is new. The sorted keys are cached until a counter changes.
+ *
+ * <p>Keys should not be null.
  */
 public class CounterMap<K> implements Serializable, Iterable<K> {
 
   private static final long serialVersionUID = Version.MAJOR;
-  // The wrapped HashMap.
-  private final HashMap<K, Integer> map = new HashMap<>();
+  private static final int INITIAL_CAPACITY = 8;
+
+  private transient Object[] keys;
+  private transient int[] counters;
+  private transient int size;
+  /**
+   * The indices of the keys plus one, by the hash of the key. Zero marks an empty slot. Its length is a power of two at
+   * least twice the capacity of the key array, so that probe sequences stay short.
+   */
+  private transient int[] table;
+  /**
+   * How many keys were added, so that iterators over the keys can detect additions.
+   */
+  private transient int modifications;
+  /**
+   * The keys sorted by descending counter, or null if a counter changed since they were sorted.
+   */
+  private transient List<K> sortedKeys;
 
   /**
    * Constructs a new empty CounterMap.
    */
   public CounterMap() {
+    initialize(INITIAL_CAPACITY);
+  }
+
+  private static int mix(int hash) {
+    int mixed = hash * 0x9E3779B9;
+    return mixed ^ (mixed >>> 16);
+  }
+
+  private void initialize(int capacity) {
+    keys = new Object[capacity];
+    counters = new int[capacity];
+    // The smallest power of two that is at least twice the capacity.
+    table = new int[Integer.highestOneBit(Math.max(1, capacity - 1)) << 2];
+  }
+
+  /**
+   * Returns the index of a key in the key array, or -1 if the key is not in this CounterMap.
+   */
+  private int indexOf(Object key) {
+    int mask = table.length - 1;
+    for (int slot = mix(key.hashCode()) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      int index = table[slot] - 1;
+      if (key.equals(keys[index])) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  private void insertIntoTable(int index) {
+    int mask = table.length - 1;
+    int slot = mix(keys[index].hashCode()) & mask;
+    while (table[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    table[slot] = index + 1;
+  }
+
+  private int add(K key) {
+    if (key == null) {
+      throw new IllegalArgumentException("key should not be null.");
+    }
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, 2 * size);
+      counters = Arrays.copyOf(counters, 2 * size);
+      if (2 * keys.length > table.length) {
+        table = new int[2 * table.length];
+        for (int i = 0; i < size; i++) {
+          insertIntoTable(i);
+        }
+      }
+    }
+    keys[size] = key;
+    insertIntoTable(size);
+    modifications++;
+    return size++;
+  }
+
+  @SuppressWarnings("unchecked")
+  private K getKey(int index) {
+    return (K) keys[index];
   }
 
   /**
-   * Returns a Set view of the keys contained in this map.
+   * Returns an unmodifiable Set view of the keys contained in this map, in the order in which they were added.
    */
   public Set<K> keySet() {
-    return map.keySet();
+    return new AbstractSet<K>() {
+      @Override
+      public Iterator<K> iterator() {
+        return new KeyIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public boolean contains(Object object) {
+        return object != null && indexOf(object) != -1;
+      }
+    };
   }
 
   public boolean isNotEmpty() {
-    return !map.isEmpty();
+    return size != 0;
   }
 
   /**
@@ -53,47 +155,143 @@ public class CounterMap<K> implements Serializable, Iterable<K> {
    *
    * <p>If the key does not exist, it will be created an assigned the added value.
    */
-  public void incrementCounter(K key, Integer amount) {
-    Integer counter = map.get(key);
-    if (counter == null) {
-      counter = amount;
-    } else {
-      counter = counter + amount;
+  public void incrementCounter(K key, int amount) {
+    int index = key == null ? -1 : indexOf(key);
+    if (index == -1) {
+      index = add(key);
     }
-    map.put(key, counter);
+    counters[index] += amount;
+    sortedKeys = null;
   }
 
   /**
    * Retrieves the counter mapped to a certain key. If no counter is mapped to the provided key, 0 will be returned.
    */
   public int getCounter(K key) {
-    Integer counter = map.get(key);
-    if (counter == null) {
+    int index = key == null ? -1 : indexOf(key);
+    if (index == -1) {
       return 0;
     } else {
-      return counter;
+      return counters[index];
+    }
+  }
+
+  /**
+   * Returns the keys sorted by descending counter. Keys with the same counter are in the order in which they were
+   * added.
+   */
+  private List<K> getSortedKeys() {
+    if (sortedKeys == null) {
+      Integer[] indices = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        indices[i] = i;
+      }
+      // The sort is stable, so ties stay in the order in which the keys were added.
+      Arrays.sort(indices, new Comparator<Integer>() {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+          return Integer.compare(counters[o2], counters[o1]);
+        }
+      });
+      Object[] sorted = new Object[size];
+      for (int i = 0; i < size; i++) {
+        sorted[i] = keys[indices[i]];
+      }
+      sortedKeys = new ArrayView<>(sorted);
+    }
+    return sortedKeys;
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeInt(size);
+    for (int i = 0; i < size; i++) {
+      out.writeObject(keys[i]);
+      out.writeInt(counters[i]);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    int serializedSize = in.readInt();
+    if (serializedSize < 0) {
+      throw new IOException("the size of a CounterMap should not be negative.");
+    }
+    initialize(Math.max(INITIAL_CAPACITY, serializedSize));
+    for (int i = 0; i < serializedSize; i++) {
+      int index = add((K) in.readObject());
+      counters[index] = in.readInt();
     }
   }
 
   @Override
   public String toString() {
-    return String.format("CounterMap{map=%s}", map);
+    StringBuilder builder = new StringBuilder("CounterMap{map={");
+    for (int i = 0; i < size; i++) {
+      if (i != 0) {
+        builder.append(", ");
+      }
+      builder.append(keys[i]).append('=').append(counters[i]);
+    }
+    return builder.append("}}").toString();
   }
 
   @Override
   public Iterator<K> iterator() {
-    List<Entry<K, Integer>> entryList = new ArrayList<>(map.entrySet());
-    Collections.sort(entryList, new Comparator<Entry<K, Integer>>() {
-      @Override
-      public int compare(Entry<K, Integer> o1, Entry<K, Integer> o2) {
-        return o2.getValue().compareTo(o1.getValue());
+    return getSortedKeys().iterator();
+  }
+
+  /**
+   * An unmodifiable List view of an array, which unlike Arrays.asList does not need an array of the element type.
+   */
+  private static final class ArrayView<E> extends AbstractList<E> {
+
+    private final Object[] elements;
+
+    ArrayView(Object[] elements) {
+      this.elements = elements;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+      return (E) elements[index];
+    }
+
+    @Override
+    public int size() {
+      return elements.length;
+    }
+
+  }
+
+  private final class KeyIterator implements Iterator<K> {
+
+    private final int expectedModifications = modifications;
+    private int next;
+
+    @Override
+    public boolean hasNext() {
+      return next < size;
+    }
+
+    @Override
+    public K next() {
+      if (modifications != expectedModifications) {
+        throw new ConcurrentModificationException();
       }
-    });
-    List<K> sortedKeyList = new ArrayList<>();
-    for (Entry<K, Integer> entry : entryList) {
-      sortedKeyList.add(entry.getKey());
+      if (next >= size) {
+        throw new NoSuchElementException();
+      }
+      return getKey(next++);
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
     }
-    return sortedKeyList.iterator();
+
   }
 
 }
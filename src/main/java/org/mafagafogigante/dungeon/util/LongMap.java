@@ -0,0 +1,181 @@
+package org.mafagafogigante.dungeon.util;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A map from primitive long keys to values, so that looking up a key neither boxes nor allocates.
+ *
+ * <p>The keys and values are kept in parallel arrays indexed by the hash of the key, with linear probing. A null value
+ * marks an empty slot, so values should not be null. Removing a key shifts back the keys that probed past it instead
+ * of leaving a tombstone, so lookups never slow down as keys are removed.
+ */
+public final class LongMap<V> {
+
+  private static final int INITIAL_CAPACITY = 16;
+  private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+  private long[] keys;
+  private V[] values;
+  private int size;
+
+  /**
+   * Constructs a new empty LongMap.
+   */
+  public LongMap() {
+    this(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Constructs a new LongMap with the keys and values of another LongMap.
+   */
+  public LongMap(@NotNull LongMap<V> map) {
+    this(map.keys.length);
+    putAll(map);
+  }
+
+  @SuppressWarnings("unchecked")
+  private LongMap(int capacity) {
+    keys = new long[capacity];
+    values = (V[]) new Object[capacity];
+  }
+
+  private static int indexFor(long key, int capacity) {
+    return (int) ((key * GOLDEN_RATIO) >>> (64 - Integer.numberOfTrailingZeros(capacity)));
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean containsKey(long key) {
+    return findIndex(key) != -1;
+  }
+
+  /**
+   * Returns the value of the specified key or null if the key is not in this map.
+   */
+  public V get(long key) {
+    int index = findIndex(key);
+    return index == -1 ? null : values[index];
+  }
+
+  /**
+   * Maps a key to a value, replacing the value the key had.
+   *
+   * @return the value the key had or null if the key was not in this map
+   */
+  public V put(long key, @NotNull V value) {
+    int index = findIndex(key);
+    if (index != -1) {
+      V previous = values[index];
+      values[index] = value;
+      return previous;
+    }
+    if (2 * (size + 1) > keys.length) {
+      resize(2 * keys.length);
+    }
+    place(key, value);
+    size++;
+    return null;
+  }
+
+  /**
+   * Puts every key of another LongMap in this map with its value.
+   */
+  public void putAll(@NotNull LongMap<V> map) {
+    for (int i = 0; i < map.keys.length; i++) {
+      if (map.values[i] != null) {
+        put(map.keys[i], map.values[i]);
+      }
+    }
+  }
+
+  /**
+   * Removes a key from this map.
+   *
+   * @return the value the key had or null if the key was not in this map
+   */
+  public V remove(long key) {
+    int index = findIndex(key);
+    if (index == -1) {
+      return null;
+    }
+    final V removed = values[index];
+    int mask = keys.length - 1;
+    int hole = index;
+    for (int next = (hole + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+      // Move the key into the hole if the hole is between the slot of its hash and its slot.
+      int home = indexFor(keys[next], keys.length);
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        keys[hole] = keys[next];
+        values[hole] = values[next];
+        hole = next;
+      }
+    }
+    values[hole] = null;
+    size--;
+    return removed;
+  }
+
+  /**
+   * Removes every key from this map.
+   */
+  public void clear() {
+    for (int i = 0; i < values.length; i++) {
+      values[i] = null;
+    }
+    size = 0;
+  }
+
+  /**
+   * Returns a new array with the keys of this map, in no particular order. Changing the map does not change the array.
+   */
+  public long[] keys() {
+    long[] array = new long[size];
+    int count = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (values[i] != null) {
+        array[count++] = keys[i];
+      }
+    }
+    return array;
+  }
+
+  private int findIndex(long key) {
+    int mask = keys.length - 1;
+    for (int index = indexFor(key, keys.length); values[index] != null; index = (index + 1) & mask) {
+      if (keys[index] == key) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  private void place(long key, V value) {
+    int mask = keys.length - 1;
+    int index = indexFor(key, keys.length);
+    while (values[index] != null) {
+      index = (index + 1) & mask;
+    }
+    keys[index] = key;
+    values[index] = value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    V[] oldValues = values;
+    keys = new long[capacity];
+    values = (V[]) new Object[capacity];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldValues[i] != null) {
+        place(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+}
@@ -32,6 +32,13 @@ public class StopWatch {
     return System.nanoTime() - time;
   }
 
+  /**
+   * Returns the time difference between this method call and the creation of this StopWatch in the provided TimeUnit.
+   */
+  public long getElapsedTime(TimeUnit unit) {
+    return unit.convert(calculateTimeDifference(), TimeUnit.NANOSECONDS);
+  }
+
   /**
    * Returns a String representation of the time difference between this method call and the creation of this StopWatch.
    * If the provided TimeUnit is not mapped to an abbreviation, null is returned.
@@ -1,7 +1,7 @@
 package org.mafagafogigante.dungeon.world;
 
 import org.mafagafogigante.dungeon.date.Date;
-import org.mafagafogigante.dungeon.date.Duration;
+import org.mafagafogigante.dungeon.date.DungeonTimeUnit;
 import org.mafagafogigante.dungeon.game.Random;
 import org.mafagafogigante.dungeon.io.Version;
 import org.mafagafogigante.dungeon.util.CircularList;
@@ -10,20 +10,32 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.Serializable;
 import java.util.Arrays;
-import java.util.List;
 
 /**
  * An object that represents the weather of the world.
+ *
+ * <p>The condition changes every eight hours and depends on the two last conditions, which makes the weather a Markov
+ * chain whose states are pairs of conditions. Instead of rolling every change that happened since it was last
+ * refreshed, the Weather rolls the state after all of them at once from the powers of two of the transition matrix of
+ * the chain, so refreshing it after a long time skip is as fast as after a short one.
  */
 public class Weather implements Serializable {
 
   private static final long serialVersionUID = Version.MAJOR;
-  // Eight hours.
-  private static final Duration UPDATE_INTERVAL = new Duration(new Date(1, 1, 1, 1, 1, 1), new Date(1, 1, 1, 9, 1, 1));
+  private static final long UPDATE_INTERVAL = 8 * DungeonTimeUnit.HOUR.milliseconds;
 
   // The probability of a trend (weather getting lighter or heavier) being followed.
   private static final double TREND_FORCE = 0.6;
 
+  private static final WeatherCondition[] CONDITIONS = WeatherCondition.values();
+  private static final int STATES = CONDITIONS.length * CONDITIONS.length;
+  /**
+   * The probabilities of going from each state to each state in 2<sup>k</sup> updates, for every k such that
+   * 2<sup>k</sup> updates fit in the range of dates. The state of the conditions x and then y is x * CONDITIONS.length
+   * + y.
+   */
+  private static final double[][][] TRANSITIONS = makeTransitionPowers();
+
   private final CircularList<WeatherCondition> conditionHistory = new CircularList<>(2);
   private Date lastWeatherUpdate;
 
@@ -32,52 +44,124 @@ public class Weather implements Serializable {
    */
   public Weather(@NotNull Date date) {
     this.lastWeatherUpdate = date;
-    rollNewCondition(date);
-  }
-
-  public WeatherCondition getCurrentCondition(Date date) {
-    refresh(date);
-    return conditionHistory.get(0);
+    conditionHistory.add(Random.select(Arrays.asList(CONDITIONS)));
   }
 
-  /**
-   * Refreshes the current condition if enough time has passed. If not enough time has passed, a call is a no-op.
-   */
-  private void refresh(@NotNull Date date) {
-    if (new Duration(lastWeatherUpdate, date).compareTo(UPDATE_INTERVAL) >= 0) {
-      rollNewCondition(date);
+  private static double[][][] makeTransitionPowers() {
+    int levels = 64 - Long.numberOfLeadingZeros(Long.MAX_VALUE / UPDATE_INTERVAL);
+    double[][][] powers = new double[levels][][];
+    powers[0] = makeTransitions();
+    for (int k = 1; k < levels; k++) {
+      powers[k] = new double[STATES][];
+      for (int state = 0; state < STATES; state++) {
+        powers[k][state] = multiply(powers[k - 1][state], powers[k - 1]);
+      }
     }
+    return powers;
   }
 
   /**
-   * Randomly selects a new WeatherCondition and adds it to the condition history.
+   * Makes the matrix of the probabilities of going from each state to each state in one update.
    */
-  private void rollNewCondition(@NotNull Date date) {
-    if (conditionHistory.isEmpty()) {
-      conditionHistory.add(Random.select(Arrays.asList(WeatherCondition.values())));
-    } else {
-      final WeatherCondition lastCondition = conditionHistory.get(0);
-      if (conditionHistory.size() == 1) {
-        final List<WeatherCondition> list = Arrays.asList(lastCondition.getLighter(), lastCondition.getHeavier());
-        conditionHistory.add(Random.select(list));
-      } else { // WeatherCondition history has at least two conditions.
-        final WeatherCondition semiLastCondition = conditionHistory.get(1);
+  private static double[][] makeTransitions() {
+    double[][] transitions = new double[STATES][STATES];
+    for (WeatherCondition semiLastCondition : CONDITIONS) {
+      for (WeatherCondition lastCondition : CONDITIONS) {
+        double[] row = transitions[getState(semiLastCondition, lastCondition)];
+        WeatherCondition lighter = lastCondition.getLighter();
+        WeatherCondition heavier = lastCondition.getHeavier();
         // Try to force change in the same way so that extremes are more common.
         if (semiLastCondition.isLighterThan(lastCondition)) {
-          conditionHistory.add(Random.roll(TREND_FORCE) ? lastCondition.getHeavier() : lastCondition.getLighter());
+          row[getState(lastCondition, heavier)] += TREND_FORCE;
+          row[getState(lastCondition, lighter)] += 1 - TREND_FORCE;
         } else if (semiLastCondition.isHeavierThan(lastCondition)) {
-          conditionHistory.add(Random.roll(TREND_FORCE) ? lastCondition.getLighter() : lastCondition.getHeavier());
+          row[getState(lastCondition, lighter)] += TREND_FORCE;
+          row[getState(lastCondition, heavier)] += 1 - TREND_FORCE;
         } else { // The condition did not change, ensure change.
           // If an extreme condition follows the trend, it doesn't change, so conditions may not change.
-          if (lastCondition.getLighter() == lastCondition) {
-            conditionHistory.add(lastCondition.getHeavier());
-          } else {
-            conditionHistory.add(lastCondition.getLighter());
-          }
+          row[getState(lastCondition, lighter == lastCondition ? heavier : lighter)] += 1;
+        }
+      }
+    }
+    return transitions;
+  }
+
+  private static int getState(WeatherCondition semiLastCondition, WeatherCondition lastCondition) {
+    return semiLastCondition.ordinal() * CONDITIONS.length + lastCondition.ordinal();
+  }
+
+  /**
+   * Multiplies a row vector by a matrix.
+   */
+  private static double[] multiply(double[] vector, double[][] matrix) {
+    double[] product = new double[STATES];
+    for (int i = 0; i < STATES; i++) {
+      if (vector[i] != 0) {
+        for (int j = 0; j < STATES; j++) {
+          product[j] += vector[i] * matrix[i][j];
+        }
+      }
+    }
+    return product;
+  }
+
+  /**
+   * Selects a random index of a probability distribution.
+   */
+  private static int select(double[] distribution) {
+    double roll = Random.nextDouble();
+    int selected = 0;
+    for (int i = 0; i < distribution.length; i++) {
+      if (distribution[i] > 0) {
+        selected = i; // If rounding leaves the roll above the total, select the last possible index.
+        roll -= distribution[i];
+        if (roll < 0) {
+          break;
+        }
+      }
+    }
+    return selected;
+  }
+
+  public WeatherCondition getCurrentCondition(Date date) {
+    refresh(date);
+    return getLastCondition();
+  }
+
+  /**
+   * Returns the most recent condition, which is the last element of the history.
+   */
+  private WeatherCondition getLastCondition() {
+    return conditionHistory.get(conditionHistory.size() - 1);
+  }
+
+  /**
+   * Rolls the condition after every update that happened since the last one up to the specified date. If no update
+   * happened, a call is a no-op.
+   */
+  private void refresh(@NotNull Date date) {
+    long updates = (date.getTime() - lastWeatherUpdate.getTime()) / UPDATE_INTERVAL;
+    if (updates <= 0) {
+      return;
+    }
+    lastWeatherUpdate = new Date(lastWeatherUpdate.getTime() + updates * UPDATE_INTERVAL);
+    if (conditionHistory.size() == 1) { // Without a trend, the first change is equally likely to go either way.
+      WeatherCondition lastCondition = getLastCondition();
+      conditionHistory.add(Random.select(Arrays.asList(lastCondition.getLighter(), lastCondition.getHeavier())));
+      updates--;
+    }
+    if (updates > 0) {
+      double[] distribution = new double[STATES];
+      distribution[getState(conditionHistory.get(0), conditionHistory.get(1))] = 1;
+      for (int k = 0; updates != 0; k++, updates >>>= 1) {
+        if ((updates & 1) != 0) {
+          distribution = multiply(distribution, TRANSITIONS[k]);
         }
       }
+      int state = select(distribution);
+      conditionHistory.add(CONDITIONS[state / CONDITIONS.length]);
+      conditionHistory.add(CONDITIONS[state % CONDITIONS.length]);
     }
-    lastWeatherUpdate = date;
   }
 
 }
@@ -1,7 +1,17 @@
 package org.mafagafogigante.dungeon.achievements;
 
+import org.mafagafogigante.dungeon.game.Id;
+import org.mafagafogigante.dungeon.stats.StatisticsChange;
+import org.mafagafogigante.dungeon.util.CounterMap;
+
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
 public class AchievementStoreTest {
 
   @Test(expected = IllegalStateException.class)
@@ -26,4 +36,33 @@ public class AchievementStoreTest {
     achievementStore.addAchievement(achievementBuilder.createAchievement());
   }
 
+  @Test
+  public void getAchievementsDependingOnShouldReturnTheDependentAchievementsInOrder() throws Exception {
+    CounterMap<Id> counterMap = new CounterMap<>();
+    counterMap.incrementCounter(new Id("PLACE"));
+    AchievementBuilder visitBuilder = new AchievementBuilder();
+    visitBuilder.setId("VISIT");
+    visitBuilder.setVisitedLocations(counterMap);
+    final Achievement visit = visitBuilder.createAchievement();
+    AchievementBuilder killBuilder = new AchievementBuilder();
+    killBuilder.setId("KILL");
+    killBuilder.setKillsByLocationId(counterMap);
+    final Achievement kill = killBuilder.createAchievement();
+    AchievementBuilder bothBuilder = new AchievementBuilder();
+    bothBuilder.setId("BOTH");
+    bothBuilder.setVisitedLocations(counterMap);
+    bothBuilder.setKillsByLocationId(counterMap);
+    Achievement both = bothBuilder.createAchievement();
+    AchievementStore achievementStore = AchievementStoreFactory.makeAchievementStore(Arrays.asList(visit, kill, both));
+    List<Achievement> visitDependents = achievementStore.getAchievementsDependingOn(
+        Collections.singleton(StatisticsChange.VISIT));
+    Assert.assertEquals(Arrays.asList(visit, both), visitDependents);
+    List<Achievement> allDependents = achievementStore.getAchievementsDependingOn(
+        EnumSet.of(StatisticsChange.KILL, StatisticsChange.VISIT));
+    Assert.assertEquals(Arrays.asList(visit, kill, both), allDependents);
+    List<Achievement> battleDependents = achievementStore.getAchievementsDependingOn(
+        Collections.singleton(StatisticsChange.BATTLE));
+    Assert.assertTrue(battleDependents.isEmpty());
+  }
+
 }
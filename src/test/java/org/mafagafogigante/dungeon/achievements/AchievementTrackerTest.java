@@ -92,4 +92,27 @@ public class AchievementTrackerTest {
     Assert.assertFalse(tracker.hasNotBeenUnlocked(achievement));
   }
 
+  @Test
+  public void updateShouldUnlockAchievementsAfterTheChangesTheyDependOn() throws Exception {
+    AchievementBuilder achievementBuilder = new AchievementBuilder();
+    achievementBuilder.setId("ACHIEVEMENT");
+    CounterMap<Id> counterMap = new CounterMap<>();
+    counterMap.incrementCounter(new Id("PLACE"));
+    achievementBuilder.setKillsByLocationId(counterMap);
+    Achievement achievement = achievementBuilder.createAchievement();
+    AchievementStore achievementStore = AchievementStoreFactory.makeAchievementStore(
+        Collections.singletonList(achievement));
+    Statistics statistics = new Statistics();
+    AchievementTracker tracker = new AchievementTracker(statistics);
+    Date date = new Date(1, 1, 1);
+    tracker.update(achievementStore, date);
+    Point point = new Point(0, 0, 0);
+    statistics.getExplorationStatistics().addVisit(point, new Id("PLACE"), date);
+    tracker.update(achievementStore, date);
+    Assert.assertTrue(tracker.hasNotBeenUnlocked(achievement));
+    statistics.getExplorationStatistics().addKill(point);
+    tracker.update(achievementStore, date);
+    Assert.assertFalse(tracker.hasNotBeenUnlocked(achievement));
+  }
+
 }
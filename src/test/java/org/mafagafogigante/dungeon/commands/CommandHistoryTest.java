@@ -0,0 +1,82 @@
+package org.mafagafogigante.dungeon.commands;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+public class CommandHistoryTest {
+
+  private static final int COMMAND_COUNT = 20000;
+  private static final int READER_COUNT = 4;
+
+  @Test
+  public void cursorAtTheEndShouldStayThereWhenCommandsAreAdded() throws Exception {
+    CommandHistory history = new CommandHistory();
+    history.addCommand(new IssuedCommand("look"));
+    Assert.assertNull(history.getCursor().getSelectedCommand());
+    history.addCommand(new IssuedCommand("go north"));
+    Assert.assertNull(history.getCursor().getSelectedCommand());
+    Assert.assertEquals("go north", history.getCursor().moveUp().getSelectedCommand());
+    Assert.assertEquals("look", history.getCursor().moveUp().moveUp().getSelectedCommand());
+    Assert.assertEquals("go north", history.getCursor().moveDown().getSelectedCommand());
+    history.getCursor().moveToEnd();
+    Assert.assertNull(history.getCursor().getSelectedCommand());
+  }
+
+  @Test
+  public void snapshotsShouldBeConsistentWhileCommandsAreAdded() throws Exception {
+    final CommandHistory history = new CommandHistory();
+    final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Thread> readers = new ArrayList<>();
+    for (int i = 0; i < READER_COUNT; i++) {
+      readers.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+            int last = -1;
+            while (last < COMMAND_COUNT - 1) {
+              List<String> snapshot = history.getSnapshot();
+              for (int j = 1; j < snapshot.size(); j++) {
+                Assert.assertEquals(commandNumber(snapshot.get(j - 1)) + 1, commandNumber(snapshot.get(j)));
+              }
+              if (!snapshot.isEmpty()) {
+                int newest = commandNumber(snapshot.get(snapshot.size() - 1));
+                Assert.assertTrue(newest >= last);
+                Assert.assertNotNull(history.getLastSimilarCommand("look"));
+                last = newest;
+              }
+            }
+          } catch (Throwable throwable) {
+            failures.add(throwable);
+          }
+        }
+      }));
+    }
+    for (Thread reader : readers) {
+      reader.start();
+    }
+    start.countDown();
+    for (int i = 0; i < COMMAND_COUNT; i++) {
+      history.addCommand(new IssuedCommand("look " + i));
+    }
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    if (!failures.isEmpty()) {
+      throw new AssertionError(failures.peek());
+    }
+    Assert.assertEquals("look " + (COMMAND_COUNT - 1), history.getLastSimilarCommand(""));
+  }
+
+  private static int commandNumber(String command) {
+    return Integer.parseInt(command.substring("look ".length()));
+  }
+
+}
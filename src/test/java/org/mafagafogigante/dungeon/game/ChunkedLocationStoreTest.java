@@ -0,0 +1,100 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class ChunkedLocationStoreTest {
+
+  private static final int CHUNK_SIDE = 5;
+
+  private static Location makeLocation(int x, int y, int z) {
+    Location location = Mockito.mock(Location.class);
+    Mockito.when(location.getPoint()).thenReturn(new Point(x, y, z));
+    return location;
+  }
+
+  @Test
+  public void toChunkCoordinateShouldBeAFloorDivision() throws Exception {
+    Assert.assertEquals(0, ChunkedLocationStore.toChunkCoordinate(0, CHUNK_SIDE));
+    Assert.assertEquals(0, ChunkedLocationStore.toChunkCoordinate(4, CHUNK_SIDE));
+    Assert.assertEquals(1, ChunkedLocationStore.toChunkCoordinate(5, CHUNK_SIDE));
+    Assert.assertEquals(-1, ChunkedLocationStore.toChunkCoordinate(-1, CHUNK_SIDE));
+    Assert.assertEquals(-1, ChunkedLocationStore.toChunkCoordinate(-5, CHUNK_SIDE));
+    Assert.assertEquals(-2, ChunkedLocationStore.toChunkCoordinate(-6, CHUNK_SIDE));
+  }
+
+  @Test
+  public void makeChunkKeyShouldNotCollideForNearbyChunks() throws Exception {
+    Set<Long> keys = new HashSet<>();
+    for (int x = -8; x <= 8; x++) {
+      for (int y = -8; y <= 8; y++) {
+        for (int z = -2; z <= 0; z++) {
+          Assert.assertTrue(keys.add(ChunkedLocationStore.makeChunkKey(x, y, z)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void makeChunkKeyShouldRoundTripTheLimits() throws Exception {
+    final int max = (1 << 23) - 1;
+    final int min = -(1 << 23);
+    long key = ChunkedLocationStore.makeChunkKey(max, min, Short.MIN_VALUE);
+    Assert.assertEquals(max, ChunkedLocationStore.getChunkX(key));
+    Assert.assertEquals(min, ChunkedLocationStore.getChunkY(key));
+    Assert.assertEquals(Short.MIN_VALUE, ChunkedLocationStore.getZ(key));
+    Assert.assertNotEquals(key, ChunkedLocationStore.makeChunkKey(min, min, Short.MIN_VALUE));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void makeChunkKeyShouldRejectChunksBeyondTheLimits() throws Exception {
+    ChunkedLocationStore.makeChunkKey(1 << 23, 0, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void makeChunkKeyShouldRejectChunksBelowTheLimits() throws Exception {
+    ChunkedLocationStore.makeChunkKey(0, -(1 << 23) - 1, 0);
+  }
+
+  @Test
+  public void getShouldReturnWhatWasPut() throws Exception {
+    ChunkedLocationStore store = new ChunkedLocationStore(Mockito.mock(World.class), CHUNK_SIDE);
+    final int radius = 40;
+    for (int x = -radius; x <= radius; x++) {
+      for (int y = -radius; y <= radius; y++) {
+        store.put(makeLocation(x, y, 0));
+      }
+    }
+    int side = 2 * radius + 1;
+    Assert.assertEquals(side * side, store.getLocationCount());
+    for (int x = -radius; x <= radius; x++) {
+      for (int y = -radius; y <= radius; y++) {
+        Assert.assertEquals(new Point(x, y, 0), store.get(x, y, 0).getPoint());
+      }
+    }
+    Assert.assertNull(store.get(radius + 1, 0, 0));
+    Assert.assertNull(store.get(0, 0, -1));
+  }
+
+  @Test
+  public void containsShouldDistinguishAltitudes() throws Exception {
+    ChunkedLocationStore store = new ChunkedLocationStore(Mockito.mock(World.class), CHUNK_SIDE);
+    store.put(makeLocation(3, -7, -2));
+    Assert.assertTrue(store.contains(3, -7, -2));
+    Assert.assertFalse(store.contains(3, -7, 0));
+    Assert.assertFalse(store.contains(3, -7, -1));
+    Assert.assertEquals(1, store.getChunkCount());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void putShouldThrowAnExceptionIfThereAlreadyIsALocationAtThePoint() throws Exception {
+    ChunkedLocationStore store = new ChunkedLocationStore(Mockito.mock(World.class), CHUNK_SIDE);
+    store.put(makeLocation(1, 1, 0));
+    store.put(makeLocation(1, 1, 0));
+  }
+
+}
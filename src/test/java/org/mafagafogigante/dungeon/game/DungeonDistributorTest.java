@@ -56,7 +56,7 @@ public class DungeonDistributorTest {
 
   @Test
   public void dungeonDistributorShouldThrowExceptionIfTheSameEntranceIsRegisteredTwice() throws Exception {
-    DungeonDistributor first = new DungeonDistributor();
+    DungeonDistributor first = new DungeonDistributor(0);
     first.registerDungeonEntrance(new Point(0, 0, 0));
     try {
       first.registerDungeonEntrance(new Point(0, 0, 0));
@@ -68,10 +68,29 @@ public class DungeonDistributorTest {
 
   @Test
   public void dungeonDistributorsEntranceRegistriesShouldBeIndependent() throws Exception {
-    DungeonDistributor first = new DungeonDistributor();
+    DungeonDistributor first = new DungeonDistributor(0);
     first.registerDungeonEntrance(new Point(0, 0, 0));
-    DungeonDistributor second = new DungeonDistributor();
+    DungeonDistributor second = new DungeonDistributor(0);
     second.registerDungeonEntrance(new Point(0, 0, 0));
   }
 
+  @Test
+  public void rollForDungeonShouldNeverPlaceAnEntranceInTheZoneOfAnother() throws Exception {
+    DungeonDistributor distributor = new DungeonDistributor(42);
+    MinimumBoundingRectangle rectangle = DungeonCreator.getMinimumBoundingRectangle();
+    int entrances = 0;
+    for (int x = -50; x <= 50; x++) {
+      for (int y = -50; y <= 50; y++) {
+        Point point = new Point(x, y, 0);
+        if (distributor.rollForDungeon(point)) {
+          entrances++;
+          for (Point other : DungeonDistributor.makeNoEntrancesZonePointList(point, rectangle)) {
+            Assert.assertFalse(distributor.rollForDungeon(other));
+          }
+        }
+      }
+    }
+    Assert.assertTrue(entrances > 0);
+  }
+
 }
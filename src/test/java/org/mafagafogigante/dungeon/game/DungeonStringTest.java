@@ -35,4 +35,15 @@ public class DungeonStringTest {
     Assert.assertEquals(3, dungeonString.getLength());
   }
 
+  @Test
+  public void setColorShouldNotSplitTheStringForAnEqualColor() throws Exception {
+    DungeonString dungeonString = new DungeonString();
+    dungeonString.setColor(new Color(1, 2, 3));
+    dungeonString.append("A");
+    dungeonString.setColor(new Color(1, 2, 3));
+    dungeonString.append("B");
+    Assert.assertEquals(1, dungeonString.toColoredStringList().size());
+    Assert.assertEquals("AB", dungeonString.toColoredStringList().get(0).getString());
+  }
+
 }
@@ -1,22 +1,81 @@
 package org.mafagafogigante.dungeon.game;
 
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
 public class ExpandableIntegerSetTest {
 
   @Test(expected = IllegalArgumentException.class)
   public void testConstructorThrowsIllegalArgumentExceptionIfMinimumDifferenceIsNegative() {
-    new ExpandableIntegerSet(-1, 1);
+    new ExpandableIntegerSet(-1, 1, 0);
   }
 
   @Test(expected = IllegalArgumentException.class)
   public void testConstructorThrowsIllegalArgumentExceptionIfMinimumDifferenceIsZero() {
-    new ExpandableIntegerSet(0, 1);
+    new ExpandableIntegerSet(0, 1, 0);
   }
 
   @Test(expected = IllegalArgumentException.class)
   public void testConstructorThrowsIllegalArgumentExceptionOnMaximumDifferenceNotBiggerThanMinimumDifference() {
-    new ExpandableIntegerSet(1, 1);
+    new ExpandableIntegerSet(1, 1, 0);
+  }
+
+  @Test
+  public void setsWithTheSameSeedShouldNotDependOnTheOrderOfExpansion() throws Exception {
+    ExpandableIntegerSet first = new ExpandableIntegerSet(4, 20, 42);
+    first.expand(-100);
+    first.expand(100);
+    ExpandableIntegerSet second = new ExpandableIntegerSet(4, 20, 42);
+    second.expand(10);
+    second.expand(100);
+    second.expand(-10);
+    second.expand(-100);
+    for (int i = -100; i <= 100; i++) {
+      Assert.assertEquals(first.contains(i), second.contains(i));
+    }
+  }
+
+  @Test
+  public void containsShouldReturnTrueExactlyForTheExpandedIntegers() throws Exception {
+    ExpandableIntegerSet set = new ExpandableIntegerSet(1, 5, 7);
+    SortedSet<Integer> expected = new TreeSet<>();
+    expected.add(0); // With a minimum difference of 1, the initial integer is always 0.
+    for (int bound = 10; bound <= 10000; bound *= 10) {
+      expected.addAll(set.expand(bound));
+      expected.addAll(set.expand(-bound));
+    }
+    Assert.assertEquals(expected.size(), set.size());
+    for (int i = expected.first() - 1; i <= expected.last() + 1; i++) {
+      Assert.assertEquals(expected.contains(i), set.contains(i));
+    }
+  }
+
+  @Test
+  public void serializationShouldPreserveTheIntegersAndTheExpansions() throws Exception {
+    ExpandableIntegerSet set = new ExpandableIntegerSet(2, 9, 3);
+    set.expand(500);
+    set.expand(-500);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(set);
+    }
+    ExpandableIntegerSet copy;
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = (ExpandableIntegerSet) in.readObject();
+    }
+    Assert.assertEquals(set.size(), copy.size());
+    Assert.assertEquals(set.expand(1000), copy.expand(1000));
+    Assert.assertEquals(set.expand(-1000), copy.expand(-1000));
+    for (int i = -1000; i <= 1000; i++) {
+      Assert.assertEquals(set.contains(i), copy.contains(i));
+    }
   }
 
 }
@@ -0,0 +1,177 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.stats.WorldStatistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class GameThreadTest {
+
+  private static final int THREAD_COUNT = 4;
+  private static final int TASKS_PER_THREAD = 10000;
+  private static final int WALKED_CHUNKS = 12;
+
+  @Test
+  public void callShouldRunTasksOnTheGameThread() throws Exception {
+    Assert.assertFalse(GameThread.isCurrentThread());
+    Assert.assertTrue(GameThread.call(new Callable<Boolean>() {
+      @Override
+      public Boolean call() {
+        return GameThread.isCurrentThread() && GameThread.call(new Callable<Boolean>() {
+          @Override
+          public Boolean call() {
+            return GameThread.isCurrentThread();
+          }
+        });
+      }
+    }));
+  }
+
+  @Test
+  public void callShouldRethrowExceptionsOfTheTask() throws Exception {
+    try {
+      GameThread.call(new Callable<Void>() {
+        @Override
+        public Void call() {
+          throw new UnsupportedOperationException();
+        }
+      });
+      Assert.fail("expected an UnsupportedOperationException.");
+    } catch (UnsupportedOperationException expected) {
+      // Rethrown on the current thread.
+    }
+  }
+
+  @Test
+  public void tasksSubmittedConcurrentlyShouldNotInterfere() throws Exception {
+    final int[] counter = new int[1]; // Deliberately not synchronized, as only the game thread changes it.
+    final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            int last = 0;
+            for (int j = 0; j < TASKS_PER_THREAD; j++) {
+              GameThread.execute(new Runnable() {
+                @Override
+                public void run() {
+                  counter[0]++;
+                }
+              });
+              int read = GameThread.call(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                  return counter[0];
+                }
+              });
+              Assert.assertTrue(read > last);
+              last = read;
+            }
+          } catch (Throwable throwable) {
+            failures.add(throwable);
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    if (!failures.isEmpty()) {
+      throw new AssertionError(failures.peek());
+    }
+    Assert.assertEquals(THREAD_COUNT * TASKS_PER_THREAD, (int) GameThread.call(new Callable<Integer>() {
+      @Override
+      public Integer call() {
+        return counter[0];
+      }
+    }));
+  }
+
+  @Test
+  public void readersShouldSeeAConsistentWorldWhileItIsExpanded() throws Exception {
+    final World world = new World(new WorldStatistics(), 42);
+    final int side = new WorldGenerator(world, 42).getChunkSide();
+    final AtomicBoolean walking = new AtomicBoolean(true);
+    final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    GameThread.execute(new Runnable() {
+      int x;
+
+      @Override
+      public void run() {
+        for (int i = 0; i < side; i++, x++) {
+          Point point = new Point(x, 0, 0);
+          world.getLocation(point);
+          world.pregenerateAround(point);
+        }
+        if (x < WALKED_CHUNKS * side) {
+          GameThread.execute(this); // Let the readers in between the chunks.
+        } else {
+          walking.set(false);
+        }
+      }
+    });
+    List<Thread> readers = new ArrayList<>();
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      readers.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            int known = 0;
+            while (walking.get()) {
+              final int candidate = known;
+              boolean present = GameThread.call(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                  Point point = new Point(candidate, 0, 0);
+                  return world.alreadyHasLocationAt(point) && world.getLocation(point).getPoint().equals(point);
+                }
+              });
+              if (present) {
+                known++;
+              }
+            }
+            for (int x = 0; x < known; x++) {
+              final Point point = new Point(x, 0, 0);
+              Assert.assertTrue(GameThread.call(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                  return world.alreadyHasLocationAt(point);
+                }
+              }));
+            }
+          } catch (Throwable throwable) {
+            failures.add(throwable);
+          }
+        }
+      }));
+    }
+    for (Thread reader : readers) {
+      reader.start();
+    }
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    if (!failures.isEmpty()) {
+      throw new AssertionError(failures.peek());
+    }
+    Assert.assertTrue(GameThread.call(new Callable<Boolean>() {
+      @Override
+      public Boolean call() {
+        return world.alreadyHasLocationAt(new Point(WALKED_CHUNKS * side - 1, 0, 0));
+      }
+    }));
+  }
+
+}
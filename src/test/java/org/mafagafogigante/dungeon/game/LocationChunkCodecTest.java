@@ -0,0 +1,60 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.entity.items.Item;
+import org.mafagafogigante.dungeon.stats.WorldStatistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LocationChunkCodecTest {
+
+  private static final int CHUNK_SIDE = 5;
+
+  @Test
+  public void decodeShouldRestoreWhatWasEncoded() throws Exception {
+    World world = new World(new WorldStatistics());
+    LocationChunk chunk = new LocationChunk(CHUNK_SIDE);
+    int offset = 0;
+    for (LocationPreset preset : LocationPresetStore.getDefaultLocationPresetStore().getAllPresets()) {
+      if (offset == CHUNK_SIDE * CHUNK_SIDE) {
+        break;
+      }
+      Point point = new Point(-CHUNK_SIDE + offset / CHUNK_SIDE, 2 * CHUNK_SIDE + offset % CHUNK_SIDE, -1);
+      chunk.put(offset / CHUNK_SIDE, offset % CHUNK_SIDE, new Location(preset, world, point));
+      offset++;
+    }
+    long key = ChunkedLocationStore.makeChunkKey(-1, 2, -1);
+    LocationChunk decoded = LocationChunkCodec.decode(key, LocationChunkCodec.encode(chunk, world), world);
+    Assert.assertEquals(chunk.size(), decoded.size());
+    for (int x = 0; x < CHUNK_SIDE; x++) {
+      for (int y = 0; y < CHUNK_SIDE; y++) {
+        Location original = chunk.get(x, y);
+        Location location = decoded.get(x, y);
+        if (original == null) {
+          Assert.assertNull(location);
+        } else {
+          Assert.assertEquals(original.getId(), location.getId());
+          Assert.assertEquals(original.getPoint(), location.getPoint());
+          Assert.assertSame(world, location.getWorld());
+          Assert.assertEquals(original.getSpawners().size(), location.getSpawners().size());
+          for (int i = 0; i < original.getSpawners().size(); i++) {
+            Spawner originalSpawner = original.getSpawners().get(i);
+            Spawner spawner = location.getSpawners().get(i);
+            Assert.assertEquals(originalSpawner.getPopulationLimit(), spawner.getPopulationLimit());
+            Assert.assertEquals(originalSpawner.getLastChange(), spawner.getLastChange());
+          }
+          Assert.assertEquals(original.getItemList().size(), location.getItemList().size());
+          for (int i = 0; i < original.getItemList().size(); i++) {
+            Item originalItem = original.getItemList().get(i);
+            Item item = location.getItemList().get(i);
+            Assert.assertEquals(originalItem.getId(), item.getId());
+            Assert.assertEquals(originalItem.getDateOfCreation(), item.getDateOfCreation());
+            Assert.assertEquals(originalItem.getIntegrity().getCurrent(), item.getIntegrity().getCurrent());
+            Assert.assertSame(location.getInventory(), item.getInventory());
+          }
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,45 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.entity.creatures.Creature;
+import org.mafagafogigante.dungeon.entity.creatures.CreaturePreset;
+import org.mafagafogigante.dungeon.stats.WorldStatistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Iterator;
+
+public class LocationTest {
+
+  private static Location makeLocation(World world) {
+    LocationPreset preset = LocationPresetStore.getDefaultLocationPresetStore().getAllPresets().iterator().next();
+    return new Location(preset, world, new Point(0, 0, 0));
+  }
+
+  @Test
+  public void getCreatureCountShouldFollowAddedAndRemovedCreatures() throws Exception {
+    World world = new World(new WorldStatistics());
+    Location location = makeLocation(world);
+    Iterator<CreaturePreset> presets = world.getCreatureFactory().getPresets().iterator();
+    CreaturePreset first = presets.next();
+    CreaturePreset second = presets.next();
+    Creature creature = new Creature(first);
+    location.addCreature(creature);
+    location.addCreature(new Creature(first));
+    location.addCreature(new Creature(second));
+    Assert.assertEquals(2, location.getCreatureCount(first.getId()));
+    Assert.assertEquals(1, location.getCreatureCount(second.getId()));
+    location.removeCreature(creature);
+    Assert.assertEquals(1, location.getCreatureCount(first.getId()));
+    location.removeCreature(creature);
+    Assert.assertEquals(1, location.getCreatureCount(first.getId()));
+    Assert.assertEquals(2, location.getCreatureCount());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void getCreaturesShouldNotAllowChangesThatBypassTheCounts() throws Exception {
+    World world = new World(new WorldStatistics());
+    makeLocation(world).getCreatures().add(new Creature(world.getCreatureFactory().getPresets().iterator().next()));
+  }
+
+}
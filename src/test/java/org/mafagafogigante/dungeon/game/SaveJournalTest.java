@@ -0,0 +1,213 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.entity.items.Item;
+import org.mafagafogigante.dungeon.entity.items.ItemFactory;
+import org.mafagafogigante.dungeon.io.SaveCodec;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+
+public class SaveJournalTest {
+
+  private static final long SEED = 42;
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void savingAgainShouldOnlyAppendWhatChanged() throws Exception {
+    GameState gameState = new GameState();
+    File file = new File(temporaryFolder.getRoot(), "journal.dungeon");
+    long fullSaveLength = SaveJournal.save(gameState, file);
+    Assert.assertEquals(fullSaveLength, file.length());
+    Assert.assertTrue(SaveJournal.isJournaledTo(gameState, file));
+    long deltaSaveLength = SaveJournal.save(gameState, file);
+    Assert.assertTrue(deltaSaveLength < fullSaveLength);
+    Assert.assertEquals(fullSaveLength + deltaSaveLength, file.length());
+  }
+
+  @Test
+  public void savingToAnotherFileInBetweenShouldStillOnlyAppendWhatChanged() throws Exception {
+    GameState gameState = new GameState(SEED);
+    File first = new File(temporaryFolder.getRoot(), "first.dungeon");
+    File second = new File(temporaryFolder.getRoot(), "second.dungeon");
+    long firstFullSaveLength = SaveJournal.save(gameState, first);
+    final long secondFullSaveLength = SaveJournal.save(gameState, second);
+    Point point = new Point(100, 100, 0);
+    gameState.getWorld().getLocation(point);
+    long firstDeltaSaveLength = SaveJournal.save(gameState, first);
+    Assert.assertEquals(firstFullSaveLength + firstDeltaSaveLength, first.length());
+    Assert.assertTrue(SaveJournal.isJournaledTo(gameState, second));
+    long secondDeltaSaveLength = SaveJournal.save(gameState, second);
+    Assert.assertEquals(secondFullSaveLength + secondDeltaSaveLength, second.length());
+    // Saving to the first file did not make the second one miss the chunks that changed.
+    Assert.assertTrue(SaveJournal.load(first).getWorld().alreadyHasLocationAt(point));
+    Assert.assertTrue(SaveJournal.load(second).getWorld().alreadyHasLocationAt(point));
+    // Nothing changed since both files were written.
+    long emptySaveLength = SaveJournal.save(gameState, first);
+    Assert.assertEquals(emptySaveLength, SaveJournal.save(gameState, second));
+  }
+
+  @Test
+  public void savingALoadedGameStateToAnotherFileShouldKeepReadingTheFileItWasLoadedFrom() throws Exception {
+    GameState gameState = new GameState(SEED);
+    File file = new File(temporaryFolder.getRoot(), "journal.dungeon");
+    File other = new File(temporaryFolder.getRoot(), "other.dungeon");
+    Point point = new Point(100, 100, 0);
+    final Id id = gameState.getWorld().getLocation(point).getId();
+    SaveJournal.save(gameState, file);
+    GameState loadedGameState = SaveJournal.load(file);
+    SaveJournal.save(loadedGameState, other);
+    long deltaSaveLength = SaveJournal.save(loadedGameState, file);
+    Assert.assertTrue(deltaSaveLength < other.length());
+    Assert.assertEquals(id, loadedGameState.getWorld().getLocation(point).getId());
+    Assert.assertEquals(id, SaveJournal.load(other).getWorld().getLocation(point).getId());
+  }
+
+  @Test
+  public void loadShouldAttachTheHeroToItsLocation() throws Exception {
+    GameState gameState = new GameState();
+    File file = new File(temporaryFolder.getRoot(), "journal.dungeon");
+    SaveJournal.save(gameState, file);
+    SaveJournal.save(gameState, file);
+    GameState loadedGameState = SaveJournal.load(file);
+    Location location = loadedGameState.getHero().getLocation();
+    Assert.assertEquals(gameState.getHero().getLocation().getPoint(), location.getPoint());
+    Assert.assertEquals(gameState.getHero().getLocation().getId(), location.getId());
+    Assert.assertSame(loadedGameState.getWorld(), location.getWorld());
+    Assert.assertTrue(location.getCreatures().contains(loadedGameState.getHero()));
+  }
+
+  @Test
+  public void loadShouldIgnoreAnIncompleteSave() throws Exception {
+    GameState gameState = new GameState();
+    File file = new File(temporaryFolder.getRoot(), "journal.dungeon");
+    SaveJournal.save(gameState, file);
+    try (FileOutputStream out = new FileOutputStream(file, true)) {
+      out.write(new byte[] {2, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 42});
+    }
+    GameState loadedGameState = SaveJournal.load(file);
+    Assert.assertEquals(gameState.getHero().getLocation().getId(), loadedGameState.getHero().getLocation().getId());
+    // Saving again should drop the incomplete record.
+    long deltaSaveLength = SaveJournal.save(loadedGameState, file);
+    Assert.assertNotNull(SaveJournal.load(file));
+    Assert.assertTrue(deltaSaveLength < file.length());
+  }
+
+  @Test
+  public void savingWithAnotherCodecShouldRewriteTheJournal() throws Exception {
+    GameState gameState = new GameState();
+    File file = new File(temporaryFolder.getRoot(), "journal.dungeon");
+    SaveJournal.save(gameState, file, SaveCodec.NONE);
+    long uncompressedLength = file.length();
+    Assert.assertEquals(uncompressedLength, gameState.getJournal(file).getLogicalLength());
+    long written = SaveJournal.save(gameState, file, SaveCodec.GZIP);
+    Assert.assertEquals(written, file.length());
+    Assert.assertTrue(file.length() < uncompressedLength);
+    SaveJournal loadedJournal = SaveJournal.load(file).getJournal(file);
+    Assert.assertEquals(SaveCodec.GZIP, loadedJournal.getCodec());
+    Assert.assertEquals(gameState.getJournal(file).getLogicalLength(), loadedJournal.getLogicalLength());
+    // Saving without a codec keeps the codec of the journal.
+    SaveJournal.save(gameState, file);
+    Assert.assertEquals(SaveCodec.GZIP, gameState.getJournal(file).getCodec());
+  }
+
+  @Test
+  public void snapshotsShouldNotChangeWithTheGameState() throws Exception {
+    GameState gameState = new GameState();
+    File file = new File(temporaryFolder.getRoot(), "journal.dungeon");
+    int locationCount = gameState.getStatistics().getWorldStatistics().getLocationCount();
+    final SaveJournal.Snapshot snapshot = SaveJournal.prepare(gameState, file, SaveCodec.DEFAULT);
+    Assert.assertFalse(file.exists());
+    Point point = new Point(100, 100, 0);
+    gameState.getWorld().getLocation(point);
+    Assert.assertTrue(gameState.getStatistics().getWorldStatistics().getLocationCount() > locationCount);
+    long written = snapshot.write();
+    Assert.assertEquals(written, file.length());
+    GameState loadedGameState = SaveJournal.load(file);
+    Assert.assertEquals(locationCount, loadedGameState.getStatistics().getWorldStatistics().getLocationCount());
+    Assert.assertFalse(loadedGameState.getWorld().alreadyHasLocationAt(point));
+  }
+
+  @Test
+  public void loadShouldOnlyDecodeTheChunkOfTheHero() throws Exception {
+    GameState gameState = new GameState();
+    File file = new File(temporaryFolder.getRoot(), "journal.dungeon");
+    Point point = new Point(100, 100, 0);
+    gameState.getWorld().getLocation(point);
+    SaveJournal.save(gameState, file, SaveCodec.DEFAULT);
+    Assert.assertTrue(gameState.getWorld().getResidentChunkCount() > 1);
+    GameState loadedGameState = SaveJournal.load(file);
+    Assert.assertEquals(1, loadedGameState.getWorld().getResidentChunkCount());
+    Location location = loadedGameState.getWorld().getLocation(point);
+    Assert.assertEquals(gameState.getWorld().getLocation(point).getId(), location.getId());
+    Assert.assertEquals(2, loadedGameState.getWorld().getResidentChunkCount());
+    // Rewriting the file it was loaded from should keep the chunks that were not decoded.
+    SaveJournal.save(loadedGameState, file, SaveCodec.NONE);
+    GameState reloadedGameState = SaveJournal.load(file);
+    Assert.assertEquals(location.getId(), reloadedGameState.getWorld().getLocation(point).getId());
+    int locationCount = gameState.getStatistics().getWorldStatistics().getLocationCount();
+    Assert.assertEquals(locationCount, reloadedGameState.getStatistics().getWorldStatistics().getLocationCount());
+  }
+
+  @Test
+  public void chunksShouldStillBeReadAfterAppendingToTheJournal() throws Exception {
+    GameState gameState = new GameState();
+    File file = new File(temporaryFolder.getRoot(), "journal.dungeon");
+    Point point = new Point(100, 100, 0);
+    final Id id = gameState.getWorld().getLocation(point).getId();
+    SaveJournal.save(gameState, file);
+    GameState loadedGameState = SaveJournal.load(file);
+    // The loaded chunks are read from the file that this save appends to.
+    SaveJournal.save(loadedGameState, file);
+    Assert.assertTrue(SaveJournal.isJournaledTo(loadedGameState, file));
+    Assert.assertEquals(id, loadedGameState.getWorld().getLocation(point).getId());
+  }
+
+  @Test
+  public void savingWhileChunksAreGeneratedInAdvanceShouldNotClaimTheirUniqueItems() throws Exception {
+    GameState gameState = new GameState(SEED);
+    World world = gameState.getWorld();
+    // Generating a chunk does not change the World, so find one with a unique item with another generator.
+    WorldGenerator generator = new WorldGenerator(world, SEED);
+    long key = 0;
+    Item uniqueItem = null;
+    for (int chunkX = 1; uniqueItem == null; chunkX++) {
+      key = ChunkedLocationStore.makeChunkKey(chunkX, 0, 0);
+      WorldGenerator.GeneratedChunk generated = generator.generate(key, world.getWorldDate());
+      if (!generated.getUniqueItemLocations().isEmpty()) {
+        for (Item item : generated.getUniqueItemLocations().get(0).getItemList()) {
+          if (world.getItemFactory().isUnique(item.getId())) {
+            uniqueItem = item;
+          }
+        }
+      }
+    }
+    Point point = new Point(ChunkedLocationStore.getChunkX(key) * generator.getChunkSide(), 0, 0);
+    world.pregenerateAround(point);
+    File file = new File(temporaryFolder.getRoot(), "journal.dungeon");
+    SaveJournal.save(gameState, file);
+    ItemFactory loadedItemFactory = SaveJournal.load(file).getWorld().getItemFactory();
+    Assert.assertTrue(loadedItemFactory.canMakeItem(uniqueItem.getId()));
+    // Committing the chunk registers the item.
+    world.getLocation(point);
+    Assert.assertFalse(world.getItemFactory().canMakeItem(uniqueItem.getId()));
+  }
+
+  @Test(expected = SaveJournal.UnsupportedSaveException.class)
+  public void loadShouldRejectSavesThatAreNotJournals() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "old.dungeon");
+    // Saves used to be a serialized GameState.
+    try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+      out.writeObject(new GameState().getStatistics());
+    }
+    SaveJournal.load(file);
+  }
+
+}
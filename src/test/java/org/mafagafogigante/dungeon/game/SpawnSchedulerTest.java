@@ -0,0 +1,87 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.entity.creatures.Creature;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+public class SpawnSchedulerTest {
+
+  private World world;
+
+  /**
+   * Makes a GameState current, as Creatures are counted in the statistics of the current GameState.
+   */
+  @Before
+  public void setUp() throws Exception {
+    Game.setGameState(new GameState());
+    world = Game.getGameState().getWorld();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    Game.unsetGameState();
+  }
+
+  private Location findLocationWithSpawners() {
+    for (int x = 1; ; x++) {
+      Location location = world.getLocation(new Point(x, 0, 0));
+      if (!location.getSpawners().isEmpty()) {
+        return location;
+      }
+    }
+  }
+
+  private static void removeCreatures(Location location) {
+    for (Creature creature : new ArrayList<>(location.getCreatures())) {
+      location.removeCreature(creature);
+    }
+  }
+
+  @Test
+  public void spawnersShouldKeepSpawningAfterTheHeroLeaves() throws Exception {
+    Location location = findLocationWithSpawners();
+    world.refreshSpawners(location);
+    removeCreatures(location);
+    for (Spawner spawner : location.getSpawners()) {
+      Assert.assertTrue(spawner.canSpawn());
+    }
+    world.rollDate(1000L * 24 * 60 * 60);
+    world.refreshSpawners(world.getLocation(new Point(0, 0, 0)));
+    for (Spawner spawner : location.getSpawners()) {
+      Assert.assertFalse(spawner.canSpawn());
+    }
+  }
+
+  @Test
+  public void spawnersShouldOnlySpawnWhenTheyAreDue() throws Exception {
+    Location location = findLocationWithSpawners();
+    world.refreshSpawners(location);
+    removeCreatures(location);
+    long nextSpawnTime = Long.MAX_VALUE;
+    for (Spawner spawner : location.getSpawners()) {
+      nextSpawnTime = Math.min(nextSpawnTime, spawner.getNextSpawnTime());
+    }
+    world.rollDate((nextSpawnTime - world.getWorldDate().getTime()) / 1000 - 1);
+    world.refreshSpawners(location);
+    Assert.assertEquals(0, location.getCreatureCount());
+    world.rollDate(1);
+    world.refreshSpawners(location);
+    Assert.assertTrue(location.getCreatureCount() > 0);
+  }
+
+  @Test
+  public void spawnersShouldNotSpawnBeforeTheHeroHasBeenToTheirLocation() throws Exception {
+    Location location = findLocationWithSpawners();
+    world.rollDate(1000L * 24 * 60 * 60);
+    world.refreshSpawners(world.getLocation(new Point(0, 0, 0)));
+    Assert.assertEquals(0, location.getCreatureCount());
+    world.refreshSpawners(location);
+    Assert.assertTrue(location.getCreatureCount() > 0);
+  }
+
+}
@@ -0,0 +1,15 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SplitMix64Test {
+
+  @Test
+  public void nextDoubleOfASeedShouldBeTheFirstDoubleOfTheGenerator() throws Exception {
+    for (long seed = -100; seed <= 100; seed++) {
+      Assert.assertEquals(new SplitMix64(seed).nextDouble(), SplitMix64.nextDouble(seed), 0.0);
+    }
+  }
+
+}
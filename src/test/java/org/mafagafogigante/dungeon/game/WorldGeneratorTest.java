@@ -0,0 +1,116 @@
+package org.mafagafogigante.dungeon.game;
+
+import org.mafagafogigante.dungeon.entity.items.Item;
+import org.mafagafogigante.dungeon.stats.WorldStatistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class WorldGeneratorTest {
+
+  private static final long SEED = 42;
+  private static final int CHUNK_RADIUS = 4;
+
+  private static boolean hasUniqueItems(Location location) {
+    for (Item item : location.getItemList()) {
+      if (!location.getWorld().getItemFactory().canMakeItem(item.getId())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void assertSameLocation(Location expected, Location actual) {
+    Assert.assertEquals(expected.getId(), actual.getId());
+    Assert.assertEquals(expected.getPoint(), actual.getPoint());
+    Assert.assertEquals(expected.getSpawners().size(), actual.getSpawners().size());
+    for (int i = 0; i < expected.getSpawners().size(); i++) {
+      Spawner expectedSpawner = expected.getSpawners().get(i);
+      Assert.assertEquals(expectedSpawner.getPopulationLimit(), actual.getSpawners().get(i).getPopulationLimit());
+    }
+    if (hasUniqueItems(expected) || hasUniqueItems(actual)) {
+      return; // Only the first Location to roll a unique item gets it.
+    }
+    List<Item> expectedItems = expected.getItemList();
+    Assert.assertEquals(expectedItems.size(), actual.getItemList().size());
+    for (int i = 0; i < expectedItems.size(); i++) {
+      Item item = actual.getItemList().get(i);
+      Assert.assertEquals(expectedItems.get(i).getId(), item.getId());
+      Assert.assertEquals(expectedItems.get(i).getDateOfCreation(), item.getDateOfCreation());
+    }
+  }
+
+  @Test
+  public void chunksShouldOnlyDependOnTheSeedAndTheirPosition() throws Exception {
+    World first = new World(new WorldStatistics(), SEED);
+    World second = new World(new WorldStatistics(), SEED);
+    int side = new WorldGenerator(first, SEED).getChunkSide();
+    for (int chunkX = -CHUNK_RADIUS; chunkX <= CHUNK_RADIUS; chunkX++) {
+      for (int chunkY = -CHUNK_RADIUS; chunkY <= CHUNK_RADIUS; chunkY++) {
+        first.getLocation(new Point(chunkX * side, chunkY * side, 0));
+        second.getLocation(new Point(-chunkX * side, -chunkY * side, 0));
+      }
+    }
+    int limit = (CHUNK_RADIUS + 1) * side;
+    for (int x = -CHUNK_RADIUS * side; x < limit; x++) {
+      for (int y = -CHUNK_RADIUS * side; y < limit; y++) {
+        for (int z = -2; z <= 0; z++) {
+          Point point = new Point(x, y, z);
+          Assert.assertEquals(first.alreadyHasLocationAt(point), second.alreadyHasLocationAt(point));
+          if (first.alreadyHasLocationAt(point)) {
+            assertSameLocation(first.getLocation(point), second.getLocation(point));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void regenerateChunkShouldMakeTheChunkThatWasGenerated() throws Exception {
+    World world = new World(new WorldStatistics(), SEED);
+    int side = new WorldGenerator(world, SEED).getChunkSide();
+    int regenerated = 0;
+    for (int chunkX = -CHUNK_RADIUS; chunkX <= CHUNK_RADIUS; chunkX++) {
+      world.getLocation(new Point(chunkX * side, 0, 0));
+      LocationChunk chunk;
+      try {
+        chunk = world.regenerateChunk(ChunkedLocationStore.makeChunkKey(chunkX, 0, 0), world.getWorldDate());
+      } catch (IllegalStateException dungeon) {
+        continue; // Chunks that create dungeons are never generated again.
+      }
+      for (int offsetX = 0; offsetX < side; offsetX++) {
+        for (int offsetY = 0; offsetY < side; offsetY++) {
+          Location location = world.getLocation(new Point(chunkX * side + offsetX, offsetY, 0));
+          assertSameLocation(location, chunk.get(offsetX, offsetY));
+        }
+      }
+      regenerated++;
+    }
+    Assert.assertTrue(regenerated > 0);
+  }
+
+  @Test
+  public void pregeneratedChunksShouldBeTheChunksThatWouldHaveBeenGenerated() throws Exception {
+    WorldStatistics pregeneratedStatistics = new WorldStatistics();
+    World pregenerated = new World(pregeneratedStatistics, SEED);
+    WorldStatistics generatedStatistics = new WorldStatistics();
+    World generated = new World(generatedStatistics, SEED);
+    pregenerated.pregenerateAround(new Point(0, 0, 0));
+    int side = new WorldGenerator(generated, SEED).getChunkSide();
+    for (int x = -CHUNK_RADIUS * side; x < (CHUNK_RADIUS + 1) * side; x++) {
+      for (int y = -CHUNK_RADIUS * side; y < (CHUNK_RADIUS + 1) * side; y++) {
+        for (int z = -2; z <= 0; z++) {
+          Point point = new Point(x, y, z);
+          if (generated.hasLocationAt(point)) {
+            Assert.assertTrue(pregenerated.hasLocationAt(point));
+            assertSameLocation(generated.getLocation(point), pregenerated.getLocation(point));
+          }
+        }
+      }
+    }
+    Assert.assertEquals(generatedStatistics.getLocationCount(), pregeneratedStatistics.getLocationCount());
+  }
+
+}
@@ -5,8 +5,12 @@ import org.mafagafogigante.dungeon.game.DungeonString;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.awt.Color;
+
 import javax.swing.JTextPane;
 import javax.swing.text.Document;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.StyledDocument;
 
 public class SwappingStyledDocumentTest {
 
@@ -33,4 +37,24 @@ public class SwappingStyledDocumentTest {
     Assert.assertEquals(jTextPane.getText().length(), 0);
   }
 
+  @Test
+  public void testWriteShouldKeepTheColorOfEveryCharacter() throws Exception {
+    DungeonString string = new DungeonString();
+    string.setColor(Color.RED);
+    string.append("AB");
+    string.setColor(Color.BLUE);
+    string.append("C");
+    string.setColor(Color.RED);
+    string.append("D");
+    JTextPane jTextPane = new JTextPane();
+    SwappingStyledDocument swappingStyledDocument = new SwappingStyledDocument(jTextPane);
+    swappingStyledDocument.write(string, new WritingSpecifications(false, 0));
+    StyledDocument document = jTextPane.getStyledDocument();
+    Assert.assertEquals("ABCD", document.getText(0, document.getLength()));
+    Color[] expected = {Color.RED, Color.RED, Color.BLUE, Color.RED};
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(expected[i], StyleConstants.getForeground(document.getCharacterElement(i).getAttributes()));
+    }
+  }
+
 }
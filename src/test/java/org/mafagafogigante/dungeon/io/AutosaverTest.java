@@ -0,0 +1,146 @@
+package org.mafagafogigante.dungeon.io;
+
+import org.mafagafogigante.dungeon.game.GameState;
+import org.mafagafogigante.dungeon.game.Point;
+import org.mafagafogigante.dungeon.game.SaveJournal;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+public class AutosaverTest {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static long afterTheInterval() {
+    long interval = Autosaver.getInterval(); // Initializes the Autosaver, which starts the interval, first.
+    return System.currentTimeMillis() + interval;
+  }
+
+  @Test
+  public void autosaveShouldWaitForTheInterval() throws Exception {
+    GameState gameState = new GameState();
+    File file = new File(temporaryFolder.getRoot(), "autosave.dungeon");
+    Autosaver.recordSave(0, 0);
+    Autosaver.autosaveIfDue(gameState, file, System.currentTimeMillis());
+    Autosaver.awaitPendingSave();
+    Assert.assertFalse(file.exists());
+    Autosaver.autosaveIfDue(gameState, file, afterTheInterval());
+    Autosaver.awaitPendingSave();
+    Assert.assertTrue(file.exists());
+  }
+
+  @Test
+  public void autosaveShouldNotMarkTheGameStateSaved() throws Exception {
+    GameState gameState = new GameState();
+    File file = new File(temporaryFolder.getRoot(), "autosave.dungeon");
+    Autosaver.autosaveIfDue(gameState, file, afterTheInterval());
+    Autosaver.awaitPendingSave();
+    Assert.assertFalse(gameState.isSaved());
+    Assert.assertTrue(gameState.isAutosaved());
+    // Nothing changed since the autosave, so it is not written again.
+    long length = file.length();
+    Autosaver.autosaveIfDue(gameState, file, afterTheInterval());
+    Autosaver.awaitPendingSave();
+    Assert.assertEquals(length, file.length());
+  }
+
+  @Test
+  public void autosaveShouldBeSkippedWhileASaveIsPending() throws Exception {
+    GameState firstGameState = new GameState();
+    GameState secondGameState = new GameState();
+    File firstFile = new File(temporaryFolder.getRoot(), "first.dungeon");
+    File secondFile = new File(temporaryFolder.getRoot(), "second.dungeon");
+    final CountDownLatch latch = new CountDownLatch(1);
+    Autosaver.executor.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws InterruptedException {
+        latch.await();
+        return null;
+      }
+    });
+    try {
+      Autosaver.autosaveIfDue(firstGameState, firstFile, afterTheInterval());
+      Autosaver.autosaveIfDue(secondGameState, secondFile, afterTheInterval());
+    } finally {
+      latch.countDown();
+    }
+    Autosaver.awaitPendingSave();
+    Assert.assertTrue(firstFile.exists());
+    Assert.assertFalse(secondFile.exists());
+    Assert.assertFalse(secondGameState.isAutosaved());
+  }
+
+  @Test
+  public void failedAutosaveShouldBeReportedAndWrittenAgain() throws Exception {
+    GameState gameState = new GameState();
+    File file = new File(new File(temporaryFolder.getRoot(), "missing"), "autosave.dungeon");
+    final List<LogRecord> severeRecords = new ArrayList<>();
+    Handler handler = new Handler() {
+      @Override
+      public void publish(LogRecord record) {
+        if (record.getLevel() == Level.SEVERE) {
+          severeRecords.add(record);
+        }
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    Logger logger = Logger.getLogger("org.mafagafogigante.dungeon");
+    logger.addHandler(handler);
+    try {
+      Autosaver.autosaveIfDue(gameState, file, afterTheInterval());
+      Autosaver.awaitPendingSave();
+    } finally {
+      logger.removeHandler(handler);
+    }
+    Assert.assertEquals(1, severeRecords.size());
+    Assert.assertFalse(gameState.isAutosaved());
+    Assert.assertTrue(file.getParentFile().mkdir());
+    Autosaver.autosaveIfDue(gameState, file, afterTheInterval());
+    Autosaver.awaitPendingSave();
+    Assert.assertTrue(file.exists());
+  }
+
+  @Test
+  public void autosavesShouldAppendAfterTheUserSavesToAnotherFile() throws Exception {
+    GameState gameState = new GameState();
+    File autosaveFile = new File(temporaryFolder.getRoot(), "autosave.dungeon");
+    File userFile = new File(temporaryFolder.getRoot(), "user.dungeon");
+    Autosaver.autosaveIfDue(gameState, autosaveFile, afterTheInterval());
+    Autosaver.awaitPendingSave();
+    final SaveJournal autosaveJournal = gameState.getJournal(autosaveFile);
+    final long autosaveLength = autosaveFile.length();
+    final long userSaveLength = SaveJournal.save(gameState, userFile);
+    gameState.setSaved(true);
+    // The Engine marks the GameState unsaved whenever it changes.
+    gameState.getWorld().getLocation(new Point(100, 100, 0));
+    gameState.setSaved(false);
+    gameState.setAutosaved(false);
+    Autosaver.autosaveIfDue(gameState, autosaveFile, afterTheInterval());
+    Autosaver.awaitPendingSave();
+    Assert.assertSame(autosaveJournal, gameState.getJournal(autosaveFile));
+    Assert.assertTrue(autosaveFile.length() > autosaveLength);
+    long userDeltaSaveLength = SaveJournal.save(gameState, userFile);
+    Assert.assertEquals(userSaveLength + userDeltaSaveLength, userFile.length());
+  }
+
+}
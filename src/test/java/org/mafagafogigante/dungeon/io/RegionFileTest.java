@@ -0,0 +1,81 @@
+package org.mafagafogigante.dungeon.io;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+
+public class RegionFileTest {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static byte[] makeRecord(int length, int seed) {
+    byte[] bytes = new byte[length];
+    Arrays.fill(bytes, (byte) seed);
+    return bytes;
+  }
+
+  @Test
+  public void readShouldReturnWhatWasWritten() throws Exception {
+    try (RegionFile regionFile = new RegionFile(temporaryFolder.newFile())) {
+      regionFile.write(1L, makeRecord(10, 1));
+      regionFile.write(-1L, makeRecord(20, 2));
+      Assert.assertArrayEquals(makeRecord(10, 1), regionFile.read(1L));
+      Assert.assertArrayEquals(makeRecord(20, 2), regionFile.read(-1L));
+      Assert.assertNull(regionFile.read(0L));
+      Assert.assertEquals(2, regionFile.size());
+    }
+  }
+
+  @Test
+  public void writeShouldReplaceRecordsWithTheSameKey() throws Exception {
+    try (RegionFile regionFile = new RegionFile(temporaryFolder.newFile())) {
+      regionFile.write(1L, makeRecord(10, 1));
+      regionFile.write(1L, makeRecord(5, 2));
+      Assert.assertArrayEquals(makeRecord(5, 2), regionFile.read(1L));
+      Assert.assertEquals(1, regionFile.size());
+      Assert.assertEquals(5, regionFile.getLiveBytes());
+    }
+  }
+
+  @Test
+  public void removeShouldRemoveRecords() throws Exception {
+    try (RegionFile regionFile = new RegionFile(temporaryFolder.newFile())) {
+      regionFile.write(1L, makeRecord(10, 1));
+      regionFile.remove(1L);
+      Assert.assertFalse(regionFile.contains(1L));
+      Assert.assertNull(regionFile.read(1L));
+      Assert.assertEquals(0, regionFile.getLiveBytes());
+    }
+  }
+
+  @Test
+  public void compactionShouldPreserveLiveRecords() throws Exception {
+    File file = temporaryFolder.newFile();
+    try (RegionFile regionFile = new RegionFile(file)) {
+      final int recordLength = 64 * 1024;
+      final int records = 64;
+      for (int i = 0; i < records; i++) {
+        regionFile.write(i, makeRecord(recordLength, i));
+      }
+      // Removing most records produces enough garbage to trigger compaction.
+      for (int i = 0; i < records; i += 4) {
+        regionFile.remove(i);
+        regionFile.remove(i + 1);
+        regionFile.remove(i + 2);
+      }
+      Assert.assertEquals(records / 4, regionFile.size());
+      Assert.assertTrue(regionFile.getFile().length() < (long) records * recordLength);
+      Assert.assertEquals(file, regionFile.getFile());
+      Assert.assertFalse(regionFile.getCompactionFile().exists());
+      for (int i = 3; i < records; i += 4) {
+        Assert.assertArrayEquals(makeRecord(recordLength, i), regionFile.read(i));
+      }
+    }
+  }
+
+}
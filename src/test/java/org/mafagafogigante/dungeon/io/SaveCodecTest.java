@@ -0,0 +1,50 @@
+package org.mafagafogigante.dungeon.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class SaveCodecTest {
+
+  private static byte[] makeBytes(int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) (i % 7);
+    }
+    return bytes;
+  }
+
+  @Test
+  public void decompressShouldReturnWhatWasCompressed() throws Exception {
+    for (SaveCodec codec : SaveCodec.values()) {
+      for (int length : new int[] {0, 1, 1000}) {
+        byte[] bytes = makeBytes(length);
+        Assert.assertArrayEquals(bytes, codec.decompress(codec.compress(bytes), length));
+      }
+    }
+  }
+
+  @Test
+  public void compressShouldMakeRepetitiveBytesSmaller() throws Exception {
+    byte[] bytes = makeBytes(1000);
+    Assert.assertTrue(SaveCodec.DEFLATE.compress(bytes).length < bytes.length);
+    Assert.assertTrue(SaveCodec.GZIP.compress(bytes).length < bytes.length);
+  }
+
+  @Test(expected = IOException.class)
+  public void decompressShouldThrowAnExceptionIfTheLengthIsWrong() throws Exception {
+    byte[] bytes = makeBytes(1000);
+    SaveCodec.DEFLATE.decompress(SaveCodec.DEFLATE.compress(bytes), 999);
+  }
+
+  @Test
+  public void identifiersAndNamesShouldIdentifyCodecs() throws Exception {
+    for (SaveCodec codec : SaveCodec.values()) {
+      Assert.assertEquals(codec, SaveCodec.fromIdentifier(codec.getIdentifier()));
+      Assert.assertEquals(codec, SaveCodec.fromName(codec.toString().toUpperCase()));
+    }
+    Assert.assertNull(SaveCodec.fromName("zip"));
+  }
+
+}
@@ -0,0 +1,55 @@
+package org.mafagafogigante.dungeon.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+public class VarIntsTest {
+
+  @Test
+  public void unsignedIntsShouldBeReadAsTheyWereWritten() throws Exception {
+    int[] values = {0, 1, 127, 128, 300, 16383, 16384, Integer.MAX_VALUE};
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    for (int value : values) {
+      VarInts.writeUnsignedInt(out, value);
+    }
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    for (int value : values) {
+      Assert.assertEquals(value, VarInts.readUnsignedInt(in));
+    }
+  }
+
+  @Test
+  public void signedLongsShouldBeReadAsTheyWereWritten() throws Exception {
+    long[] values = {0, 1, -1, 63, -64, 64, -65, Long.MAX_VALUE, Long.MIN_VALUE};
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    for (long value : values) {
+      VarInts.writeSignedLong(out, value);
+    }
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    for (long value : values) {
+      Assert.assertEquals(value, VarInts.readSignedLong(in));
+    }
+  }
+
+  @Test
+  public void smallNumbersShouldTakeASingleByte() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    VarInts.writeUnsignedInt(out, 127);
+    VarInts.writeSignedLong(out, -64);
+    Assert.assertEquals(2, bytes.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void writeUnsignedIntShouldThrowAnExceptionForNegativeValues() throws Exception {
+    VarInts.writeUnsignedInt(new DataOutputStream(new ByteArrayOutputStream()), -1);
+  }
+
+}
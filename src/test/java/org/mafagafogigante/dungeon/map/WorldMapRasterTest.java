@@ -0,0 +1,138 @@
+package org.mafagafogigante.dungeon.map;
+
+import org.mafagafogigante.dungeon.game.LocationPreset;
+import org.mafagafogigante.dungeon.game.LocationPresetStore;
+import org.mafagafogigante.dungeon.game.Point;
+import org.mafagafogigante.dungeon.game.World;
+import org.mafagafogigante.dungeon.stats.ExplorationStatistics;
+import org.mafagafogigante.dungeon.stats.WorldStatistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class WorldMapRasterTest {
+
+  private static final int ROWS = 41;
+  private static final int COLUMNS = 81;
+
+  private static void see(World world, ExplorationStatistics statistics, int x, int y) {
+    Point point = new Point(x, y, 0);
+    statistics.createEntryIfNotExists(point, world.getLocation(point).getId(), world.getWorldDate());
+  }
+
+  private static void assertRasterMatchesTheWorld(World world, ExplorationStatistics statistics, WorldMapRaster raster,
+      boolean limited) {
+    IterationLimits limits = new IterationLimits(new Point(0, 0, 0), ROWS, COLUMNS);
+    WorldMapSymbol[][] matrix = new WorldMapSymbol[ROWS][COLUMNS];
+    raster.copy(limits, matrix, limited);
+    for (int y = limits.minY; y >= limits.maxY; y--) {
+      for (int x = limits.minX; x <= limits.maxX; x++) {
+        Point point = new Point(x, y, 0);
+        WorldMapSymbol expected;
+        if (!limited || statistics.hasBeenSeen(point)) {
+          expected = WorldMapSymbol.makeSymbol(world.getLocation(point));
+        } else {
+          expected = WorldMapSymbol.getNotYetGeneratedSymbol();
+        }
+        Assert.assertEquals(expected, matrix[limits.minY - y][x - limits.minX]);
+      }
+    }
+  }
+
+  @Test
+  public void copyShouldOnlyRevealSeenPointsWhenLimited() throws Exception {
+    World world = new World(new WorldStatistics());
+    ExplorationStatistics statistics = new ExplorationStatistics();
+    WorldMapRaster raster = new WorldMapRaster(world, statistics);
+    for (int x = -20; x <= 20; x++) {
+      see(world, statistics, x, x / 2);
+    }
+    assertRasterMatchesTheWorld(world, statistics, raster, true);
+    for (int y = -20; y <= 20; y++) {
+      see(world, statistics, -33, y);
+      see(world, statistics, 40, -y);
+    }
+    assertRasterMatchesTheWorld(world, statistics, raster, true);
+  }
+
+  @Test
+  public void copyShouldRevealEveryPointWhenNotLimited() throws Exception {
+    World world = new World(new WorldStatistics());
+    ExplorationStatistics statistics = new ExplorationStatistics();
+    WorldMapRaster raster = new WorldMapRaster(world, statistics);
+    see(world, statistics, 0, 0);
+    assertRasterMatchesTheWorld(world, statistics, raster, false);
+    assertRasterMatchesTheWorld(world, statistics, raster, true);
+    assertRasterMatchesTheWorld(world, statistics, raster, false);
+  }
+
+  @Test
+  public void copyShouldNotReadTheLocationsOfSeenPoints() throws Exception {
+    World world = new World(new WorldStatistics());
+    ExplorationStatistics statistics = new ExplorationStatistics();
+    WorldMapRaster raster = new WorldMapRaster(world, statistics);
+    LocationPreset preset = LocationPresetStore.getDefaultLocationPresetStore().getAllPresets().iterator().next();
+    Point point = new Point(1000, 1000, 0);
+    statistics.createEntryIfNotExists(point, preset.getId(), world.getWorldDate());
+    IterationLimits limits = new IterationLimits(point, ROWS, COLUMNS);
+    WorldMapSymbol[][] matrix = new WorldMapSymbol[ROWS][COLUMNS];
+    raster.copy(limits, matrix, true);
+    Assert.assertEquals(WorldMapSymbol.makeSymbol(preset), matrix[limits.minY - 1000][1000 - limits.minX]);
+    Assert.assertFalse(world.alreadyHasLocationAt(point));
+  }
+
+  private static void assertZoomedRasterMatchesTheWorld(World world, ExplorationStatistics statistics,
+      WorldMapRaster raster, int level) {
+    IterationLimits limits = new IterationLimits(new Point(0, 0, 0), ROWS, COLUMNS);
+    WorldMapSymbol[][] matrix = new WorldMapSymbol[ROWS][COLUMNS];
+    raster.copyZoomed(limits, matrix, level);
+    for (int blockY = limits.minY; blockY >= limits.maxY; blockY--) {
+      for (int blockX = limits.minX; blockX <= limits.maxX; blockX++) {
+        Map<WorldMapSymbol, Integer> counts = new HashMap<>();
+        int maximum = 0;
+        for (int x = blockX << level; x < (blockX + 1) << level; x++) {
+          for (int y = blockY << level; y < (blockY + 1) << level; y++) {
+            Point point = new Point(x, y, 0);
+            if (statistics.hasBeenSeen(point)) {
+              WorldMapSymbol symbol = WorldMapSymbol.makeSymbol(world.getLocation(point));
+              int count = counts.containsKey(symbol) ? counts.get(symbol) + 1 : 1;
+              counts.put(symbol, count);
+              maximum = Math.max(maximum, count);
+            }
+          }
+        }
+        WorldMapSymbol actual = matrix[limits.minY - blockY][blockX - limits.minX];
+        if (counts.isEmpty()) {
+          Assert.assertEquals(WorldMapSymbol.getNotYetGeneratedSymbol(), actual);
+        } else {
+          Assert.assertEquals(maximum, (int) counts.get(actual));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void copyZoomedShouldShowTheMostCommonSeenSymbolOfEachBlock() throws Exception {
+    World world = new World(new WorldStatistics());
+    ExplorationStatistics statistics = new ExplorationStatistics();
+    WorldMapRaster raster = new WorldMapRaster(world, statistics);
+    for (int x = -40; x <= 40; x++) {
+      for (int y = -10; y <= 10; y++) {
+        see(world, statistics, x, y);
+      }
+    }
+    assertZoomedRasterMatchesTheWorld(world, statistics, raster, 1);
+    for (int x = -10; x <= 10; x++) {
+      for (int y = -60; y <= 60; y++) {
+        see(world, statistics, x, y);
+      }
+    }
+    for (int level = 1; level <= WorldMapRaster.MAX_ZOOM_LEVEL; level++) {
+      assertZoomedRasterMatchesTheWorld(world, statistics, raster, level);
+    }
+  }
+
+}
@@ -0,0 +1,36 @@
+package org.mafagafogigante.dungeon.map;
+
+import org.mafagafogigante.dungeon.game.ColoredString;
+import org.mafagafogigante.dungeon.game.DungeonString;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class WorldMapWriterTest {
+
+  @Test
+  public void appendSymbolsShouldAppendOneColoredStringPerRunOfTheSameColor() throws Exception {
+    WorldMapSymbol hero = WorldMapSymbol.getHeroSymbol();
+    WorldMapSymbol unknown = WorldMapSymbol.getNotYetGeneratedSymbol();
+    WorldMapSymbol[][] matrix = {
+        {hero, hero, hero},
+        {unknown, unknown, unknown},
+        {unknown, hero, hero},
+        {hero, unknown, unknown},
+        {hero, hero, hero}
+    };
+    DungeonString string = new DungeonString();
+    WorldMapWriter.appendSymbols(matrix, string);
+    List<ColoredString> coloredStrings = string.toColoredStringList();
+    Assert.assertEquals(3, coloredStrings.size());
+    Assert.assertEquals("~~~\n~", coloredStrings.get(0).getString());
+    Assert.assertEquals(unknown.getColor(), coloredStrings.get(0).getColor());
+    Assert.assertEquals("@@\n@", coloredStrings.get(1).getString());
+    Assert.assertEquals(hero.getColor(), coloredStrings.get(1).getColor());
+    Assert.assertEquals("~~\n", coloredStrings.get(2).getString());
+    Assert.assertEquals(unknown.getColor(), coloredStrings.get(2).getColor());
+  }
+
+}
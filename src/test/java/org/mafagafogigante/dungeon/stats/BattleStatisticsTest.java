@@ -0,0 +1,73 @@
+package org.mafagafogigante.dungeon.stats;
+
+import org.mafagafogigante.dungeon.achievements.BattleStatisticsQuery;
+import org.mafagafogigante.dungeon.achievements.BattleStatisticsRequirement;
+import org.mafagafogigante.dungeon.entity.creatures.Creature;
+import org.mafagafogigante.dungeon.entity.creatures.CreaturePreset;
+import org.mafagafogigante.dungeon.game.Id;
+import org.mafagafogigante.dungeon.game.PartOfDay;
+import org.mafagafogigante.dungeon.util.Percentage;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+public class BattleStatisticsTest {
+
+  private static final CauseOfDeath UNARMED = CauseOfDeath.getUnarmedCauseOfDeath();
+  private static final CauseOfDeath AXE = new CauseOfDeath(TypeOfCauseOfDeath.WEAPON, new Id("AXE"));
+
+  private static Creature makeCreature(String id, String type) {
+    CreaturePreset preset = new CreaturePreset();
+    preset.setId(new Id(id));
+    preset.setType(type);
+    preset.setHealth(1);
+    preset.setVisibility(Percentage.fromString("80%"));
+    return new Creature(preset);
+  }
+
+  private static BattleStatisticsRequirement makeRequirement(String type, CauseOfDeath causeOfDeath, int count) {
+    BattleStatisticsQuery query = new BattleStatisticsQuery();
+    query.setType(type);
+    query.setCauseOfDeath(causeOfDeath);
+    return new BattleStatisticsRequirement(query, count);
+  }
+
+  @Test
+  public void satisfiesShouldCountTheBattlesAddedAfterTheFirstEvaluation() throws Exception {
+    BattleStatistics statistics = new BattleStatistics();
+    statistics.addBattle(makeCreature("COW", "BEAST"), UNARMED, PartOfDay.DAWN);
+    statistics.addBattle(makeCreature("BAT", "BEAST"), AXE, PartOfDay.NIGHT);
+    statistics.addBattle(makeCreature("ORC", "ORC"), UNARMED, PartOfDay.NOON);
+    BattleStatisticsRequirement twoUnarmedBeasts = makeRequirement("BEAST", UNARMED, 2);
+    BattleStatisticsRequirement anyThree = new BattleStatisticsRequirement(new BattleStatisticsQuery(), 3);
+    Assert.assertFalse(statistics.satisfies(twoUnarmedBeasts));
+    Assert.assertTrue(statistics.satisfies(anyThree));
+    statistics.addBattle(makeCreature("ORC", "ORC"), UNARMED, PartOfDay.DAWN);
+    Assert.assertFalse(statistics.satisfies(twoUnarmedBeasts));
+    statistics.addBattle(makeCreature("COW", "BEAST"), UNARMED, PartOfDay.DAWN);
+    Assert.assertTrue(statistics.satisfies(twoUnarmedBeasts));
+    Assert.assertFalse(statistics.satisfies(makeRequirement("DRAGON", null, 1)));
+  }
+
+  @Test
+  public void satisfiesShouldCountTheBattlesAddedBeforeSerialization() throws Exception {
+    BattleStatistics statistics = new BattleStatistics();
+    statistics.addBattle(makeCreature("COW", "BEAST"), UNARMED, PartOfDay.DAWN);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(statistics);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      BattleStatistics loaded = (BattleStatistics) in.readObject();
+      loaded.addBattle(makeCreature("COW", "BEAST"), UNARMED, PartOfDay.DAWN);
+      Assert.assertTrue(loaded.satisfies(makeRequirement("BEAST", UNARMED, 2)));
+      Assert.assertFalse(loaded.satisfies(makeRequirement("BEAST", UNARMED, 3)));
+    }
+  }
+
+}
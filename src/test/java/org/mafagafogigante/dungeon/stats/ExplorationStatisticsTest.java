@@ -0,0 +1,72 @@
+package org.mafagafogigante.dungeon.stats;
+
+import org.mafagafogigante.dungeon.date.Date;
+import org.mafagafogigante.dungeon.game.Id;
+import org.mafagafogigante.dungeon.game.PartOfDay;
+import org.mafagafogigante.dungeon.game.Point;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+public class ExplorationStatisticsTest {
+
+  private static final Id FOREST = new Id("FOREST");
+  private static final Id CAVE = new Id("CAVE");
+  private static final Date DAWN = new Date(1, 1, 1, PartOfDay.DAWN.getStartingHour(), 0, 0);
+  private static final Date NOON = new Date(1, 1, 1, PartOfDay.NOON.getStartingHour(), 0, 0);
+
+  private static ExplorationStatistics makeStatistics() {
+    ExplorationStatistics statistics = new ExplorationStatistics();
+    statistics.addVisit(new Point(0, 0, 0), FOREST, DAWN);
+    statistics.addVisit(new Point(0, 0, 0), FOREST, NOON);
+    statistics.addVisit(new Point(0, 0, 0), FOREST, NOON);
+    statistics.addKill(new Point(0, 0, 0));
+    statistics.addVisit(new Point(1, 0, 0), FOREST, NOON);
+    statistics.addKill(new Point(1, 0, 0));
+    statistics.addKill(new Point(1, 0, 0));
+    statistics.createEntryIfNotExists(new Point(2, 0, 0), FOREST, NOON);
+    statistics.createEntryIfNotExists(new Point(3, 0, 0), CAVE, NOON);
+    return statistics;
+  }
+
+  private static void assertQueries(ExplorationStatistics statistics) {
+    Assert.assertEquals(2, statistics.getVisitedLocations(FOREST));
+    Assert.assertEquals(0, statistics.getVisitedLocations(CAVE));
+    Assert.assertEquals(3, statistics.getKillCount(FOREST));
+    Assert.assertEquals(0, statistics.getKillCount(CAVE));
+    Assert.assertEquals(3, statistics.getMaximumNumberOfVisits(FOREST));
+    Assert.assertEquals(0, statistics.getMaximumNumberOfVisits(CAVE));
+    Assert.assertEquals(1, statistics.getLocationsDiscoveredDuringPartOfDay(PartOfDay.DAWN));
+    Assert.assertEquals(3, statistics.getLocationsDiscoveredDuringPartOfDay(PartOfDay.NOON));
+    Assert.assertEquals(0, statistics.getLocationsDiscoveredDuringPartOfDay(PartOfDay.NIGHT));
+  }
+
+  @Test
+  public void queriesShouldAggregateTheEntries() throws Exception {
+    assertQueries(makeStatistics());
+  }
+
+  @Test
+  public void queriesShouldAggregateTheEntriesAfterDeserialization() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(makeStatistics());
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      ExplorationStatistics statistics = (ExplorationStatistics) in.readObject();
+      // Change the statistics before querying them, so that the rollups are remade before the change.
+      statistics.addVisit(new Point(3, 0, 0), CAVE, NOON);
+      Assert.assertEquals(1, statistics.getVisitedLocations(CAVE));
+      Assert.assertEquals(1, statistics.getMaximumNumberOfVisits(CAVE));
+      Assert.assertEquals(3, statistics.getLocationsDiscoveredDuringPartOfDay(PartOfDay.NOON));
+      statistics.addKill(new Point(0, 0, 0));
+      Assert.assertEquals(4, statistics.getKillCount(FOREST));
+    }
+  }
+
+}
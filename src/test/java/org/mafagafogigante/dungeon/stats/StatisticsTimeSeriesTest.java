@@ -0,0 +1,112 @@
+package org.mafagafogigante.dungeon.stats;
+
+import org.mafagafogigante.dungeon.date.Date;
+import org.mafagafogigante.dungeon.date.DungeonTimeUnit;
+import org.mafagafogigante.dungeon.stats.StatisticsTimeSeries.Series;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringWriter;
+
+public class StatisticsTimeSeriesTest {
+
+  private static final Date FIRST_DAY = new Date(1, 1, 1, 8, 0, 0);
+
+  /**
+   * Returns the same time of the day as FIRST_DAY, the specified number of days after it.
+   */
+  private static Date day(int days) {
+    return new Date(FIRST_DAY.getTime() + days * DungeonTimeUnit.DAY.milliseconds);
+  }
+
+  @Test
+  public void recordShouldAddTheGrowthOfTheTotalToTheBucketOfTheDay() throws Exception {
+    StatisticsTimeSeries timeSeries = new StatisticsTimeSeries();
+    timeSeries.record(Series.KILLS, FIRST_DAY, 2);
+    timeSeries.record(Series.KILLS, FIRST_DAY.plus(10, DungeonTimeUnit.HOUR), 5);
+    timeSeries.record(Series.KILLS, day(1), 6);
+    timeSeries.record(Series.SPAWNS, day(1), 40);
+    Assert.assertEquals(5, timeSeries.get(Series.KILLS, FIRST_DAY));
+    Assert.assertEquals(1, timeSeries.get(Series.KILLS, day(1)));
+    Assert.assertEquals(0, timeSeries.get(Series.SPAWNS, FIRST_DAY));
+    Assert.assertEquals(40, timeSeries.get(Series.SPAWNS, day(1)));
+    Assert.assertEquals(0, timeSeries.get(Series.KILLS, day(2)));
+  }
+
+  @Test
+  public void recordShouldOnlyKeepTheMostRecentDays() throws Exception {
+    StatisticsTimeSeries timeSeries = new StatisticsTimeSeries(3);
+    for (int day = 0; day < 5; day++) {
+      timeSeries.record(Series.KILLS, day(day), (day + 1) * 10);
+    }
+    Assert.assertEquals(0, timeSeries.get(Series.KILLS, day(1)));
+    for (int day = 2; day < 5; day++) {
+      Assert.assertEquals(10, timeSeries.get(Series.KILLS, day(day)));
+    }
+    // A skip longer than the buffer empties every bucket.
+    timeSeries.record(Series.DAMAGE_TAKEN, day(100), 7);
+    Assert.assertEquals(0, timeSeries.get(Series.KILLS, day(99)));
+    Assert.assertEquals(7, timeSeries.get(Series.DAMAGE_TAKEN, day(100)));
+    // Days that are no longer kept are not recorded.
+    timeSeries.record(Series.KILLS, FIRST_DAY, 60);
+    Assert.assertEquals(0, timeSeries.get(Series.KILLS, FIRST_DAY));
+  }
+
+  private static byte[] serialize(StatisticsTimeSeries timeSeries) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(timeSeries);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static StatisticsTimeSeries deserialize(byte[] bytes) throws Exception {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return (StatisticsTimeSeries) in.readObject();
+    }
+  }
+
+  @Test
+  public void serializationShouldOnlyWriteTheKeptDays() throws Exception {
+    StatisticsTimeSeries timeSeries = new StatisticsTimeSeries(3);
+    for (int day = 0; day < 5; day++) {
+      timeSeries.record(Series.KILLS, day(day), (day + 1) * 10);
+      timeSeries.record(Series.SPAWNS, day(day), day * day);
+    }
+    StatisticsTimeSeries deserialized = deserialize(serialize(timeSeries));
+    for (int day = 0; day < 6; day++) {
+      Assert.assertEquals(timeSeries.get(Series.KILLS, day(day)), deserialized.get(Series.KILLS, day(day)));
+      Assert.assertEquals(timeSeries.get(Series.SPAWNS, day(day)), deserialized.get(Series.SPAWNS, day(day)));
+    }
+    // The deserialized copy keeps recording from the same totals.
+    deserialized.record(Series.KILLS, day(5), 70);
+    Assert.assertEquals(20, deserialized.get(Series.KILLS, day(5)));
+    Assert.assertEquals(0, deserialized.get(Series.KILLS, day(2)));
+    // A game that only lasted a day writes a day of buckets instead of the whole buffer.
+    StatisticsTimeSeries shortTimeSeries = new StatisticsTimeSeries();
+    shortTimeSeries.record(Series.LOCATIONS, FIRST_DAY, 100);
+    int bufferLength = StatisticsTimeSeries.DEFAULT_CAPACITY * Series.values().length * 4;
+    Assert.assertTrue(serialize(shortTimeSeries).length < bufferLength / 10);
+    Assert.assertEquals(100, deserialize(serialize(shortTimeSeries)).get(Series.LOCATIONS, FIRST_DAY));
+  }
+
+  @Test
+  public void writeCsvShouldWriteOneRowPerKeptDay() throws Exception {
+    StatisticsTimeSeries timeSeries = new StatisticsTimeSeries();
+    timeSeries.record(Series.LOCATIONS, FIRST_DAY, 100);
+    timeSeries.record(Series.DAMAGE_INFLICTED, day(2), 12);
+    StringWriter writer = new StringWriter();
+    timeSeries.writeCsv(writer);
+    String expected = "Date,Kills,Damage inflicted,Damage taken,Spawns,Locations\n" +
+        "1-01-01,0,0,0,0,100\n" +
+        "1-01-02,0,0,0,0,0\n" +
+        "1-01-03,0,12,0,0,0\n";
+    Assert.assertEquals(expected, writer.toString());
+  }
+
+}
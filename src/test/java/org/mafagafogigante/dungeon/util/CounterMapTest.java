@@ -0,0 +1,72 @@
+package org.mafagafogigante.dungeon.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CounterMapTest {
+
+  private static <K> List<K> toList(Iterable<K> iterable) {
+    List<K> list = new ArrayList<>();
+    for (K key : iterable) {
+      list.add(key);
+    }
+    return list;
+  }
+
+  @Test
+  public void getCounterShouldReturnTheSumOfTheIncrements() throws Exception {
+    CounterMap<Integer> counterMap = new CounterMap<>();
+    for (int i = 0; i < 1000; i++) {
+      counterMap.incrementCounter(i % 300, i);
+    }
+    for (int i = 0; i < 300; i++) {
+      int expected = 0;
+      for (int j = i; j < 1000; j += 300) {
+        expected += j;
+      }
+      Assert.assertEquals(expected, counterMap.getCounter(i));
+    }
+    Assert.assertEquals(0, counterMap.getCounter(300));
+    Assert.assertEquals(300, counterMap.keySet().size());
+  }
+
+  @Test
+  public void iteratorShouldFollowTheCountersAsTheyChange() throws Exception {
+    CounterMap<String> counterMap = new CounterMap<>();
+    counterMap.incrementCounter("A");
+    counterMap.incrementCounter("B", 3);
+    counterMap.incrementCounter("C");
+    Assert.assertEquals(Arrays.asList("B", "A", "C"), toList(counterMap));
+    counterMap.incrementCounter("C", 5);
+    Assert.assertEquals(Arrays.asList("C", "B", "A"), toList(counterMap));
+    Assert.assertEquals(Arrays.asList("A", "B", "C"), toList(counterMap.keySet()));
+  }
+
+  @Test
+  public void deserializedCounterMapShouldHaveTheSameCounters() throws Exception {
+    CounterMap<String> counterMap = new CounterMap<>();
+    for (int i = 0; i < 20; i++) {
+      counterMap.incrementCounter(String.valueOf(i), i);
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(counterMap);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      @SuppressWarnings("unchecked") CounterMap<String> loaded = (CounterMap<String>) in.readObject();
+      Assert.assertEquals(toList(counterMap), toList(loaded));
+      loaded.incrementCounter("20");
+      Assert.assertEquals(1, loaded.getCounter("20"));
+      Assert.assertEquals(19, loaded.getCounter("19"));
+    }
+  }
+
+}
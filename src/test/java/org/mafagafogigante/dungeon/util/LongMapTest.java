@@ -0,0 +1,63 @@
+package org.mafagafogigante.dungeon.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongMapTest {
+
+  @Test
+  public void longMapShouldBehaveLikeAHashMap() throws Exception {
+    LongMap<Long> longMap = new LongMap<>();
+    Map<Long, Long> hashMap = new HashMap<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      // Few distinct keys, so that removals shift back long probe sequences.
+      long key = random.nextInt(512) - 256;
+      if (random.nextInt(3) == 0) {
+        Assert.assertEquals(hashMap.remove(key), longMap.remove(key));
+      } else {
+        Assert.assertEquals(hashMap.put(key, (long) i), longMap.put(key, (long) i));
+      }
+      Assert.assertEquals(hashMap.size(), longMap.size());
+    }
+    for (long key = -256; key < 256; key++) {
+      Assert.assertEquals(hashMap.containsKey(key), longMap.containsKey(key));
+      Assert.assertEquals(hashMap.get(key), longMap.get(key));
+    }
+  }
+
+  @Test
+  public void keysShouldReturnEveryKeyOnce() throws Exception {
+    LongMap<String> longMap = new LongMap<>();
+    for (long key = 0; key < 100; key++) {
+      longMap.put(key << 40, "value");
+    }
+    for (long key = 0; key < 100; key += 2) {
+      longMap.remove(key << 40);
+    }
+    long[] keys = longMap.keys();
+    Arrays.sort(keys);
+    Assert.assertEquals(50, keys.length);
+    for (int i = 0; i < keys.length; i++) {
+      Assert.assertEquals((2L * i + 1) << 40, keys[i]);
+    }
+  }
+
+  @Test
+  public void copiesShouldNotShareTheirEntries() throws Exception {
+    LongMap<String> longMap = new LongMap<>();
+    longMap.put(1, "one");
+    LongMap<String> copy = new LongMap<>(longMap);
+    copy.put(2, "two");
+    longMap.clear();
+    Assert.assertTrue(longMap.isEmpty());
+    Assert.assertEquals("one", copy.get(1));
+    Assert.assertEquals(2, copy.size());
+  }
+
+}
@@ -8,7 +8,9 @@ import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 public class WeatherTest {
@@ -46,4 +48,48 @@ public class WeatherTest {
     }
   }
 
+  @Test
+  public void skippingSeveralUpdatesShouldBeLikeUpdatingOneAtATime() {
+    final int weathers = 5000;
+    final int updates = 3;
+    Date start = new Date(10, 1, 1);
+    Map<WeatherCondition, Integer> skipping = new EnumMap<>(WeatherCondition.class);
+    Map<WeatherCondition, Integer> stepping = new EnumMap<>(WeatherCondition.class);
+    for (int i = 0; i < weathers; i++) {
+      Weather weather = new Weather(start);
+      count(skipping, weather.getCurrentCondition(start.plus(8 * updates, DungeonTimeUnit.HOUR)));
+      weather = new Weather(start);
+      for (int update = 1; update <= updates; update++) {
+        weather.getCurrentCondition(start.plus(8 * update, DungeonTimeUnit.HOUR));
+      }
+      count(stepping, weather.getCurrentCondition(start.plus(8 * updates, DungeonTimeUnit.HOUR)));
+    }
+    for (WeatherCondition condition : WeatherCondition.values()) {
+      // About five standard deviations of the difference.
+      Assert.assertEquals(getCount(stepping, condition) / (double) weathers,
+          getCount(skipping, condition) / (double) weathers, 0.05);
+    }
+  }
+
+  private static void count(Map<WeatherCondition, Integer> counts, WeatherCondition condition) {
+    counts.put(condition, getCount(counts, condition) + 1);
+  }
+
+  private static int getCount(Map<WeatherCondition, Integer> counts, WeatherCondition condition) {
+    return counts.containsKey(condition) ? counts.get(condition) : 0;
+  }
+
+  @Test
+  public void weatherShouldKeepChangingAfterAVeryLongTimeSkip() {
+    Date date = new Date(10, 1, 1).plus(100000, DungeonTimeUnit.YEAR);
+    Weather weather = new Weather(new Date(10, 1, 1));
+    Set<WeatherCondition> conditionSet = new HashSet<>();
+    conditionSet.add(weather.getCurrentCondition(date));
+    for (int update = 1; update <= 2; update++) {
+      // From any state, the condition changes in the next update or in the one after it.
+      conditionSet.add(weather.getCurrentCondition(date.plus(8 * update, DungeonTimeUnit.HOUR)));
+    }
+    Assert.assertTrue(conditionSet.size() > 1);
+  }
+
 }